@@ -0,0 +1,159 @@
+package com.studyplanner.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Rajada de requisições contra o backend com pool de 2 conexões, em dois modos:
+//   before: threads de plataforma do Tomcat, sem controle de admissão (fila no Hikari, até 30 s)
+//   after:  virtual threads + AdmissionControlFilter (fila no semáforo, 503 + Retry-After rápido)
+// Imprime p50/p90/p99/máx por modo e grava o resumo em JSON.
+//
+// Argumentos (chave=valor): sessions=10000 requests=4000 concurrency=400 path=/api/study-sessions/user/1/page
+//                           out=target/load-test.json modes=before,after
+public class AdmissionLoadTest {
+
+    private static final Map<String, String[]> MODES = Map.of(
+        "before", new String[] {"--spring.threads.virtual.enabled=false", "--studyplanner.admission.enabled=false"},
+        "after", new String[] {"--spring.threads.virtual.enabled=true", "--studyplanner.admission.enabled=true"});
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+            "sessions", "10000",
+            "requests", "4000",
+            "concurrency", "400",
+            "path", "/api/study-sessions/user/" + SeededDataset.USER_ID + "/page",
+            "out", "target/load-test.json",
+            "modes", "before,after"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+
+        int sessions = Integer.parseInt(options.get("sessions"));
+        int requests = Integer.parseInt(options.get("requests"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        for (String mode : options.get("modes").split(",")) {
+            String[] modeArgs = MODES.get(mode);
+            if (modeArgs == null) throw new IllegalArgumentException("Modo inválido: " + mode + " (use before e/ou after)");
+
+            List<String> bootArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.hikari.maximum-pool-size=2",
+                "--spring.datasource.hikari.connection-timeout=30000"));
+            bootArgs.addAll(Arrays.asList(modeArgs));
+
+            try (ConfigurableApplicationContext context = SeededDataset.boot(WebApplicationType.SERVLET, sessions, bootArgs.toArray(String[]::new))) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI uri = URI.create("http://localhost:" + port + options.get("path"));
+
+                run(uri, Math.min(requests, 200), 20); // aquecimento
+                Result result = run(uri, requests, concurrency);
+                report.put(mode, result.summary());
+                System.out.printf("%-6s %s%n", mode, result.summary());
+            }
+        }
+
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        System.out.println("Resultado gravado em " + out.toAbsolutePath());
+    }
+
+    private static Result run(URI uri, int requests, int concurrency) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        status = -1;
+                    } finally {
+                        inFlight.release();
+                    }
+                    samples.add(new long[] {status, System.nanoTime() - begin});
+                });
+            }
+        }
+        return new Result(new ArrayList<>(samples), System.nanoTime() - start);
+    }
+
+    private record Result(List<long[]> samples, long elapsedNanos) {
+
+        Map<String, Object> summary() {
+            Map<Long, Integer> statuses = new TreeMap<>();
+            List<Long> all = new ArrayList<>();
+            List<Long> ok = new ArrayList<>();
+            for (long[] sample : samples) {
+                statuses.merge(sample[0], 1, Integer::sum);
+                all.add(sample[1]);
+                if (sample[0] >= 200 && sample[0] < 300) ok.add(sample[1]);
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", samples.size());
+            summary.put("throughputPerSecond", Math.round(samples.size() / (elapsedNanos / 1e9)));
+            summary.put("statuses", statuses);
+            summary.put("allMs", percentiles(all));
+            summary.put("successMs", percentiles(ok));
+            return summary;
+        }
+
+        private static Map<String, Long> percentiles(List<Long> nanos) {
+            Map<String, Long> result = new LinkedHashMap<>();
+            if (nanos.isEmpty()) return result;
+            nanos.sort(null);
+            result.put("p50", percentile(nanos, 0.50));
+            result.put("p90", percentile(nanos, 0.90));
+            result.put("p99", percentile(nanos, 0.99));
+            result.put("max", nanos.get(nanos.size() - 1) / 1_000_000);
+            return result;
+        }
+
+        private static long percentile(List<Long> sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1_000_000;
+        }
+    }
+}
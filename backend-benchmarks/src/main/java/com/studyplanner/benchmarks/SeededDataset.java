@@ -0,0 +1,160 @@
+package com.studyplanner.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.studyplanner.backend.StudyPlannerBackendApplication;
+import com.studyplanner.backend.service.StudyRollupService;
+
+// Sobe o contexto do backend sobre um H2 em memória e semeia um usuário com `sessions` sessões.
+// Os dados são gerados com semente fixa, então cada tamanho produz sempre o mesmo banco.
+@State(Scope.Benchmark)
+public class SeededDataset {
+
+    static final long USER_ID = 1L;
+
+    private static final int SUBJECTS = 8;
+    private static final int DAYS = 365;
+    private static final int BATCH = 5_000;
+    private static final List<String> MATTERS = List.of("Álgebra", "Geometria", "Trigonometria", "Estatística", "Funções");
+
+    @Param({"100", "10000", "1000000"})
+    public int sessions;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = boot(WebApplicationType.NONE, sessions);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Sobe o backend sobre o H2 semeado; extraArgs sobrescrevem os padrões (ex.: --server.port=0)
+    static ConfigurableApplicationContext boot(WebApplicationType type, int sessions, String... extraArgs) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.hikari.maximum-pool-size", "4");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.flyway.enabled", "false");
+        // Sem cache: cada invocação mede o cálculo, não um hit no Caffeine
+        properties.put("spring.cache.type", "none");
+        properties.put("spring.main.lazy-initialization", "false");
+        properties.put("spring.mail.host", "localhost");
+        properties.put("api.security.token.secret", "benchmark");
+        properties.put("logging.level.root", "WARN");
+        // Repetir uma opção na linha de comando vira lista ("4,2"), então os extras substituem os padrões aqui
+        for (String arg : extraArgs) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            properties.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        String[] args = properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+
+        // Argumentos de linha de comando têm precedência sobre o application.properties do backend
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StudyPlannerBackendApplication.class)
+            .web(type)
+            .run(args);
+
+        seed(context.getBean(JdbcTemplate.class), sessions);
+        context.getBean(StudyRollupService.class).rebuild();
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbc, int sessions) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+
+        jdbc.update("INSERT INTO users (id, name, email, password, password_version) VALUES (?, ?, ?, ?, 0)",
+            USER_ID, "Benchmark", "benchmark@email.com", "123");
+
+        for (long subjectId = 1; subjectId <= SUBJECTS; subjectId++) {
+            jdbc.update("INSERT INTO subjects (id, name, color, user_id) VALUES (?, ?, ?, ?)",
+                subjectId, "Matéria " + subjectId, "#FF0000", USER_ID);
+            for (String matter : MATTERS) {
+                jdbc.update("INSERT INTO subject_subtopics (subject_id, name) VALUES (?, ?)", subjectId, matter);
+            }
+        }
+
+        // Um pouco de cada formato de meta: matéria, matéria + assunto e período
+        long goalId = 1;
+        for (long subjectId = 1; subjectId <= SUBJECTS; subjectId += 2) {
+            insertGoal(jdbc, goalId++, subjectId, null, today.minusDays(DAYS), 120.0, null);
+            insertGoal(jdbc, goalId++, subjectId, MATTERS.get((int) subjectId % MATTERS.size()), today.minusDays(DAYS), null, 500);
+        }
+        insertGoal(jdbc, goalId++, null, null, today.minusDays(7), 10.0, null);
+        insertGoal(jdbc, goalId++, null, null, today.minusDays(30), null, 200);
+        insertGoal(jdbc, goalId, null, null, today.minusDays(DAYS), 1000.0, null);
+
+        List<Object[]> sessionRows = new ArrayList<>(BATCH);
+        List<Object[]> matterRows = new ArrayList<>(BATCH * 2);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= sessions; id++) {
+            LocalDateTime date = now.minusMinutes(random.nextInt(DAYS * 24 * 60));
+            long subjectId = 1 + random.nextInt(SUBJECTS);
+            int total = random.nextInt(40);
+            sessionRows.add(new Object[] {
+                id, "Sessão " + id, "Revisão de exercícios", Timestamp.valueOf(date), 15 + random.nextInt(120),
+                random.nextInt(10) < 8, total, total == 0 ? 0 : random.nextInt(total + 1), USER_ID, subjectId
+            });
+            int matters = 1 + random.nextInt(2);
+            for (int m = 0; m < matters; m++) {
+                matterRows.add(new Object[] { id, MATTERS.get(random.nextInt(MATTERS.size())) });
+            }
+
+            if (sessionRows.size() == BATCH || id == sessions) {
+                jdbc.batchUpdate("INSERT INTO study_sessions (id, title, description, date, duration_minutes, completed, "
+                    + "total_questions, correct_questions, user_id, subject_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", sessionRows);
+                jdbc.batchUpdate("INSERT INTO session_matters (session_id, matter) VALUES (?, ?)", matterRows);
+                sessionRows.clear();
+                matterRows.clear();
+            }
+        }
+
+        // Os ids acima foram fixados à mão: as sequences (pooled, blocos de 50) continuam depois deles
+        restartSequence(jdbc, "users_seq", USER_ID);
+        restartSequence(jdbc, "subjects_seq", SUBJECTS);
+        restartSequence(jdbc, "goals_seq", goalId);
+        restartSequence(jdbc, "study_sessions_seq", sessions);
+    }
+
+    // Mesma regra da migração V5: o próximo nextval é o fim do primeiro bloco livre
+    private static void restartSequence(JdbcTemplate jdbc, String sequence, long maxId) {
+        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 50));
+    }
+
+    private static void insertGoal(JdbcTemplate jdbc, long id, Long subjectId, String matter, LocalDate start,
+            Double targetHours, Integer targetQuestions) {
+        jdbc.update("INSERT INTO goals (id, title, goal_type, start_date, active, target_hours, target_questions, matters, "
+            + "user_id, subject_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            id, "Meta " + id, "Semanal", start, true, targetHours, targetQuestions, matter, USER_ID, subjectId);
+    }
+}
@@ -0,0 +1,130 @@
+package com.studyplanner.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.studyplanner.backend.dto.SessionImportDTO;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.service.SessionImportService;
+import com.studyplanner.backend.service.StudySessionService;
+
+// Vazão de gravação de histórico em sessões/s: importação em lote (CSV e JSON) contra o caminho
+// antigo de uma chamada createSession por sessão. Cada invocação grava ROWS sessões novas.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SessionImportBenchmark.ROWS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SessionImportBenchmark {
+
+    static final int ROWS = 5_000;
+
+    private static final int SUBJECTS = 8;
+    private static final List<String> MATTERS = List.of("Álgebra", "Geometria", "Trigonometria", "Estatística", "Funções");
+
+    private ConfigurableApplicationContext context;
+    private SessionImportService sessionImportService;
+    private StudySessionService studySessionService;
+
+    private final List<Object[]> rows = new ArrayList<>(ROWS);
+    private byte[] csv;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Só o usuário e as matérias; o histórico cresce a cada invocação
+        context = SeededDataset.boot(WebApplicationType.NONE, 0);
+        sessionImportService = context.getBean(SessionImportService.class);
+        studySessionService = context.getBean(StudySessionService.class);
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        StringBuilder csvBuilder = new StringBuilder("title;date;durationMinutes;subject;matters;completed;totalQuestions;correctQuestions\n");
+        StringBuilder jsonBuilder = new StringBuilder("[");
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime date = now.minusMinutes(random.nextInt(3 * 365 * 24 * 60));
+            long subjectId = 1 + random.nextInt(SUBJECTS);
+            int minutes = 15 + random.nextInt(120);
+            int total = random.nextInt(40);
+            int correct = total == 0 ? 0 : random.nextInt(total + 1);
+            String matter = MATTERS.get(random.nextInt(MATTERS.size()));
+            rows.add(new Object[] { date, subjectId, minutes, total, correct, matter });
+
+            csvBuilder.append("Sessão ").append(i).append(';').append(date).append(';').append(minutes)
+                .append(";Matéria ").append(subjectId).append(';').append(matter).append(";sim;")
+                .append(total).append(';').append(correct).append('\n');
+            jsonBuilder.append(i == 0 ? "" : ",")
+                .append("{\"title\":\"Sessão ").append(i).append("\",\"date\":\"").append(date)
+                .append("\",\"durationMinutes\":").append(minutes).append(",\"subjectId\":").append(subjectId)
+                .append(",\"matters\":[\"").append(matter).append("\"],\"completed\":true,\"totalQuestions\":")
+                .append(total).append(",\"correctQuestions\":").append(correct).append('}');
+        }
+        csv = csvBuilder.toString().getBytes(StandardCharsets.UTF_8);
+        json = jsonBuilder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public SessionImportDTO.Result importCsv() {
+        return check(sessionImportService.importCsv(SeededDataset.USER_ID, new ByteArrayInputStream(csv)));
+    }
+
+    @Benchmark
+    public SessionImportDTO.Result importJson() {
+        return check(sessionImportService.importJson(SeededDataset.USER_ID, new ByteArrayInputStream(json)));
+    }
+
+    // Linha de base: o que o frontend faria hoje, uma sessão (e uma transação) por chamada
+    @Benchmark
+    public long createSessionPerRow() {
+        long last = 0;
+        for (Object[] row : rows) {
+            User user = new User();
+            user.setId(SeededDataset.USER_ID);
+            Subject subject = new Subject();
+            subject.setId((Long) row[1]);
+            StudySession session = new StudySession(null, "Sessão", null, (LocalDateTime) row[0], (Integer) row[2], true,
+                user, subject, new ArrayList<>(List.of((String) row[5])));
+            session.setTotalQuestions((Integer) row[3]);
+            session.setCorrectQuestions((Integer) row[4]);
+            last = studySessionService.createSession(session).getId();
+        }
+        return last;
+    }
+
+    private static SessionImportDTO.Result check(SessionImportDTO.Result result) {
+        if (result.imported() != ROWS) {
+            throw new IllegalStateException("Importação incompleta: " + result);
+        }
+        return result;
+    }
+}
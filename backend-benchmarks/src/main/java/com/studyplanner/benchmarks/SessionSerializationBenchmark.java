@@ -0,0 +1,111 @@
+package com.studyplanner.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.repository.StudySessionRepository;
+import com.studyplanner.backend.service.StudySessionService;
+
+// Serialização JSON da listagem de sessões: entidades (formato antigo) x SessionDTO (formato atual).
+// dtoList/entityList carregam as listas uma vez no setup, então só o Jackson entra na medição;
+// dtoListing/entityListing medem a listagem inteira (consulta + JSON), como numa requisição.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SessionSerializationBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @State(Scope.Benchmark)
+    public static class Dtos {
+
+        List<SessionDTO> sessions;
+
+        @Setup
+        public void load(SeededDataset dataset) {
+            sessions = dataset.bean(StudySessionService.class).findAllByUserId(SeededDataset.USER_ID);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Entities {
+
+        List<StudySession> sessions;
+
+        @Setup
+        public void load(SeededDataset dataset) {
+            TransactionTemplate tx = new TransactionTemplate(dataset.bean(PlatformTransactionManager.class));
+            sessions = tx.execute(status -> {
+                List<StudySession> list = dataset.bean(StudySessionRepository.class).findByUserIdOrderByDateDesc(SeededDataset.USER_ID);
+                // Inicializa as coleções LAZY para serializar fora da transação, como no cache
+                for (StudySession session : list) {
+                    Hibernate.initialize(session.getMatters());
+                    Hibernate.initialize(session.getSubject().getMatters());
+                }
+                return list;
+            });
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Listing {
+
+        StudySessionService studySessionService;
+        StudySessionRepository studySessionRepository;
+        TransactionTemplate tx;
+
+        @Setup
+        public void load(SeededDataset dataset) {
+            studySessionService = dataset.bean(StudySessionService.class);
+            studySessionRepository = dataset.bean(StudySessionRepository.class);
+            tx = new TransactionTemplate(dataset.bean(PlatformTransactionManager.class));
+        }
+    }
+
+    @Benchmark
+    public byte[] dtoList(Dtos state) throws JsonProcessingException {
+        return MAPPER.writeValueAsBytes(state.sessions);
+    }
+
+    @Benchmark
+    public byte[] entityList(Entities state) throws JsonProcessingException {
+        return MAPPER.writeValueAsBytes(state.sessions);
+    }
+
+    @Benchmark
+    public byte[] dtoListing(Listing state) throws JsonProcessingException {
+        return MAPPER.writeValueAsBytes(state.studySessionService.findAllByUserId(SeededDataset.USER_ID));
+    }
+
+    // Serializa dentro da transação: as coleções LAZY são carregadas durante a escrita do JSON
+    @Benchmark
+    public byte[] entityListing(Listing state) {
+        return state.tx.execute(status -> {
+            try {
+                return MAPPER.writeValueAsBytes(state.studySessionRepository.findByUserIdOrderByDateDesc(SeededDataset.USER_ID));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
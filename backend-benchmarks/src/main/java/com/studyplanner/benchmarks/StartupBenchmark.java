@@ -0,0 +1,266 @@
+package com.studyplanner.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.flywaydb.core.Flyway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// Tempo até a primeira resposta e memória (RSS) do backend em cada forma de empacotamento, cada uma num
+// processo novo contra um PostgreSQL embarcado já migrado (como um scale-to-zero acordando):
+//   jvm      java -jar do *-exec.jar (a imagem atual)
+//   aot      jar extraído + -Dspring.aot.enabled=true (exige o build com -Paot)
+//   aot-cds  o mesmo + arquivo AppCDS gerado por uma execução de treino (feita aqui, como no dockerfile)
+//   native   binário do GraalVM (mvn -Pnative,aot native:compile), só se native=<caminho> existir
+// Para cada variante: firstRequestMs (do fork até a resposta de `path`), startedMs (o "Started ... in" do log)
+// e rssMb logo após a primeira resposta; mediana de `runs` execuções depois de `warmup` descartadas.
+//
+// Argumentos (chave=valor): jar=../backend/target/backend-0.0.1-SNAPSHOT-exec.jar native=../backend/target/backend
+//                           variants=jvm,aot,aot-cds,native runs=5 warmup=1 path=/api/dashboard/stats/1
+//                           jvmOpts=-XX:TieredStopAtLevel=1 out=target/startup.json
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+            "jar", "../backend/target/backend-0.0.1-SNAPSHOT-exec.jar",
+            "native", "../backend/target/backend",
+            "variants", "jvm,aot,aot-cds,native",
+            "runs", "5",
+            "warmup", "1",
+            "path", "/api/dashboard/stats/" + SeededDataset.USER_ID,
+            "jvmOpts", "-XX:TieredStopAtLevel=1",
+            "out", "target/startup.json"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+
+        Path jar = Path.of(options.get("jar")).toAbsolutePath();
+        if (!Files.exists(jar)) throw new IllegalArgumentException("Jar não encontrado: " + jar + " (rode mvn -Paot package no backend)");
+        Path work = Path.of("target", "startup").toAbsolutePath();
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> jvmOpts = options.get("jvmOpts").isBlank() ? List.of() : List.of(options.get("jvmOpts").split(" "));
+        int runs = Integer.parseInt(options.get("runs"));
+        int warmup = Integer.parseInt(options.get("warmup"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            // O esquema já existe, como em produção: nenhuma variante paga a migração inicial
+            Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+            Map<String, String> env = environment(postgres.getPort());
+
+            Path extracted = null;
+            for (String variant : options.get("variants").split(",")) {
+                List<String> command = new ArrayList<>();
+                switch (variant) {
+                    case "jvm" -> {
+                        command.add(java);
+                        command.addAll(jvmOpts);
+                        command.addAll(List.of("-jar", jar.toString()));
+                    }
+                    case "aot", "aot-cds" -> {
+                        if (extracted == null) extracted = extract(java, jar, work);
+                        command.add(java);
+                        command.addAll(jvmOpts);
+                        if (variant.equals("aot-cds")) {
+                            command.add("-XX:SharedArchiveFile=" + train(java, extracted, jar, work, env));
+                        }
+                        command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", extracted.resolve(jar.getFileName()).toString()));
+                    }
+                    case "native" -> {
+                        Path binary = Path.of(options.get("native")).toAbsolutePath();
+                        if (!Files.isExecutable(binary)) {
+                            System.out.println("native: binário não encontrado em " + binary + ", variante ignorada");
+                            continue;
+                        }
+                        command.add(binary.toString());
+                    }
+                    default -> throw new IllegalArgumentException("Variante inválida: " + variant + " (use jvm, aot, aot-cds ou native)");
+                }
+
+                List<Sample> samples = new ArrayList<>();
+                for (int i = 0; i < warmup + runs; i++) {
+                    Sample sample = launch(command, env, options.get("path"));
+                    if (i >= warmup) samples.add(sample);
+                }
+                Map<String, Object> summary = summary(samples);
+                report.put(variant, summary);
+                System.out.printf("%-8s %s%n", variant, summary);
+            }
+        }
+
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        System.out.println("Resultado gravado em " + out.toAbsolutePath());
+    }
+
+    // As mesmas variáveis do docker-compose, apontando para o banco embarcado
+    private static Map<String, String> environment(int port) {
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("DB_HOST", "localhost");
+        env.put("DB_PORT", String.valueOf(port));
+        env.put("POSTGRES_DB", "postgres");
+        env.put("POSTGRES_USER", "postgres");
+        env.put("POSTGRES_PASSWORD", "postgres");
+        env.put("JWT_SECRET", "startup-benchmark");
+        env.put("MAIL_USERNAME", "benchmark@localhost");
+        env.put("MAIL_PASSWORD", "");
+        env.put("SPRING_PROFILES_ACTIVE", "prod");
+        return env;
+    }
+
+    // Layout recomendado para CDS: jar fino + lib/ (java -Djarmode=tools ... extract)
+    private static Path extract(String java, Path jar, Path work) throws IOException, InterruptedException {
+        Path destination = work.resolve("app");
+        run(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force", "--destination", destination.toString()), Map.of());
+        return destination;
+    }
+
+    // Mesma execução de treino do dockerfile: sobe o contexto sem banco e grava as classes carregadas na saída
+    private static Path train(String java, Path extracted, Path jar, Path work, Map<String, String> env) throws IOException, InterruptedException {
+        Path archive = work.resolve("app.jsa");
+        // Arquivo de outro build seria recusado pela JVM (e a variante rodaria sem CDS)
+        Files.deleteIfExists(archive);
+        Map<String, String> trainingEnv = new LinkedHashMap<>(env);
+        trainingEnv.put("DB_PORT", "1");
+        run(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+            "-Dstudyplanner.startup.skip-migrations=true", "-Dspring.jpa.hibernate.ddl-auto=none",
+            "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+            "-jar", extracted.resolve(jar.getFileName()).toString()), trainingEnv);
+        return archive;
+    }
+
+    private static void run(List<String> command, Map<String, String> env) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().putAll(env);
+        int exit = builder.start().waitFor();
+        if (exit != 0) throw new IllegalStateException("Falhou (" + exit + "): " + String.join(" ", command));
+    }
+
+    private static Sample launch(List<String> command, Map<String, String> env, String path) throws Exception {
+        int port = freePort();
+        List<String> full = new ArrayList<>(command);
+        full.add("--server.port=" + port);
+        ProcessBuilder builder = new ProcessBuilder(full).redirectErrorStream(true);
+        builder.environment().putAll(env);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(TIMEOUT).GET().build();
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        StringBuilder log = new StringBuilder();
+        Thread reader = Thread.ofVirtual().start(() -> drain(process, log));
+        try {
+            int status = -1;
+            while (status < 0) {
+                if (!process.isAlive()) throw new IllegalStateException("Processo encerrou antes de responder:\n" + log);
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) throw new IllegalStateException("Sem resposta em " + TIMEOUT + ":\n" + log);
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+            long firstRequestMs = (System.nanoTime() - start) / 1_000_000;
+            long rssMb = rssKb(process.pid()) / 1024;
+
+            // O "Started" sai depois dos ApplicationRunners, às vezes depois da primeira resposta
+            Matcher started = STARTED.matcher("");
+            for (int i = 0; i < 500 && !started.find(); i++) {
+                Thread.sleep(10);
+                synchronized (log) {
+                    started = STARTED.matcher(log.toString());
+                }
+            }
+            long startedMs = started.find(0) ? Math.round(Double.parseDouble(started.group(1)) * 1000) : -1;
+            return new Sample(status, firstRequestMs, startedMs, rssMb);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                process.waitFor();
+            }
+            reader.join();
+        }
+    }
+
+    private static void drain(Process process, StringBuilder log) {
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                synchronized (log) {
+                    log.append(line).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            // Processo encerrado
+        }
+    }
+
+    // VmRSS do /proc no Linux; em outros sistemas, ps
+    private static long rssKb(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        ps.waitFor();
+        return output.isEmpty() ? -1 : Long.parseLong(output);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, Object> summary(List<Sample> samples) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("runs", samples.size());
+        summary.put("status", samples.get(0).status());
+        summary.put("firstRequestMs", median(samples.stream().mapToLong(Sample::firstRequestMs).toArray()));
+        summary.put("firstRequestMinMs", samples.stream().mapToLong(Sample::firstRequestMs).min().orElse(-1));
+        summary.put("startedMs", median(samples.stream().mapToLong(Sample::startedMs).toArray()));
+        summary.put("rssMb", median(samples.stream().mapToLong(Sample::rssMb).toArray()));
+        return summary;
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private record Sample(int status, long firstRequestMs, long startedMs, long rssMb) {}
+}
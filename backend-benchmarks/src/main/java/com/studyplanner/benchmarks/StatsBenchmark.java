@@ -0,0 +1,85 @@
+package com.studyplanner.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.studyplanner.backend.dto.DashboardStatsDTO;
+import com.studyplanner.backend.dto.GoalDTO;
+import com.studyplanner.backend.repository.GoalRepository;
+import com.studyplanner.backend.repository.StudySessionRepository;
+import com.studyplanner.backend.service.DashboardService;
+import com.studyplanner.backend.service.GoalService;
+
+// Leituras agregadas do dashboard e das metas (sem cache), por tamanho de histórico
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StatsBenchmark {
+
+    private DashboardService dashboardService;
+    private GoalService goalService;
+    private StudySessionRepository studySessionRepository;
+    private GoalRepository goalRepository;
+
+    @Setup
+    public void setup(SeededDataset dataset) {
+        dashboardService = dataset.bean(DashboardService.class);
+        goalService = dataset.bean(GoalService.class);
+        studySessionRepository = dataset.bean(StudySessionRepository.class);
+        goalRepository = dataset.bean(GoalRepository.class);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO dashboardStats() {
+        return dashboardService.getStats(SeededDataset.USER_ID);
+    }
+
+    // Caminho anterior do getStats: sessões dos últimos 7 dias como entidades + 4 agregações separadas
+    @Benchmark
+    public DashboardStatsDTO dashboardStatsLegacy() {
+        LocalDate today = LocalDate.now();
+        LocalDate chartStart = today.minusDays(6);
+        LocalDateTime startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+
+        Map<LocalDate, Double> dailyMap = studySessionRepository.findByUserIdAndDateAfter(SeededDataset.USER_ID, chartStart.atStartOfDay())
+            .stream()
+            .collect(Collectors.groupingBy(s -> s.getDate().toLocalDate(), Collectors.summingDouble(s -> s.getDurationMinutes() / 60.0)));
+        List<DashboardStatsDTO.ChartDataDTO> chartData = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = chartStart.plusDays(i);
+            chartData.add(new DashboardStatsDTO.ChartDataDTO(date.toString(), dailyMap.getOrDefault(date, 0.0)));
+        }
+
+        Integer totalMinutes = studySessionRepository.getTotalStudyMinutes(SeededDataset.USER_ID);
+        Integer weeklyMinutes = studySessionRepository.getWeeklyStudyMinutes(SeededDataset.USER_ID, startOfWeek);
+        Long completedSessions = studySessionRepository.countByUser_IdAndCompletedTrue(SeededDataset.USER_ID);
+        Long activeGoals = goalRepository.countByUser_IdAndActiveTrue(SeededDataset.USER_ID);
+        return new DashboardStatsDTO(totalMinutes / 60, weeklyMinutes / 60, completedSessions, activeGoals, chartData);
+    }
+
+    @Benchmark
+    public List<GoalDTO> goalProgress() {
+        return goalService.findGoalsByUserId(SeededDataset.USER_ID);
+    }
+}
@@ -0,0 +1,123 @@
+package com.studyplanner.backend.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Limita quantas requisições da API rodam ao mesmo tempo ao tamanho do pool de conexões.
+// As excedentes esperam no semáforo (barato com virtual threads) até max-wait; com a fila cheia
+// ou o tempo esgotado, respondem 503 + Retry-After na hora, em vez de parar 30 s no Hikari.
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // Login, cadastro e recuperação de senha ficam fora: passam a maior parte do tempo no BCrypt, sem conexão,
+    // e não podem receber 503 porque o resto da API está com as vagas ocupadas
+    private static final String AUTH_PATH = "/api/auth/";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public AdmissionControlFilter(int maxConcurrent, int maxQueue, Duration maxWait, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        Gauge.builder("http.admission.active", this, f -> f.maxConcurrent - f.permits.availablePermits())
+            .description("Requisições da API em execução").register(meterRegistry);
+        Gauge.builder("http.admission.queued", queued, AtomicInteger::get)
+            .description("Requisições da API aguardando vaga").register(meterRegistry);
+        this.waitTimer = Timer.builder("http.admission.wait")
+            .description("Espera por vaga antes de executar").register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("http.admission.rejected").tag("reason", "queue_full").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("http.admission.rejected").tag("reason", "timeout").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + AUTH_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire(response)) return;
+
+        // O despacho assíncrono (ex.: exportação NDJSON) continua fora desta contagem; a exportação só usa conexão
+        // durante a leitura de cada bloco, nunca enquanto escreve no socket
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire(HttpServletResponse response) throws IOException {
+        // tryAcquire com timeout respeita a ordem de chegada (o tryAcquire() sem argumentos fura a fila)
+        if (tryAcquire(0)) return true;
+
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            reject(response);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = tryAcquire(maxWait.toNanos());
+        } finally {
+            queued.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            rejectedTimeout.increment();
+            reject(response);
+        }
+        return acquired;
+    }
+
+    private boolean tryAcquire(long nanos) {
+        try {
+            return permits.tryAcquire(nanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Servidor ocupado, tente novamente em instantes\"}");
+    }
+}
@@ -0,0 +1,24 @@
+package com.studyplanner.backend.config;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableCaching
+@EnableScheduling
+public class CacheConfig {
+
+    public static final String DASHBOARD_STATS = "dashboardStats";
+    public static final String GOAL_PROGRESS = "goalProgress";
+
+    public static final ZoneId BRAZIL_ZONE = ZoneId.of("America/Sao_Paulo");
+
+    // Entra na chave do dashboard: na virada do dia a chave muda e o gráfico de 7 dias nunca fica defasado
+    public static LocalDate today() {
+        return LocalDate.now(BRAZIL_ZONE);
+    }
+}
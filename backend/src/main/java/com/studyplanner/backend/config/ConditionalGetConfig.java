@@ -0,0 +1,31 @@
+package com.studyplanner.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.studyplanner.backend.service.UserDataVersions;
+
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final UserDataVersions userDataVersions;
+
+    public ConditionalGetConfig(UserDataVersions userDataVersions) {
+        this.userDataVersions = userDataVersions;
+    }
+
+    // Leituras que dependem só dos dados do usuário (e do dia); POST/PUT/DELETE passam direto
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DataVersionETagInterceptor(userDataVersions))
+            .addPathPatterns(
+                "/api/dashboard/*/{userId}",
+                "/api/goals/user/{userId}",
+                "/api/subjects/user/{userId}",
+                "/api/study-sessions/user/{userId}",
+                "/api/study-sessions/user/{userId}/*")
+            // Canal SSE: a resposta nunca é a mesma
+            .excludePathPatterns("/api/dashboard/stream/*");
+    }
+}
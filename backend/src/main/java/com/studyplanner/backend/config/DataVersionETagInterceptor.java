@@ -0,0 +1,56 @@
+package com.studyplanner.backend.config;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.studyplanner.backend.service.UserDataVersions;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// GET condicional nas leituras por usuário ({userId} no caminho). O ETag sai da versão dos dados do
+// usuário, então um If-None-Match igual recebe 304 antes do controller: sem consulta e sem JSON.
+public class DataVersionETagInterceptor implements HandlerInterceptor {
+
+    private final UserDataVersions userDataVersions;
+
+    public DataVersionETagInterceptor(UserDataVersions userDataVersions) {
+        this.userDataVersions = userDataVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Só a requisição original (o dispatch assíncrono da exportação já tem resposta em andamento)
+        if (request.getDispatcherType() != DispatcherType.REQUEST) return true;
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) return true;
+
+        Long userId = userId(request);
+        if (userId == null) return true;
+
+        Optional<String> etag = userDataVersions.etag(userId);
+        if (etag.isEmpty()) return true;
+
+        // Sem isso o Spring Security manda no-store e o navegador nunca revalida
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        // Responde 304 quando bate; nos dois casos grava o cabeçalho ETag
+        return !new ServletWebRequest(request, response).checkNotModified(etag.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long userId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables != null ? variables.get("userId") : null;
+        if (value == null) return null;
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.studyplanner.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    // Execução de treino do AppCDS (build da imagem, sem banco): o contexto sobe inteiro e só a migração é pulada.
+    // Com o jar AOT o spring.flyway.enabled já foi decidido no build, por isso a chave é avaliada aqui
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${studyplanner.startup.skip-migrations:false}") boolean skipMigrations) {
+        return flyway -> {
+            if (!skipMigrations) flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.studyplanner.backend.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+// Cache de 2º nível do Hibernate para dados que quase não mudam (usuários, matérias e seus assuntos):
+// findById de User/Subject nas escritas e os assuntos das matérias saem da memória, sem SELECT.
+// Estratégia read-write: o cache é atualizado no commit de quem grava pela entidade.
+// Hit/miss/put por região em /actuator/metrics/hibernate.second.level.cache.*
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USERS = "users";
+    public static final String SUBJECTS = "subjects";
+    public static final String SUBJECT_MATTERS = "subjects.matters";
+
+    // CacheManager próprio do contexto (URI única): contextos de teste no mesmo processo não compartilham entradas
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${studyplanner.hibernate.cache.max-size:10000}") long maxSize,
+                                              @Value("${studyplanner.hibernate.cache.ttl:1h}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("studyplanner-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : List.of(USERS, SUBJECTS, SUBJECT_MATTERS)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            // Teto de defasagem para o que for gravado fora do Hibernate (SQL manual, outra instância)
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Região sem configuração acima é erro na subida, não um cache sem limite criado em silêncio
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Estatísticas alimentam as métricas; o log de métricas por sessão continua desligado
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
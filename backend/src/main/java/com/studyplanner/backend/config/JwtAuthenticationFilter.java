@@ -0,0 +1,54 @@
+package com.studyplanner.backend.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.studyplanner.backend.dto.AuthenticatedUser;
+import com.studyplanner.backend.service.PrincipalCache;
+import com.studyplanner.backend.service.TokenService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Autentica o "Authorization: Bearer <jwt>": assinatura (com cache no TokenService) e principal
+// (com cache no PrincipalCache). Token inválido, expirado ou anterior à última troca de senha
+// segue como anônimo; quem decide se a rota exige login são as regras do SecurityConfig.
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+    private final PrincipalCache principalCache;
+
+    public JwtAuthenticationFilter(TokenService tokenService, PrincipalCache principalCache) {
+        this.tokenService = tokenService;
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            tokenService.verify(header.substring(BEARER.length()).trim())
+                .flatMap(token -> principalCache.findByEmail(token.subject())
+                    .filter(user -> user.passwordVersion() == token.passwordVersion()))
+                .ifPresent(JwtAuthenticationFilter::authenticate);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static void authenticate(AuthenticatedUser user) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+        SecurityContextHolder.setContext(context);
+    }
+}
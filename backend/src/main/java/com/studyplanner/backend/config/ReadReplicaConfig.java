@@ -0,0 +1,80 @@
+package com.studyplanner.backend.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Só com studyplanner.datasource.replica.url definido: dois pools Hikari (primário em spring.datasource.*,
+// réplica em studyplanner.datasource.replica.*) atrás de um DataSource roteado. Sem a propriedade o
+// Spring Boot monta o pool único de sempre.
+@Configuration
+@ConditionalOnProperty(name = "studyplanner.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Usuário e senha iguais aos do primário, a menos que sejam informados
+    @Bean
+    @ConfigurationProperties("studyplanner.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${studyplanner.datasource.replica.url}") String url,
+            @Value("${studyplanner.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${studyplanner.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${studyplanner.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${studyplanner.datasource.replica.max-lag:2s}") Duration maxLag) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery.isBlank() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery,
+            maxLag, meterRegistry);
+    }
+
+    // O proxy lazy só pede a conexão física no primeiro comando, quando o readOnly da transação já é conhecido
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry,
+            @Value("${studyplanner.datasource.replica.read-your-writes:5s}") Duration readYourWrites) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+            replicaLagMonitor, readYourWrites, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,68 @@
+package com.studyplanner.backend.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Mede periodicamente o atraso da réplica. Acima de max-lag, ou se a consulta falhar, as leituras
+// voltam para o primário até a próxima medição dentro do limite. Começa indisponível até a primeira.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Réplica em dia (tudo que chegou já foi aplicado) = 0; senão, idade da última transação aplicada.
+    // Num servidor que não é réplica as funções devolvem NULL e o atraso também fica 0.
+    public static final String POSTGRES_LAG_QUERY = """
+        SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                    ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+        """;
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+            .baseUnit("seconds")
+            .description("Atraso medido da réplica de leitura (NaN = inacessível)")
+            .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${studyplanner.datasource.replica.lag-check-interval-ms:2000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            usable = lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+        }
+
+        if (wasUsable && !usable) {
+            log.warn("Réplica fora do limite de atraso ({}s, máximo {}): leituras no primário", lagSeconds, maxLag);
+        } else if (!wasUsable && usable) {
+            log.info("Réplica disponível (atraso {}s): leituras readOnly voltam para ela", lagSeconds);
+        }
+    }
+}
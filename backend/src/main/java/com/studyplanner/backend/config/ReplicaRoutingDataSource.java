@@ -0,0 +1,128 @@
+package com.studyplanner.backend.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studyplanner.backend.dto.AuthenticatedUser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Escolhe o pool de cada conexão física. Só as transações @Transactional(readOnly = true) declaradas nos
+// serviços vão para a réplica; as transações padrão dos repositórios (findById/count avulsos, ex.: logo
+// depois de um cadastro) ficam no primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy para
+// que o readOnly da transação já esteja definido quando a conexão for pedida.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    // Usuários que gravaram há menos de read-your-writes: as leituras deles continuam no primário
+    private final Cache<Long, Boolean> recentWriters;
+
+    private final Counter toReplica;
+    private final Counter toPrimaryWrite;
+    private final Counter toPrimaryNoTransaction;
+    private final Counter toPrimaryRepository;
+    private final Counter toPrimaryPinned;
+    private final Counter toPrimaryLag;
+    private final Counter toPrimarySticky;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.recentWriters = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(readYourWrites).build();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.toReplica = routed(meterRegistry, "replica", "read-only");
+        this.toPrimaryWrite = routed(meterRegistry, "primary", "write");
+        this.toPrimaryNoTransaction = routed(meterRegistry, "primary", "no-transaction");
+        this.toPrimaryRepository = routed(meterRegistry, "primary", "repository");
+        this.toPrimaryPinned = routed(meterRegistry, "primary", "pinned");
+        this.toPrimaryLag = routed(meterRegistry, "primary", "lag");
+        this.toPrimarySticky = routed(meterRegistry, "primary", "read-your-writes");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Sem transação (Flyway, consultas @Query avulsas, JDBC em autocommit): não dá para saber se é leitura
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            toPrimaryNoTransaction.increment();
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            toPrimaryWrite.increment();
+            return Target.PRIMARY;
+        }
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transaction != null && transaction.startsWith(REPOSITORY_TRANSACTION_PREFIX)) {
+            toPrimaryRepository.increment();
+            return Target.PRIMARY;
+        }
+        if (PINNED.get() != null) {
+            toPrimaryPinned.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            toPrimaryLag.increment();
+            return Target.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            toPrimarySticky.increment();
+            return Target.PRIMARY;
+        }
+        toReplica.increment();
+        return Target.REPLICA;
+    }
+
+    // Para leituras logo após um commit feitas fora de uma requisição do usuário (sem read-your-writes).
+    // Sem réplica configurada não muda nada.
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (PINNED.get() != null) return action.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    // A janela conta a partir do commit; rollback não prende o usuário no primário
+    private void rememberWriter() {
+        Long userId = currentUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user ? user.id() : null;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routed").tag("target", target).tag("reason", reason)
+            .description("Conexões físicas pedidas por pool e motivo").register(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.studyplanner.backend.config;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.studyplanner.backend.service.StudyRollupService;
+
+// Comandos de manutenção do study_rollup, executados na subida da aplicação:
+//   java -jar app.jar --rollup=verify    -> apenas compara e registra divergências no log
+//   java -jar app.jar --rollup=rebuild   -> recalcula a tabela inteira a partir das sessões
+// Sem argumento, o rollup é montado automaticamente se estiver vazio e já existirem sessões.
+@Component
+public class RollupCommandRunner implements ApplicationRunner {
+
+    private final StudyRollupService studyRollupService;
+
+    public RollupCommandRunner(StudyRollupService studyRollupService) {
+        this.studyRollupService = studyRollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> command = args.getOptionValues("rollup");
+
+        if (command == null || command.isEmpty()) {
+            studyRollupService.rebuildIfEmpty();
+            return;
+        }
+
+        switch (command.get(0)) {
+            case "verify" -> studyRollupService.verify();
+            case "rebuild" -> studyRollupService.rebuild();
+            default -> throw new IllegalArgumentException("Comando de rollup inválido: " + command.get(0) + " (use verify ou rebuild)");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.studyplanner.backend.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Diagnóstico de N+1 em desenvolvimento: cabeçalho X-SQL-Statements em cada resposta da API.
+// Desligado no perfil prod (a imagem Docker sobe com SPRING_PROFILES_ACTIVE=prod).
+@Configuration
+@Profile("!prod")
+public class SqlStatementCountConfig {
+
+    // Envolve só o DataSource principal ("dataSource", o que JPA e JdbcTemplate usam): com réplica ele já é o
+    // roteador, e envolver também os pools de baixo contaria cada comando duas vezes
+    @Bean
+    public static BeanPostProcessor sqlStatementCounter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                    ? new SqlStatementCounter(dataSource) : bean;
+            }
+        };
+    }
+
+    // Antes do Spring Security, para contar também a consulta do principal quando ela acontece
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter() {
+        FilterRegistrationBean<SqlStatementCountFilter> registration = new FilterRegistrationBean<>(new SqlStatementCountFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
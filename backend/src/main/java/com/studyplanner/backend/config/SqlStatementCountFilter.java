@@ -0,0 +1,51 @@
+package com.studyplanner.backend.config;
+
+import java.io.IOException;
+
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Devolve no cabeçalho X-SQL-Statements quantos comandos SQL a requisição executou (só fora de produção).
+// O cabeçalho é gravado no momento em que a resposta é confirmada; respostas em streaming mostram o
+// total até o primeiro flush.
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Statements";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            if (!response.isCommitted()) countingResponse.writeHeader();
+            SqlStatementCounter.stop();
+        }
+    }
+
+    private static class CountingResponse extends OnCommittedResponseWrapper {
+
+        private final HttpServletResponse target;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+            this.target = response;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            target.setHeader(HEADER, String.valueOf(SqlStatementCounter.current()));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.studyplanner.backend.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Conta os comandos SQL executados na thread da requisição atual (ver SqlStatementCountFilter). Fica no
+// DataSource, então pega tudo que passa pelo pool: Hibernate, JdbcTemplate e SQL nativo. Um lote
+// (executeBatch) conta uma vez, como uma ida ao banco. Fora de uma requisição (jobs, outbox, outras threads)
+// não conta nada.
+public class SqlStatementCounter extends DelegatingDataSource {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    public SqlStatementCounter(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    static void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    static int current() {
+        int[] count = CURRENT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    private static void increment() {
+        int[] count = CURRENT.get();
+        if (count != null) count[0]++;
+    }
+
+    // Connection que devolve statements contados; o resto vai direto para a conexão do pool
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) return proxy(CallableStatement.class, statement, counting(statement));
+            if (result instanceof PreparedStatement statement) return proxy(PreparedStatement.class, statement, counting(statement));
+            if (result instanceof Statement statement) return proxy(Statement.class, statement, counting(statement));
+            return result;
+        });
+    }
+
+    private static InvocationHandler counting(Statement statement) {
+        return (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) increment();
+            return invoke(statement, method, args);
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -5,12 +5,14 @@ import org.springframework.web.bind.annotation.*;
 
 import com.studyplanner.backend.dto.AuthDTO;
 import com.studyplanner.backend.dto.RecoveryDTO;
+import com.studyplanner.backend.exception.RateLimitedException;
 import com.studyplanner.backend.service.AuthService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -33,6 +35,8 @@ public class AuthController {
         try {
             AuthDTO.AuthResponse response = authService.register(request); 
             return ResponseEntity.ok(response);
+        } catch (RateLimitedException e) {
+            return e.toResponse();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -41,13 +45,18 @@ public class AuthController {
     @Operation(summary = "Realizar login", description = "Autentica e retorna token JWT.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Login com sucesso"),
-        @ApiResponse(responseCode = "401", description = "Credenciais inválidas")
+        @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
+        @ApiResponse(responseCode = "429", description = "Muitas tentativas com este email ou IP"),
+        @ApiResponse(responseCode = "503", description = "Fila de verificação de senhas cheia")
     })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthDTO.LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody AuthDTO.LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthDTO.AuthResponse response = authService.login(request);
+            // Atrás de proxy o Tomcat já troca o endereço pelo do cliente (X-Forwarded-For, ver application.properties)
+            AuthDTO.AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (RateLimitedException e) {
+            return e.toResponse();
         } catch (RuntimeException e) {
             return ResponseEntity.status(401).body(e.getMessage());
         }
@@ -77,6 +86,8 @@ public class AuthController {
         try {
             authService.resetPassword(request.email(), request.code(), request.newPassword());
             return ResponseEntity.ok().build();
+        } catch (RateLimitedException e) {
+            return e.toResponse();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -1,21 +1,38 @@
 package com.studyplanner.backend.controller;
 
 import com.studyplanner.backend.dto.DashboardStatsDTO;
+import com.studyplanner.backend.dto.StudyAnalyticsDTO;
+import com.studyplanner.backend.dto.StudyHeatmapDTO;
+import com.studyplanner.backend.exception.RateLimitedException;
 import com.studyplanner.backend.service.DashboardService;
+import com.studyplanner.backend.service.LiveUpdateService;
+import com.studyplanner.backend.service.StudyAnalyticsService;
+import com.studyplanner.backend.service.StudyCalendarService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse; // Não esqueça deste import
 import io.swagger.v3.oas.annotations.responses.ApiResponses; // E deste
+
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardController {
     
     private final DashboardService dashboardService;
+    private final StudyCalendarService studyCalendarService;
+    private final StudyAnalyticsService studyAnalyticsService;
+    private final LiveUpdateService liveUpdateService;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, StudyCalendarService studyCalendarService,
+                               StudyAnalyticsService studyAnalyticsService, LiveUpdateService liveUpdateService) {
         this.dashboardService = dashboardService;
+        this.studyCalendarService = studyCalendarService;
+        this.studyAnalyticsService = studyAnalyticsService;
+        this.liveUpdateService = liveUpdateService;
     }
     
     @Operation(summary = "Obter estatísticas do dashboard", description = "Retorna os dados consolidados (total de horas, sessões, metas ativas) para o usuário especificado pelo ID.")
@@ -28,4 +45,58 @@ public class DashboardController {
         DashboardStatsDTO stats = dashboardService.getStats(userId);
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Acompanhar dashboard e metas ao vivo", description = "Abre um canal Server-Sent Events. O primeiro evento (snapshot) traz totais, gráfico e metas; depois de cada alteração do usuário chega um evento delta só com os totais, dias do gráfico e metas que mudaram.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Canal aberto (text/event-stream)"),
+        @ApiResponse(responseCode = "429", description = "Limite de conexões do usuário atingido"),
+        @ApiResponse(responseCode = "503", description = "Limite de conexões do servidor atingido")
+    })
+    @GetMapping("/stream/{userId}")
+    public ResponseEntity<SseEmitter> stream(@PathVariable Long userId) {
+        SseEmitter emitter = liveUpdateService.subscribe(userId);
+        return ResponseEntity.ok(emitter);
+    }
+
+    // O corpo do stream precisa ser tipado como SseEmitter, então a recusa por limite sai por aqui
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<String> handleRateLimited(RateLimitedException e) {
+        return e.toResponse();
+    }
+
+    @Operation(summary = "Obter mapa de calor e sequências de estudo", description = "Retorna os minutos estudados em cada dia do período (padrão: 365 dias terminando hoje), a sequência atual e a maior sequência de dias estudados.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Mapa de calor retornado com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    @GetMapping("/heatmap/{userId}")
+    public ResponseEntity<?> getHeatmap(@PathVariable Long userId, @RequestParam(defaultValue = "365") int days) {
+        try {
+            StudyHeatmapDTO heatmap = studyCalendarService.getHeatmap(userId, days);
+            return ResponseEntity.ok(heatmap);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Obter série de estudo por período", description = "Agrupa minutos, sessões, questões e percentual de acertos por dia, semana ou mês no período informado (datas ISO). Buckets sem estudo vêm zerados. Filtros opcionais por matéria (subjectId) e assunto (matter).")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Série retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Período ou granularidade inválidos")
+    })
+    @GetMapping("/analytics/{userId}")
+    public ResponseEntity<?> getAnalytics(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) Long subjectId,
+            @RequestParam(required = false) String matter) {
+        try {
+            StudyAnalyticsDTO analytics = studyAnalyticsService.getAnalytics(userId, start, end, granularity, subjectId, matter);
+            return ResponseEntity.ok(analytics);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.studyplanner.backend.controller;
 
 import java.util.List;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import com.studyplanner.backend.dto.AuthenticatedUser;
+import com.studyplanner.backend.dto.GoalDTO;
 import com.studyplanner.backend.model.Goal;
 import com.studyplanner.backend.service.GoalService;
 
@@ -29,8 +32,8 @@ public class GoalController {
         @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Goal>> getUserGoals(@PathVariable Long userId) {
-        List<Goal> goals = goalService.findGoalsByUserId(userId);
+    public ResponseEntity<List<GoalDTO>> getUserGoals(@PathVariable Long userId) {
+        List<GoalDTO> goals = goalService.findGoalsByUserId(userId);
         return ResponseEntity.ok(goals);
     }
 
@@ -43,7 +46,7 @@ public class GoalController {
     public ResponseEntity<?> createGoal(@Valid @RequestBody Goal goal) {
         try {
             Goal createdGoal = goalService.createGoal(goal);
-            return ResponseEntity.ok(createdGoal);
+            return ResponseEntity.ok(GoalDTO.from(createdGoal));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -55,8 +58,9 @@ public class GoalController {
         @ApiResponse(responseCode = "404", description = "Meta não encontrada")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Goal> updateGoal(@PathVariable Long id, @RequestBody Goal goalDetails) {
+    public ResponseEntity<GoalDTO> updateGoal(@PathVariable Long id, @Valid @RequestBody Goal goalDetails) {
         return goalService.updateGoal(id, goalDetails)
+                .map(GoalDTO::from)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -67,9 +71,9 @@ public class GoalController {
         @ApiResponse(responseCode = "404", description = "Meta não encontrada")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteGoal(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteGoal(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            goalService.deleteGoal(id);
+            goalService.deleteGoal(id, user != null ? user.id() : null);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
@@ -1,12 +1,26 @@
 package com.studyplanner.backend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.studyplanner.backend.dto.AuthenticatedUser;
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.dto.SessionImportDTO;
+import com.studyplanner.backend.dto.SessionPageDTO;
 import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.service.SessionImportService;
 import com.studyplanner.backend.service.StudySessionService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,9 +34,14 @@ import jakarta.validation.Valid;
 public class StudySessionController {
 
     private final StudySessionService studySessionService;
+    private final SessionImportService sessionImportService;
+    private final ObjectMapper objectMapper;
 
-    public StudySessionController(StudySessionService studySessionService) {
+    public StudySessionController(StudySessionService studySessionService, SessionImportService sessionImportService,
+                                  ObjectMapper objectMapper) {
         this.studySessionService = studySessionService;
+        this.sessionImportService = sessionImportService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Listar histórico de sessões", description = "Retorna a lista completa de todas as sessões de estudo de um usuário, ordenadas da mais recente para a mais antiga.")
@@ -30,23 +49,61 @@ public class StudySessionController {
         @ApiResponse(responseCode = "200", description = "Histórico retornado com sucesso")
     })
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<StudySession>> getUserSessions(@PathVariable Long userId) {
-        List<StudySession> sessions = studySessionService.findAllByUserId(userId);
+    public ResponseEntity<List<SessionDTO>> getUserSessions(@PathVariable Long userId) {
+        List<SessionDTO> sessions = studySessionService.findAllByUserId(userId);
         return ResponseEntity.ok(sessions);
     }
 
+    @Operation(summary = "Listar histórico paginado", description = "Retorna uma página do histórico (mais recentes primeiro) usando cursor. Envie o nextCursor da resposta anterior para buscar a próxima página; nextCursor nulo indica o fim.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<SessionPageDTO<SessionDTO>> getUserSessionsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(studySessionService.findPage(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Exportar histórico completo (NDJSON)", description = "Transmite todas as sessões do usuário, uma por linha (application/x-ndjson), sem carregar o histórico inteiro em memória.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportação iniciada")
+    })
+    @GetMapping(value = "/user/{userId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUserSessions(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                studySessionService.forEachSession(userId, session -> {
+                    try {
+                        writer.write(session);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @Operation(summary = "Listar sessões recentes (7 dias)", description = "Retorna apenas as sessões realizadas nos últimos 7 dias. Utilizado para alimentar gráficos de desempenho semanal.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista recente retornada com sucesso")
     })
     @GetMapping("/user/{userId}/recent")
-    public ResponseEntity<List<StudySession>> getRecentSessions(@PathVariable Long userId) {
-        List<StudySession> sessions = studySessionService.findRecentSessions(userId);
+    public ResponseEntity<List<SessionDTO>> getRecentSessions(@PathVariable Long userId) {
+        List<SessionDTO> sessions = studySessionService.findRecentSessions(userId);
         return ResponseEntity.ok(sessions);
     }
 
     @GetMapping("/user/{userId}/range")
-    public ResponseEntity<List<StudySession>> getSessionsByRange(
+    public ResponseEntity<List<SessionDTO>> getSessionsByRange(
             @PathVariable Long userId,
             @RequestParam("start") String startStr, 
             @RequestParam("end") String endStr) {
@@ -63,10 +120,30 @@ public class StudySessionController {
         @ApiResponse(responseCode = "400", description = "Data futura inválida ou Usuário não encontrado")
     })
     @PostMapping
-    public ResponseEntity<StudySession> createSession(@Valid @RequestBody StudySession session) {
+    public ResponseEntity<SessionDTO> createSession(@Valid @RequestBody StudySession session) {
         try {
             StudySession createdSession = studySessionService.createSession(session);
-            return ResponseEntity.ok(createdSession);
+            return ResponseEntity.ok(SessionDTO.from(createdSession));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Importar histórico de sessões", description = "Recebe um array JSON (application/json) ou uma planilha CSV (text/csv, separador , ou ;) com milhares de sessões. Linhas inválidas são ignoradas e listadas em errors; as válidas são gravadas em blocos.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída (ver imported, rejected e errors)"),
+        @ApiResponse(responseCode = "400", description = "Usuário não encontrado")
+    })
+    @PostMapping(value = "/user/{userId}/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<SessionImportDTO.Result> importSessions(
+            @PathVariable Long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        try {
+            SessionImportDTO.Result result = MediaType.APPLICATION_JSON.includes(contentType)
+                ? sessionImportService.importJson(userId, body)
+                : sessionImportService.importCsv(userId, body);
+            return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -78,20 +155,22 @@ public class StudySessionController {
         @ApiResponse(responseCode = "404", description = "Sessão não encontrada para o ID informado")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<StudySession> updateSession(@PathVariable Long id, @RequestBody StudySession sessionDetails) {
+    public ResponseEntity<SessionDTO> updateSession(@PathVariable Long id, @Valid @RequestBody StudySession sessionDetails) {
         return studySessionService.updateSession(id, sessionDetails)
+                .map(SessionDTO::from)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Excluir sessão", description = "Remove permanentemente um registro de estudo do banco de dados.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Sessão excluída com sucesso")
+        @ApiResponse(responseCode = "200", description = "Sessão excluída com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Sessão não encontrada para o ID informado")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteSession(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteSession(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            studySessionService.deleteSession(id);
+            studySessionService.deleteSession(id, user != null ? user.id() : null);
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
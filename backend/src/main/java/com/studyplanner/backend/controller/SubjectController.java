@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.studyplanner.backend.dto.SubjectDTO;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.service.SubjectService;
 
@@ -29,8 +30,8 @@ public class SubjectController {
         @ApiResponse(responseCode = "200", description = "Matérias listadas com sucesso")
     })
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Subject>> getUserSubjects(@PathVariable Long userId) {
-        List<Subject> subjects = subjectService.findSubjectsByUserId(userId);
+    public ResponseEntity<List<SubjectDTO>> getUserSubjects(@PathVariable Long userId) {
+        List<SubjectDTO> subjects = subjectService.findSubjectsByUserId(userId);
         return ResponseEntity.ok(subjects);
     }
 
@@ -43,7 +44,7 @@ public class SubjectController {
     public ResponseEntity<?> createSubject(@Valid @RequestBody Subject subject) {
         try {
             Subject savedSubject = subjectService.createSubject(subject);
-            return ResponseEntity.ok(savedSubject);
+            return ResponseEntity.ok(SubjectDTO.from(savedSubject));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -55,9 +56,10 @@ public class SubjectController {
         @ApiResponse(responseCode = "404", description = "Matéria não encontrada para o ID informado")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Subject> updateSubject(@PathVariable Long id, @RequestBody Subject subject) {
+    public ResponseEntity<SubjectDTO> updateSubject(@PathVariable Long id, @RequestBody Subject subject) {
         return subjectService.updateSubject(id, subject)
-                .map(ResponseEntity::ok) 
+                .map(SubjectDTO::from)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
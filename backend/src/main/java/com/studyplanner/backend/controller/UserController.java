@@ -1,5 +1,7 @@
 package com.studyplanner.backend.controller;
 
+import com.studyplanner.backend.dto.UserDTO;
+import com.studyplanner.backend.exception.RateLimitedException;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,9 +21,9 @@ public class UserController {
 
     @Operation(summary = "Obter perfil do usuário", description = "Retorna os dados do usuário logado.")
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUser(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUser(@PathVariable Long id) {
         User user = userService.findById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(UserDTO.from(user));
     }
 
     @Operation(summary = "Alterar senha", description = "Permite a troca de senha mediante confirmação da senha atual.")
@@ -33,6 +35,8 @@ public class UserController {
         try {
             userService.changePassword(id, request.currentPassword(), request.newPassword());
             return ResponseEntity.ok().build();
+        } catch (RateLimitedException e) {
+            return e.toResponse();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -0,0 +1,4 @@
+package com.studyplanner.backend.dto;
+
+// Principal das requisições autenticadas por JWT (o que fica no cache, sem senha nem relações)
+public record AuthenticatedUser(Long id, String email, int passwordVersion) {}
@@ -1,5 +1,8 @@
 package com.studyplanner.backend.dto;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 public class DashboardStatsDTO {
@@ -20,6 +23,34 @@ public class DashboardStatsDTO {
         this.activeGoals = activeGoals;
         this.chartData = chartData; 
     }
+
+    // Monta o DTO a partir da linha única de agregação; o gráfico começa em chartStart
+    public static DashboardStatsDTO from(Totals totals, LocalDate chartStart) {
+        Long[] buckets = {
+            totals.day0(), totals.day1(), totals.day2(), totals.day3(),
+            totals.day4(), totals.day5(), totals.day6()
+        };
+
+        List<ChartDataDTO> chartData = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        for (int i = 0; i < buckets.length; i++) {
+            long minutes = buckets[i] != null ? buckets[i] : 0L;
+            chartData.add(new ChartDataDTO(chartStart.plusDays(i).format(formatter), minutes / 60.0));
+        }
+
+        return new DashboardStatsDTO(
+            (int) (orZero(totals.totalMinutes()) / 60),
+            (int) (orZero(totals.weeklyMinutes()) / 60),
+            orZero(totals.completedSessions()),
+            orZero(totals.activeGoals()),
+            chartData
+        );
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
     public Integer getTotalHours() {
         return totalHours;
     }
@@ -60,6 +91,14 @@ public class DashboardStatsDTO {
         this.chartData = chartData;
     }
 
+    // Projeção da consulta agregada do dashboard (minutos por dia em day0..day6)
+    public record Totals(
+        Long totalMinutes,
+        Long weeklyMinutes,
+        Long completedSessions,
+        Long activeGoals,
+        Long day0, Long day1, Long day2, Long day3, Long day4, Long day5, Long day6) {}
+
     public static class ChartDataDTO {
     private String day;
     private Double hours;
@@ -0,0 +1,53 @@
+package com.studyplanner.backend.dto;
+
+import java.time.LocalDate;
+
+import com.studyplanner.backend.model.Goal;
+
+// Resposta de meta com o progresso já calculado
+public record GoalDTO(
+    Long id,
+    String title,
+    String goalType,
+    LocalDate startDate,
+    LocalDate endDate,
+    boolean active,
+    Double targetHours,
+    Integer targetQuestions,
+    double currentHours,
+    Integer currentQuestions,
+    int progressPercentage,
+    SubjectSummaryDTO subject,
+    String matters) {
+
+    // Usado pelas projeções JPQL; o progresso é preenchido depois via withProgress
+    public GoalDTO(Long id, String title, String goalType, LocalDate startDate, LocalDate endDate, boolean active,
+                   Double targetHours, Integer targetQuestions,
+                   Long subjectId, String subjectName, String subjectColor, String matters) {
+        this(id, title, goalType, startDate, endDate, active, targetHours, targetQuestions, 0, 0, 0,
+             SubjectSummaryDTO.of(subjectId, subjectName, subjectColor), matters);
+    }
+
+    public GoalDTO withProgress(double currentHours, Integer currentQuestions, int progressPercentage) {
+        return new GoalDTO(id, title, goalType, startDate, endDate, active, targetHours, targetQuestions,
+                           currentHours, currentQuestions, progressPercentage, subject, matters);
+    }
+
+    public static GoalDTO from(Goal goal) {
+        return new GoalDTO(
+            goal.getId(),
+            goal.getTitle(),
+            goal.getGoalType(),
+            goal.getStartDate(),
+            goal.getEndDate(),
+            goal.isActive(),
+            goal.getTargetHours(),
+            goal.getTargetQuestions(),
+            goal.getCurrentHours(),
+            goal.getCurrentQuestions(),
+            goal.getProgressPercentage(),
+            SubjectSummaryDTO.from(goal.getSubject()),
+            goal.getMatters()
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.studyplanner.backend.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.studyplanner.backend.dto.DashboardStatsDTO.ChartDataDTO;
+
+// Evento do canal ao vivo do dashboard. No "snapshot" tudo vem preenchido; no "delta" só o que mudou desde
+// o evento anterior: totals nulo = totais iguais, chart e goals trazem apenas os itens alterados (com os
+// valores novos, não diferenças) e removedGoalIds as metas que saíram da lista
+public record LiveUpdateDTO(Totals totals, List<ChartDataDTO> chart, List<GoalDTO> goals, List<Long> removedGoalIds) {
+
+    public record Totals(Integer totalHours, Integer weeklyHours, Long completedSessions, Long activeGoals) {}
+
+    public static LiveUpdateDTO of(DashboardStatsDTO stats, List<GoalDTO> goals) {
+        Totals totals = new Totals(stats.getTotalHours(), stats.getWeeklyHours(), stats.getCompletedSessions(), stats.getActiveGoals());
+        return new LiveUpdateDTO(totals, List.copyOf(stats.getChartData()), List.copyOf(goals), List.of());
+    }
+
+    // Null quando nada mudou
+    public LiveUpdateDTO changesSince(LiveUpdateDTO previous) {
+        Totals changedTotals = totals.equals(previous.totals) ? null : totals;
+
+        Map<String, Double> previousHours = new HashMap<>();
+        for (ChartDataDTO bucket : previous.chart) previousHours.put(bucket.getDay(), bucket.getHours());
+        List<ChartDataDTO> changedChart = new ArrayList<>();
+        for (ChartDataDTO bucket : chart) {
+            if (!previousHours.containsKey(bucket.getDay()) || !Objects.equals(previousHours.get(bucket.getDay()), bucket.getHours())) {
+                changedChart.add(bucket);
+            }
+        }
+
+        Map<Long, GoalDTO> previousGoals = previous.goals.stream().collect(Collectors.toMap(GoalDTO::id, goal -> goal));
+        List<GoalDTO> changedGoals = goals.stream().filter(goal -> !goal.equals(previousGoals.get(goal.id()))).toList();
+        Set<Long> currentIds = goals.stream().map(GoalDTO::id).collect(Collectors.toSet());
+        List<Long> removed = previousGoals.keySet().stream().filter(id -> !currentIds.contains(id)).sorted().toList();
+
+        if (changedTotals == null && changedChart.isEmpty() && changedGoals.isEmpty() && removed.isEmpty()) return null;
+        return new LiveUpdateDTO(changedTotals, changedChart, changedGoals, removed);
+    }
+}
@@ -0,0 +1,18 @@
+package com.studyplanner.backend.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Linha (dono, assunto) da consulta IN que completa as listas de assuntos das projeções
+public record MatterRowDTO(Long ownerId, String matter) {
+
+    public static Map<Long, List<String>> groupByOwner(List<MatterRowDTO> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (MatterRowDTO row : rows) {
+            grouped.computeIfAbsent(row.ownerId(), id -> new ArrayList<>()).add(row.matter());
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,48 @@
+package com.studyplanner.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.studyplanner.backend.model.StudySession;
+
+// Resposta de sessão de estudo: a matéria vai resumida e o usuário não é serializado
+public record SessionDTO(
+    Long id,
+    String title,
+    String description,
+    LocalDateTime date,
+    int durationMinutes,
+    boolean completed,
+    SubjectSummaryDTO subject,
+    List<String> matters,
+    Integer totalQuestions,
+    Integer correctQuestions) {
+
+    // Usado pelas projeções JPQL; os assuntos chegam depois via withMatters
+    public SessionDTO(Long id, String title, String description, LocalDateTime date, int durationMinutes, boolean completed,
+                      Long subjectId, String subjectName, String subjectColor,
+                      Integer totalQuestions, Integer correctQuestions) {
+        this(id, title, description, date, durationMinutes, completed,
+             SubjectSummaryDTO.of(subjectId, subjectName, subjectColor), List.of(), totalQuestions, correctQuestions);
+    }
+
+    public SessionDTO withMatters(List<String> matters) {
+        return new SessionDTO(id, title, description, date, durationMinutes, completed, subject,
+                              matters != null ? List.copyOf(matters) : List.of(), totalQuestions, correctQuestions);
+    }
+
+    public static SessionDTO from(StudySession session) {
+        return new SessionDTO(
+            session.getId(),
+            session.getTitle(),
+            session.getDescription(),
+            session.getDate(),
+            session.getDurationMinutes(),
+            session.isCompleted(),
+            SubjectSummaryDTO.from(session.getSubject()),
+            session.getMatters() != null ? List.copyOf(session.getMatters()) : List.of(),
+            session.getTotalQuestions(),
+            session.getCorrectQuestions()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.studyplanner.backend.dto;
+
+import java.util.List;
+
+public class SessionImportDTO {
+
+    // Uma sessão do arquivo (elemento do array JSON ou linha do CSV). A matéria vem pelo id (subjectId)
+    // ou pelo nome (subject); date aceita "2024-03-01T14:30" ou só "2024-03-01".
+    public record Row(
+        String title,
+        String description,
+        String date,
+        Integer durationMinutes,
+        Boolean completed,
+        Long subjectId,
+        String subject,
+        List<String> matters,
+        Integer totalQuestions,
+        Integer correctQuestions) {}
+
+    // row = posição no array JSON (a partir de 1) ou linha da planilha CSV (o cabeçalho é a linha 1)
+    public record RowError(long row, String message) {}
+
+    // errors traz no máximo studyplanner.import.max-errors itens; rejected conta todos
+    public record Result(int imported, int rejected, List<RowError> errors) {}
+}
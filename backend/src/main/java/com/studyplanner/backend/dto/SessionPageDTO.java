@@ -0,0 +1,30 @@
+package com.studyplanner.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+// Página do histórico de sessões com cursor (keyset em date DESC, id DESC).
+// nextCursor é null quando não há mais páginas.
+public record SessionPageDTO<T>(List<T> items, String nextCursor) {
+
+    public record Cursor(LocalDateTime date, Long id) {
+
+        public String encode() {
+            String raw = date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+        }
+    }
+}
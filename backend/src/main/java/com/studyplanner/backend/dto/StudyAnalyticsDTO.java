@@ -0,0 +1,65 @@
+package com.studyplanner.backend.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+
+// Série temporal do período [start, end] em buckets contíguos (sem buracos). Cada bucket é identificado
+// pelo primeiro dia do dia/semana/mês; o primeiro e o último podem cobrir só parte do intervalo.
+public record StudyAnalyticsDTO(
+    Granularity granularity,
+    LocalDate start,
+    LocalDate end,
+    Long subjectId,
+    String matter,
+    List<Bucket> buckets) {
+
+    // accuracy é o percentual de acertos; null quando não houve questões no bucket
+    public record Bucket(
+        LocalDate start,
+        long minutes,
+        long sessions,
+        long totalQuestions,
+        long correctQuestions,
+        Double accuracy) {
+
+        public static Bucket of(LocalDate start, StudyTotalsDTO.PeriodTotals totals) {
+            if (totals == null) return new Bucket(start, 0, 0, 0, 0, null);
+            Double accuracy = totals.totalQuestions() > 0
+                ? Math.round(totals.correctQuestions() * 1000.0 / totals.totalQuestions()) / 10.0
+                : null;
+            return new Bucket(start, totals.minutes(), totals.sessions(), totals.totalQuestions(), totals.correctQuestions(), accuracy);
+        }
+    }
+
+    // Semanas começam na segunda-feira, como o date_trunc('week') do PostgreSQL
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        public LocalDate truncate(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+
+        public LocalDate next(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+
+        public static Granularity parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Granularidade inválida. Use day, week ou month.");
+            }
+        }
+    }
+}
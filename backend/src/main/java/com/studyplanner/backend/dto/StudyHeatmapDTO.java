@@ -0,0 +1,14 @@
+package com.studyplanner.backend.dto;
+
+import java.time.LocalDate;
+
+// Mapa de calor do período [start, end]: minutes[i] é o total estudado no dia start + i.
+// Os streaks consideram todo o histórico; o atual continua valendo até o fim de hoje.
+public record StudyHeatmapDTO(
+    LocalDate start,
+    LocalDate end,
+    int[] minutes,
+    int studiedDays,
+    long totalMinutes,
+    int currentStreak,
+    int longestStreak) {}
@@ -0,0 +1,33 @@
+package com.studyplanner.backend.dto;
+
+import java.time.LocalDate;
+
+public class StudyTotalsDTO {
+
+    // Totais agrupados por matéria (disciplina)
+    public record SubjectTotals(Long subjectId, Long minutes, Long questions) {}
+
+    // Totais agrupados por matéria + assunto
+    public record MatterTotals(Long subjectId, String matter, Long minutes, Long questions) {}
+
+    // Totais agrupados por dia
+    public record DailyTotals(LocalDate day, Long minutes, Long questions) {}
+
+    // Minutos e número de sessões do dia (todas as matérias)
+    public record DayActivity(LocalDate day, Long minutes, Long sessions) {}
+
+    // Totais de um bucket (dia, semana ou mês) da série de análise
+    public record PeriodTotals(LocalDate start, Long minutes, Long sessions, Long totalQuestions, Long correctQuestions) {}
+
+    // Linha completa da tabela de rollup (usuário, matéria, assunto, dia)
+    public record RollupTotals(
+        Long userId,
+        Long subjectId,
+        String matter,
+        LocalDate day,
+        Long minutes,
+        Long totalQuestions,
+        Long correctQuestions,
+        Long completedCount,
+        Long sessionCount) {}
+}
@@ -0,0 +1,22 @@
+package com.studyplanner.backend.dto;
+
+import java.util.List;
+
+import com.studyplanner.backend.model.Subject;
+
+public record SubjectDTO(Long id, String name, String color, List<String> matters) {
+
+    // Usado pelas projeções JPQL; os assuntos chegam depois via withMatters
+    public SubjectDTO(Long id, String name, String color) {
+        this(id, name, color, List.of());
+    }
+
+    public SubjectDTO withMatters(List<String> matters) {
+        return new SubjectDTO(id, name, color, matters != null ? List.copyOf(matters) : List.of());
+    }
+
+    public static SubjectDTO from(Subject subject) {
+        return new SubjectDTO(subject.getId(), subject.getName(), subject.getColor(),
+                              subject.getMatters() != null ? List.copyOf(subject.getMatters()) : List.of());
+    }
+}
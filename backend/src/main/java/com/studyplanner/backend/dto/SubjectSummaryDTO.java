@@ -0,0 +1,15 @@
+package com.studyplanner.backend.dto;
+
+import com.studyplanner.backend.model.Subject;
+
+// Resumo da matéria embutido nas respostas de sessões e metas (sem assuntos nem usuário)
+public record SubjectSummaryDTO(Long id, String name, String color) {
+
+    public static SubjectSummaryDTO of(Long id, String name, String color) {
+        return id != null ? new SubjectSummaryDTO(id, name, color) : null;
+    }
+
+    public static SubjectSummaryDTO from(Subject subject) {
+        return subject != null ? new SubjectSummaryDTO(subject.getId(), subject.getName(), subject.getColor()) : null;
+    }
+}
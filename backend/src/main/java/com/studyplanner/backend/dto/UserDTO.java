@@ -0,0 +1,10 @@
+package com.studyplanner.backend.dto;
+
+import com.studyplanner.backend.model.User;
+
+public record UserDTO(Long id, String name, String email) {
+
+    public static UserDTO from(User user) {
+        return new UserDTO(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -0,0 +1,4 @@
+package com.studyplanner.backend.event;
+
+// Publicado quando um e-mail entra na email_outbox; após o commit o dispatcher é acordado
+public record EmailQueuedEvent(Long outboxId) {}
@@ -0,0 +1,4 @@
+package com.studyplanner.backend.event;
+
+// Publicado na troca ou redefinição de senha; após o commit o principal em cache é descartado
+public record PasswordChangedEvent(String email) {}
@@ -0,0 +1,8 @@
+package com.studyplanner.backend.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Publicado pelo rollup quando os totais de algum dia do usuário mudam; após o commit o calendário
+// de estudo em cache relê só esses dias
+public record StudyDaysChangedEvent(Long userId, Set<LocalDate> days) {}
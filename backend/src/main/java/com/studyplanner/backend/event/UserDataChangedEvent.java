@@ -0,0 +1,7 @@
+package com.studyplanner.backend.event;
+
+// Publicado pelos serviços sempre que sessões, metas ou matérias de um usuário mudam
+public record UserDataChangedEvent(Long userId, Source source) {
+
+    public enum Source { SESSION, GOAL, SUBJECT }
+}
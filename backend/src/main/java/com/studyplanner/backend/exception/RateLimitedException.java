@@ -0,0 +1,42 @@
+package com.studyplanner.backend.exception;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// Recusa rápida por excesso de carga (503) ou de tentativas (429), sempre com Retry-After
+public class RateLimitedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    private RateLimitedException(HttpStatus status, String message, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public static RateLimitedException busy(Duration retryAfter) {
+        return new RateLimitedException(HttpStatus.SERVICE_UNAVAILABLE, "Servidor ocupado, tente novamente em instantes", retryAfter);
+    }
+
+    public static RateLimitedException tooManyAttempts(Duration retryAfter) {
+        return new RateLimitedException(HttpStatus.TOO_MANY_REQUESTS, "Muitas tentativas. Tente novamente mais tarde.", retryAfter);
+    }
+
+    public static RateLimitedException tooManyConnections(Duration retryAfter) {
+        return new RateLimitedException(HttpStatus.TOO_MANY_REQUESTS, "Muitas conexões abertas para este usuário.", retryAfter);
+    }
+
+    public HttpStatus getStatus() { return status; }
+
+    public Duration getRetryAfter() { return retryAfter; }
+
+    public ResponseEntity<String> toResponse() {
+        return ResponseEntity.status(status)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+            .body(getMessage());
+    }
+}
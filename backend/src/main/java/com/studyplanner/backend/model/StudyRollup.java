@@ -0,0 +1,94 @@
+package com.studyplanner.backend.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Totais pré-agregados por (usuário, matéria, assunto, dia), mantidos a cada escrita de sessão.
+// A linha com matter = SESSION_TOTAL soma a sessão inteira; as demais somam por assunto.
+@Entity
+@Table(
+    name = "study_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_study_rollup_key", columnNames = {"user_id", "subject_id", "matter", "study_day"}),
+    indexes = @Index(name = "idx_study_rollup_user_matter_day", columnList = "user_id, matter, study_day")
+)
+public class StudyRollup {
+
+    public static final String SESSION_TOTAL = "";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    @Column(nullable = false)
+    private String matter;
+
+    @Column(name = "study_day", nullable = false)
+    private LocalDate day;
+
+    private long minutes;
+
+    @Column(name = "total_questions")
+    private long totalQuestions;
+
+    @Column(name = "correct_questions")
+    private long correctQuestions;
+
+    @Column(name = "completed_count")
+    private long completedCount;
+
+    @Column(name = "session_count")
+    private long sessionCount;
+
+    public StudyRollup() {}
+
+    public StudyRollup(Long userId, Long subjectId, String matter, LocalDate day) {
+        this.userId = userId;
+        this.subjectId = subjectId;
+        this.matter = matter;
+        this.day = day;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getSubjectId() { return subjectId; }
+    public void setSubjectId(Long subjectId) { this.subjectId = subjectId; }
+
+    public String getMatter() { return matter; }
+    public void setMatter(String matter) { this.matter = matter; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public long getMinutes() { return minutes; }
+    public void setMinutes(long minutes) { this.minutes = minutes; }
+
+    public long getTotalQuestions() { return totalQuestions; }
+    public void setTotalQuestions(long totalQuestions) { this.totalQuestions = totalQuestions; }
+
+    public long getCorrectQuestions() { return correctQuestions; }
+    public void setCorrectQuestions(long correctQuestions) { this.correctQuestions = correctQuestions; }
+
+    public long getCompletedCount() { return completedCount; }
+    public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+
+    public long getSessionCount() { return sessionCount; }
+    public void setSessionCount(long sessionCount) { this.sessionCount = sessionCount; }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -15,8 +16,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -25,11 +28,22 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "study_sessions")
+// Índices espelham as migrações em db/migration (V2__access_path_indexes.sql)
+@Table(name = "study_sessions", indexes = {
+    @Index(name = "idx_study_sessions_user_date", columnList = "user_id, date DESC, id DESC"),
+    @Index(name = "idx_study_sessions_user_subject", columnList = "user_id, subject_id"),
+    @Index(name = "idx_study_sessions_subject", columnList = "subject_id")
+})
 public class StudySession {
 
+    // Sequence com pooled optimizer: um nextval reserva ID_ALLOCATION_SIZE ids, o que libera o batch de INSERTs
+    // (IDENTITY obriga um round trip por linha). Sequences criadas em V5__pooled_sequences.sql
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String ID_SEQUENCE = "study_sessions_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "O título da sessão é obrigatório")
@@ -58,8 +72,11 @@ public class StudySession {
     @NotNull(message = "A matéria (disciplina) é obrigatória")
     private Subject subject;
 
-    @ElementCollection(fetch = FetchType.EAGER) 
-    @CollectionTable(name = "session_matters", joinColumns = @JoinColumn(name = "session_id"))
+    // LAZY + BatchSize: os assuntos de uma lista de sessões vêm em um único SELECT ... IN
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @CollectionTable(name = "session_matters", joinColumns = @JoinColumn(name = "session_id"),
+        indexes = @Index(name = "idx_session_matters_session_matter", columnList = "session_id, matter"))
     @Column(name = "matter")
     @OnDelete(action = OnDeleteAction.CASCADE)
     private List<String> matters = new ArrayList<>();
@@ -3,18 +3,27 @@ package com.studyplanner.backend.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.studyplanner.backend.config.HibernateCacheConfig;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "subjects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.SUBJECTS)
+@Table(name = "subjects", indexes = @Index(name = "idx_subjects_user", columnList = "user_id"))
 public class Subject {
 
+    // Sequence com pooled optimizer (ver StudySession)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subjects_seq")
+    @SequenceGenerator(name = "subjects_seq", sequenceName = "subjects_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "O nome da matéria é obrigatório")
@@ -24,8 +33,11 @@ public class Subject {
     @NotBlank(message = "A cor é obrigatória")
     private String color;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "subject_subtopics", joinColumns = @JoinColumn(name = "subject_id"))
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.SUBJECT_MATTERS)
+    @CollectionTable(name = "subject_subtopics", joinColumns = @JoinColumn(name = "subject_id"),
+        indexes = @Index(name = "idx_subject_subtopics_subject", columnList = "subject_id"))
     @Column(name = "name")
     private List<String> matters = new ArrayList<>();
 
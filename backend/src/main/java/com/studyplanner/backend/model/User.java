@@ -2,15 +2,23 @@ package com.studyplanner.backend.model;
 
 import jakarta.persistence.*; 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import com.studyplanner.backend.config.HibernateCacheConfig;
 import java.util.List;
 import java.time.LocalDateTime; 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
 @Table(name = "users")
 public class User {
 
+    // Sequence com pooled optimizer (ver StudySession)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -36,6 +44,19 @@ public class User {
     private String recoveryCode;
     private LocalDateTime recoveryExpiration;
 
+    // Incrementada a cada troca de senha; vai no token (claim "pwv") e invalida os tokens anteriores
+    @JsonIgnore
+    @Column(name = "password_version", nullable = false)
+    private int passwordVersion;
+
+    // Só muda por UPDATE direto (UserRepository.bumpDataVersion); a entidade nunca grava esta coluna,
+    // então salvar um User carregado antes não desfaz incrementos concorrentes. Sem getter: no cache de
+    // 2º nível o valor fica defasado; a versão atual é lida com UserRepository.findDataVersion
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false)
+    private long dataVersion;
+
     public User() {}
 
     public User(Long id, String name, String email, String password) {
@@ -71,4 +92,7 @@ public class User {
 
     public LocalDateTime getRecoveryExpiration() { return recoveryExpiration; }
     public void setRecoveryExpiration(LocalDateTime recoveryExpiration) { this.recoveryExpiration = recoveryExpiration; }
+
+    public int getPasswordVersion() { return passwordVersion; }
+    public void setPasswordVersion(int passwordVersion) { this.passwordVersion = passwordVersion; }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.studyplanner.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.studyplanner.backend.model.EmailOutbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // FOR UPDATE SKIP LOCKED: com mais de uma instância, cada uma pega um lote diferente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM EmailOutbox e
+        WHERE e.status = :status AND e.nextAttemptAt <= :now
+        ORDER BY e.nextAttemptAt
+        """)
+    List<EmailOutbox> findDueForUpdate(@Param("status") EmailOutbox.Status status, @Param("now") LocalDateTime now, Limit limit);
+
+    long countByStatus(EmailOutbox.Status status);
+}
@@ -1,13 +1,30 @@
 package com.studyplanner.backend.repository;
 
+import com.studyplanner.backend.dto.GoalDTO;
 import com.studyplanner.backend.model.Goal;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
     
+    // Traz subject.matters junto para que a meta possa ser usada fora da sessão
+    @EntityGraph(attributePaths = {"user", "subject", "subject.matters"})
     List<Goal> findByUser_IdAndActiveTrue(Long userId);
     Long countByUser_IdAndActiveTrue(Long userId);
+    boolean existsByIdAndUser_Id(Long id, Long userId);
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.GoalDTO(
+            g.id, g.title, g.goalType, g.startDate, g.endDate, g.active, g.targetHours, g.targetQuestions,
+            sub.id, sub.name, sub.color, g.matters)
+        FROM Goal g LEFT JOIN g.subject sub
+        WHERE g.user.id = :userId AND g.active = true
+        ORDER BY g.id
+        """)
+    List<GoalDTO> findActiveSummariesByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
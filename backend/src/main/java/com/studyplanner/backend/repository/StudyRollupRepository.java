@@ -0,0 +1,212 @@
+package com.studyplanner.backend.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.studyplanner.backend.dto.DashboardStatsDTO;
+import com.studyplanner.backend.dto.StudyAnalyticsDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.model.StudyRollup;
+
+@Repository
+public interface StudyRollupRepository extends JpaRepository<StudyRollup, Long> {
+
+    // Soma os deltas na linha existente; retorna 0 quando a chave ainda não existe
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE StudyRollup r SET
+            r.minutes = r.minutes + :minutes,
+            r.totalQuestions = r.totalQuestions + :totalQuestions,
+            r.correctQuestions = r.correctQuestions + :correctQuestions,
+            r.completedCount = r.completedCount + :completedCount,
+            r.sessionCount = r.sessionCount + :sessionCount
+        WHERE r.userId = :userId
+          AND (r.subjectId = :subjectId OR (r.subjectId IS NULL AND :subjectId IS NULL))
+          AND r.matter = :matter
+          AND r.day = :day
+        """)
+    int addDelta(
+        @Param("userId") Long userId,
+        @Param("subjectId") Long subjectId,
+        @Param("matter") String matter,
+        @Param("day") LocalDate day,
+        @Param("minutes") long minutes,
+        @Param("totalQuestions") long totalQuestions,
+        @Param("correctQuestions") long correctQuestions,
+        @Param("completedCount") long completedCount,
+        @Param("sessionCount") long sessionCount
+    );
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.DashboardStatsDTO$Totals(
+            COALESCE(SUM(r.minutes), 0),
+            COALESCE(SUM(CASE WHEN r.day >= :startOfWeek THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(r.completedCount), 0),
+            (SELECT COUNT(g) FROM Goal g WHERE g.user.id = :userId AND g.active = true),
+            COALESCE(SUM(CASE WHEN r.day = :day0 THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN r.day = :day1 THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN r.day = :day2 THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN r.day = :day3 THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN r.day = :day4 THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN r.day = :day5 THEN r.minutes ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN r.day = :day6 THEN r.minutes ELSE 0 END), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = ''
+        """)
+    DashboardStatsDTO.Totals aggregateDashboard(
+        @Param("userId") Long userId,
+        @Param("startOfWeek") LocalDate startOfWeek,
+        @Param("day0") LocalDate day0, @Param("day1") LocalDate day1,
+        @Param("day2") LocalDate day2, @Param("day3") LocalDate day3,
+        @Param("day4") LocalDate day4, @Param("day5") LocalDate day5,
+        @Param("day6") LocalDate day6
+    );
+
+    default DashboardStatsDTO.Totals aggregateDashboard(Long userId, LocalDate startOfWeek, LocalDate chartStart) {
+        return aggregateDashboard(userId, startOfWeek,
+            chartStart, chartStart.plusDays(1), chartStart.plusDays(2), chartStart.plusDays(3),
+            chartStart.plusDays(4), chartStart.plusDays(5), chartStart.plusDays(6));
+    }
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$SubjectTotals(
+            r.subjectId, COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.totalQuestions), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.subjectId IN :subjectIds AND r.matter = ''
+        GROUP BY r.subjectId
+        """)
+    List<StudyTotalsDTO.SubjectTotals> sumBySubjects(@Param("userId") Long userId, @Param("subjectIds") Collection<Long> subjectIds);
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$MatterTotals(
+            r.subjectId, r.matter, COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.totalQuestions), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.subjectId IN :subjectIds AND r.matter IN :matters
+        GROUP BY r.subjectId, r.matter
+        """)
+    List<StudyTotalsDTO.MatterTotals> sumByMatters(
+        @Param("userId") Long userId,
+        @Param("subjectIds") Collection<Long> subjectIds,
+        @Param("matters") Collection<String> matters
+    );
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$DailyTotals(
+            r.day, COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.totalQuestions), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = '' AND r.day >= :startDay AND r.day <= :endDay
+        GROUP BY r.day
+        ORDER BY r.day
+        """)
+    List<StudyTotalsDTO.DailyTotals> sumByDay(
+        @Param("userId") Long userId,
+        @Param("startDay") LocalDate startDay,
+        @Param("endDay") LocalDate endDay
+    );
+
+    // Dias com pelo menos uma sessão (linhas zeradas por exclusões ficam de fora): carga do calendário de estudo
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$DayActivity(
+            r.day, COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.sessionCount), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = ''
+        GROUP BY r.day
+        HAVING SUM(r.sessionCount) > 0
+        """)
+    List<StudyTotalsDTO.DayActivity> findStudiedDays(@Param("userId") Long userId);
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$DayActivity(
+            r.day, COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.sessionCount), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = '' AND r.day >= :startDay AND r.day <= :endDay
+        GROUP BY r.day
+        HAVING SUM(r.sessionCount) > 0
+        """)
+    List<StudyTotalsDTO.DayActivity> findStudiedDays(
+        @Param("userId") Long userId,
+        @Param("startDay") LocalDate startDay,
+        @Param("endDay") LocalDate endDay
+    );
+
+    // Séries da análise por período: matter = '' soma sessões inteiras, um assunto filtra só as linhas dele.
+    // trunc(..., week/month) vira date_trunc no PostgreSQL; subjectId nulo = todas as matérias (o CAST dá
+    // tipo ao parâmetro nulo no PostgreSQL)
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$PeriodTotals(
+            r.day, COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.sessionCount), 0),
+            COALESCE(SUM(r.totalQuestions), 0), COALESCE(SUM(r.correctQuestions), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = :matter AND r.day >= :startDay AND r.day <= :endDay
+          AND (CAST(:subjectId AS Long) IS NULL OR r.subjectId = :subjectId)
+        GROUP BY r.day
+        """)
+    List<StudyTotalsDTO.PeriodTotals> sumPerDay(
+        @Param("userId") Long userId,
+        @Param("subjectId") Long subjectId,
+        @Param("matter") String matter,
+        @Param("startDay") LocalDate startDay,
+        @Param("endDay") LocalDate endDay
+    );
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$PeriodTotals(
+            trunc(r.day, week), COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.sessionCount), 0),
+            COALESCE(SUM(r.totalQuestions), 0), COALESCE(SUM(r.correctQuestions), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = :matter AND r.day >= :startDay AND r.day <= :endDay
+          AND (CAST(:subjectId AS Long) IS NULL OR r.subjectId = :subjectId)
+        GROUP BY trunc(r.day, week)
+        """)
+    List<StudyTotalsDTO.PeriodTotals> sumPerWeek(
+        @Param("userId") Long userId,
+        @Param("subjectId") Long subjectId,
+        @Param("matter") String matter,
+        @Param("startDay") LocalDate startDay,
+        @Param("endDay") LocalDate endDay
+    );
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$PeriodTotals(
+            trunc(r.day, month), COALESCE(SUM(r.minutes), 0), COALESCE(SUM(r.sessionCount), 0),
+            COALESCE(SUM(r.totalQuestions), 0), COALESCE(SUM(r.correctQuestions), 0))
+        FROM StudyRollup r
+        WHERE r.userId = :userId AND r.matter = :matter AND r.day >= :startDay AND r.day <= :endDay
+          AND (CAST(:subjectId AS Long) IS NULL OR r.subjectId = :subjectId)
+        GROUP BY trunc(r.day, month)
+        """)
+    List<StudyTotalsDTO.PeriodTotals> sumPerMonth(
+        @Param("userId") Long userId,
+        @Param("subjectId") Long subjectId,
+        @Param("matter") String matter,
+        @Param("startDay") LocalDate startDay,
+        @Param("endDay") LocalDate endDay
+    );
+
+    default List<StudyTotalsDTO.PeriodTotals> sumPerPeriod(StudyAnalyticsDTO.Granularity granularity, Long userId,
+                                                           Long subjectId, String matter, LocalDate startDay, LocalDate endDay) {
+        return switch (granularity) {
+            case DAY -> sumPerDay(userId, subjectId, matter, startDay, endDay);
+            case WEEK -> sumPerWeek(userId, subjectId, matter, startDay, endDay);
+            case MONTH -> sumPerMonth(userId, subjectId, matter, startDay, endDay);
+        };
+    }
+
+    // Projeção (e não entidades) para sempre ler o valor atual do banco, mesmo após addDelta
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$RollupTotals(
+            r.userId, r.subjectId, r.matter, r.day,
+            r.minutes, r.totalQuestions, r.correctQuestions, r.completedCount, r.sessionCount)
+        FROM StudyRollup r
+        WHERE r.sessionCount <> 0 OR r.minutes <> 0 OR r.totalQuestions <> 0
+           OR r.correctQuestions <> 0 OR r.completedCount <> 0
+        """)
+    List<StudyTotalsDTO.RollupTotals> findAllNonEmpty();
+}
@@ -1,55 +1,108 @@
 package com.studyplanner.backend.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param; 
 import org.springframework.stereotype.Repository;
 
+import com.studyplanner.backend.dto.MatterRowDTO;
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
 import com.studyplanner.backend.model.StudySession;
 
 @Repository
 public interface StudySessionRepository extends JpaRepository<StudySession, Long> {
 
+    // Listagens trazem user e subject no mesmo SELECT; os assuntos (LAZY) chegam em lote via @BatchSize
+    @EntityGraph(attributePaths = {"user", "subject"})
     List<StudySession> findByUserIdOrderByDateDesc(Long userId);
 
-    @Query("SELECT s FROM StudySession s WHERE s.user.id = :userId AND s.date >= :startDate ORDER BY s.date DESC")
-    List<StudySession> findRecentSessions(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
+    // --- Projeções das listagens (não carregam entidades gerenciadas) ---
 
-    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s WHERE s.user.id = :userId")
-    Integer getTotalStudyMinutes(@Param("userId") Long userId);
+    String SESSION_DTO = """
+        SELECT new com.studyplanner.backend.dto.SessionDTO(
+            s.id, s.title, s.description, s.date, s.durationMinutes, s.completed,
+            sub.id, sub.name, sub.color, s.totalQuestions, s.correctQuestions)
+        FROM StudySession s LEFT JOIN s.subject sub
+        """;
 
-    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s WHERE s.user.id = :userId AND s.date >= :startDate")
-    Integer getWeeklyStudyMinutes(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
-    
-    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s WHERE s.user.id = :userId AND s.date >= :startDate AND s.date <= :endDate")
-    Integer getTotalMinutesByDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(SESSION_DTO + "WHERE s.user.id = :userId ORDER BY s.date DESC, s.id DESC")
+    List<SessionDTO> findSummariesByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s WHERE s.user.id = :userId AND s.subject.id = :subjectId")
-    Integer getTotalMinutesBySubject(@Param("userId") Long userId, @Param("subjectId") Long subjectId);
+    @Query(SESSION_DTO + "WHERE s.user.id = :userId AND s.date >= :startDate ORDER BY s.date DESC, s.id DESC")
+    List<SessionDTO> findRecentSummaries(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s JOIN s.matters matter WHERE s.user.id = :userId AND s.subject.id = :subjectId AND matter = :matter")
-    Integer getTotalMinutesByMatter(@Param("userId") Long userId, @Param("subjectId") Long subjectId, @Param("matter") String matter);
+    @Query(SESSION_DTO + "WHERE s.user.id = :userId AND s.date >= :startDate AND s.date <= :endDate ORDER BY s.date ASC")
+    List<SessionDTO> findSummariesByDateRange(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
 
-    @Query("SELECT COALESCE(SUM(s.totalQuestions), 0) FROM StudySession s WHERE s.user.id = :userId AND s.subject.id = :subjectId AND :matter MEMBER OF s.matters")
-    Integer getTotalQuestionsByMatter(@Param("userId") Long userId, @Param("subjectId") Long subjectId, @Param("matter") String matter);
+    // Histórico paginado por keyset (date DESC, id DESC)
+    @Query(SESSION_DTO + "WHERE s.user.id = :userId ORDER BY s.date DESC, s.id DESC")
+    List<SessionDTO> findFirstPage(@Param("userId") Long userId, Limit limit);
 
-    @Query("SELECT COALESCE(SUM(s.totalQuestions), 0) FROM StudySession s WHERE s.user.id = :userId AND s.subject.id = :subjectId")
-    Integer getTotalQuestionsBySubject(@Param("userId") Long userId, @Param("subjectId") Long subjectId);
+    @Query(SESSION_DTO + """
+        WHERE s.user.id = :userId AND (s.date < :date OR (s.date = :date AND s.id < :id))
+        ORDER BY s.date DESC, s.id DESC
+        """)
+    List<SessionDTO> findPageAfter(@Param("userId") Long userId, @Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
 
-    @Query("SELECT COALESCE(SUM(s.totalQuestions), 0) FROM StudySession s WHERE s.user.id = :userId AND s.date BETWEEN :start AND :end")
-    Integer getTotalQuestionsByDateRange(@Param("userId") Long userId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    // Assuntos das sessões projetadas, em uma única consulta IN
+    @Query("SELECT new com.studyplanner.backend.dto.MatterRowDTO(s.id, m) FROM StudySession s JOIN s.matters m WHERE s.id IN :sessionIds")
+    List<MatterRowDTO> findMattersBySessionIds(@Param("sessionIds") Collection<Long> sessionIds);
 
-    @Query("SELECT s FROM StudySession s WHERE s.user.id = :userId AND s.date >= :startDate AND s.date <= :endDate ORDER BY s.date ASC")
-    List<StudySession> findSessionsByDateRange(
-        @Param("userId") Long userId, 
-        @Param("startDate") LocalDateTime startDate, 
-        @Param("endDate") LocalDateTime endDate
-    );
+    @EntityGraph(attributePaths = {"user", "subject"})
+    @Query("SELECT s FROM StudySession s WHERE s.user.id = :userId AND s.date >= :startDate ORDER BY s.date DESC")
+    List<StudySession> findRecentSessions(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
+
+    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s WHERE s.user.id = :userId")
+    Integer getTotalStudyMinutes(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(s.durationMinutes), 0) FROM StudySession s WHERE s.user.id = :userId AND s.date >= :startDate")
+    Integer getWeeklyStudyMinutes(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
 
     long countByUser_IdAndCompletedTrue(Long userId); 
 
+    boolean existsByIdAndUser_Id(Long id, Long userId);
+
+    @EntityGraph(attributePaths = {"user", "subject"})
     List<StudySession> findByUserIdAndDateAfter(Long userId, LocalDateTime date);
+
+    // --- Recalculo do rollup a partir das sessões brutas (rebuild/verify) ---
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$RollupTotals(
+            s.user.id, sub.id, '', cast(s.date as LocalDate),
+            COALESCE(SUM(s.durationMinutes), 0),
+            COALESCE(SUM(s.totalQuestions), 0),
+            COALESCE(SUM(s.correctQuestions), 0),
+            COALESCE(SUM(CASE WHEN s.completed = true THEN 1 ELSE 0 END), 0),
+            COUNT(s))
+        FROM StudySession s LEFT JOIN s.subject sub
+        WHERE s.user IS NOT NULL AND s.date IS NOT NULL
+        GROUP BY s.user.id, sub.id, cast(s.date as LocalDate)
+        """)
+    List<StudyTotalsDTO.RollupTotals> computeSessionRollup();
+
+    @Query("""
+        SELECT new com.studyplanner.backend.dto.StudyTotalsDTO$RollupTotals(
+            s.user.id, sub.id, matter, cast(s.date as LocalDate),
+            COALESCE(SUM(s.durationMinutes), 0),
+            COALESCE(SUM(s.totalQuestions), 0),
+            COALESCE(SUM(s.correctQuestions), 0),
+            COALESCE(SUM(CASE WHEN s.completed = true THEN 1 ELSE 0 END), 0),
+            COUNT(s))
+        FROM StudySession s LEFT JOIN s.subject sub JOIN s.matters matter
+        WHERE s.user IS NOT NULL AND s.date IS NOT NULL AND matter IS NOT NULL AND matter <> ''
+        GROUP BY s.user.id, sub.id, matter, cast(s.date as LocalDate)
+        """)
+    List<StudyTotalsDTO.RollupTotals> computeMatterRollup();
 }
\ No newline at end of file
@@ -1,12 +1,23 @@
 package com.studyplanner.backend.repository;
 
+import com.studyplanner.backend.dto.MatterRowDTO;
+import com.studyplanner.backend.dto.SubjectDTO;
 import com.studyplanner.backend.model.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
     
     List<Subject> findByUserId(Long userId);
+
+    @Query("SELECT new com.studyplanner.backend.dto.SubjectDTO(s.id, s.name, s.color) FROM Subject s WHERE s.user.id = :userId ORDER BY s.id")
+    List<SubjectDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.studyplanner.backend.dto.MatterRowDTO(s.id, m) FROM Subject s JOIN s.matters m WHERE s.id IN :subjectIds")
+    List<MatterRowDTO> findMattersBySubjectIds(@Param("subjectIds") Collection<Long> subjectIds);
 }
\ No newline at end of file
@@ -1,8 +1,16 @@
 package com.studyplanner.backend.repository;
 
+import com.studyplanner.backend.dto.AuthenticatedUser;
 import com.studyplanner.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +18,19 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.studyplanner.backend.dto.AuthenticatedUser(u.id, u.email, u.passwordVersion) FROM User u WHERE u.email = :email")
+    Optional<AuthenticatedUser> findPrincipalByEmail(@Param("email") String email);
+
+    @Query("SELECT u.dataVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findDataVersion(@Param("id") Long id);
+
+    // SQL nativo porque a coluna é somente leitura no mapeamento; entra na transação de quem chamou.
+    // Sem o espaço declarado o Hibernate limparia todo o cache de 2º nível a cada escrita; data_version
+    // não é lida da entidade, então nenhuma região precisa ser invalidada
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users_data_version"))
+    @Query(value = "UPDATE users SET data_version = data_version + 1 WHERE id = :id", nativeQuery = true)
+    int bumpDataVersion(@Param("id") Long id);
 }
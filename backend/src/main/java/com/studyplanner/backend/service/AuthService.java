@@ -1,31 +1,43 @@
 package com.studyplanner.backend.service;
 
 import com.studyplanner.backend.dto.AuthDTO;
+import com.studyplanner.backend.event.PasswordChangedEvent;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Random;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptThrottle loginAttemptThrottle;
     private final TokenService tokenService;
     private final EmailService emailService; 
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(UserRepository userRepository, 
-                       PasswordEncoder passwordEncoder, 
+                       PasswordHasher passwordHasher,
+                       LoginAttemptThrottle loginAttemptThrottle,
                        TokenService tokenService,
-                       EmailService emailService) { 
+                       EmailService emailService,
+                       ApplicationEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate) { 
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.loginAttemptThrottle = loginAttemptThrottle;
         this.tokenService = tokenService;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     // --- REGISTRO ---
@@ -37,7 +49,7 @@ public class AuthService {
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         
         User savedUser = userRepository.save(user);
         String token = tokenService.generateToken(savedUser);
@@ -51,13 +63,27 @@ public class AuthService {
     }
     
     // --- LOGIN ---
-    public AuthDTO.AuthResponse login(AuthDTO.LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    // clientIp alimenta o limite de tentativas por IP (pode ser nulo)
+    public AuthDTO.AuthResponse login(AuthDTO.LoginRequest request, String clientIp) {
+        loginAttemptThrottle.check(request.getEmail(), clientIp);
+
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (user == null) {
+            loginAttemptThrottle.recordFailure(request.getEmail(), clientIp);
+            throw new RuntimeException("Usuário não encontrado");
+        }
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
+            loginAttemptThrottle.recordFailure(request.getEmail(), clientIp);
             throw new RuntimeException("Senha incorreta");
         }
+        loginAttemptThrottle.recordSuccess(request.getEmail());
+
+        // Custo do BCrypt mudou desde que o hash foi gerado: regrava com o atual (a senha não muda)
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.encode(request.getPassword()));
+            userRepository.save(user);
+        }
         
         String token = tokenService.generateToken(user);
 
@@ -70,6 +96,8 @@ public class AuthService {
     }
 
     // --- ESQUECI A SENHA (Gera código) ---
+    // Código e e-mail (outbox) são gravados juntos; o envio SMTP acontece fora da requisição
+    @Transactional
     public void forgotPassword(String email){
         // Busca usuário, se não achar lança erro (ou não faz nada por segurança, mas aqui lançamos erro)
         User user = userRepository.findByEmail(email)
@@ -91,28 +119,45 @@ public class AuthService {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
-        if (user.getRecoveryCode() == null || !user.getRecoveryCode().equals(code)){
-            return false;
-        }
-
-        return !user.getRecoveryExpiration().isBefore(LocalDateTime.now());
+        return isCodeValid(user, code);
     }
 
     // --- REDEFINIR SENHA (Usa o código para trocar a senha) ---
+    // O hash (fila do PasswordHasher + BCrypt) roda antes da transação; ela só relê o usuário e grava
     public void resetPassword(String email, String code, String newPassword){
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        
         if (!validateCode(email, code)){
             throw new RuntimeException("Código inválido ou expirado");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        
-        // Limpa o código para não ser usado novamente
-        user.setRecoveryCode(null);
-        user.setRecoveryExpiration(null);
+        String newHash = passwordHasher.encode(newPassword);
 
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            // Conferido de novo: o código pode ter sido usado ou trocado durante o hash
+            if (!isCodeValid(user, code)){
+                throw new RuntimeException("Código inválido ou expirado");
+            }
+
+            user.setPassword(newHash);
+            // Tokens emitidos com a versão anterior deixam de autenticar
+            user.setPasswordVersion(user.getPasswordVersion() + 1);
+
+            // Limpa o código para não ser usado novamente
+            user.setRecoveryCode(null);
+            user.setRecoveryExpiration(null);
+
+            userRepository.save(user);
+
+            eventPublisher.publishEvent(new PasswordChangedEvent(user.getEmail()));
+        });
+    }
+
+    private static boolean isCodeValid(User user, String code) {
+        if (user.getRecoveryCode() == null || !user.getRecoveryCode().equals(code)){
+            return false;
+        }
+
+        return !user.getRecoveryExpiration().isBefore(LocalDateTime.now());
     }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.studyplanner.backend.event.EmailQueuedEvent;
+import com.studyplanner.backend.model.EmailOutbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Drena a email_outbox: reserva lotes vencidos, cuida de cada e-mail numa virtual thread (registro no banco) e
+// reagenda as falhas com backoff exponencial. A conversa SMTP roda num pool pequeno de threads de plataforma:
+// no jakarta.mail o envio é synchronized e, numa virtual thread, prenderia a carregadora até o servidor responder.
+// Roda a cada poll-interval e também logo após o commit de um e-mail novo.
+// Nada injeta este bean e a aplicação usa lazy init: ele sobe com o contexto para que o poll fique agendado
+// desde o início (pendentes e backoffs de antes de um restart)
+@Component
+@Lazy(false)
+public class EmailOutboxDispatcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final ThreadPoolExecutor smtpExecutor;
+
+    // Uma drenagem por vez nesta instância; entre instâncias o SKIP LOCKED separa os lotes
+    private final ReentrantLock draining = new ReentrantLock();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+
+    private final MeterRegistry meterRegistry;
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Timer deliveryLag;
+    private final Counter gaveUp;
+
+    public EmailOutboxDispatcher(EmailService emailService, MeterRegistry meterRegistry,
+                                 @Value("${studyplanner.mail.outbox.batch-size:20}") int batchSize,
+                                 @Value("${studyplanner.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${studyplanner.mail.outbox.backoff:30s}") Duration backoff,
+                                 @Value("${studyplanner.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${studyplanner.mail.outbox.lease:5m}") Duration lease,
+                                 @Value("${studyplanner.mail.outbox.smtp-threads:4}") int smtpThreads) {
+        this.emailService = emailService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        // Uma drenagem por vez e cada lote espera os envios terminarem: a fila nunca passa de um lote
+        AtomicInteger counter = new AtomicInteger();
+        this.smtpExecutor = new ThreadPoolExecutor(smtpThreads, smtpThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(batchSize, 1)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "email-smtp-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+            .description("E-mails pendentes na outbox (atualizado a cada drenagem)")
+            .register(meterRegistry);
+        this.sendSuccess = Timer.builder("email.outbox.send").tag("result", "success")
+            .description("Tempo da entrega SMTP").register(meterRegistry);
+        this.sendFailure = Timer.builder("email.outbox.send").tag("result", "failure")
+            .description("Tempo da entrega SMTP").register(meterRegistry);
+        this.deliveryLag = Timer.builder("email.outbox.lag")
+            .description("Tempo entre gravar na outbox e entregar").register(meterRegistry);
+        this.gaveUp = Counter.builder("email.outbox.failed")
+            .description("E-mails abandonados após esgotar as tentativas").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${studyplanner.mail.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        drain();
+    }
+
+    // Após o commit: entrega em milissegundos em vez de esperar o próximo poll
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        wakeRequested.set(true);
+        Thread.ofVirtual().name("email-outbox-wake").start(() -> {
+            if (draining.tryLock()) {
+                try {
+                    drainLocked();
+                } finally {
+                    draining.unlock();
+                }
+            }
+        });
+    }
+
+    // Entrega tudo o que estiver vencido e retorna quantos foram enviados
+    public int drain() {
+        draining.lock();
+        try {
+            return drainLocked();
+        } finally {
+            draining.unlock();
+        }
+    }
+
+    private int drainLocked() {
+        int delivered = 0;
+        try {
+            List<EmailOutbox> batch;
+            do {
+                // Um pedido de wake durante a drenagem pode ter chegado depois da nossa consulta
+                wakeRequested.set(false);
+                batch = emailService.claimDue(batchSize, lease);
+                delivered += deliver(batch);
+            } while (batch.size() == batchSize || wakeRequested.get());
+            pending.set(emailService.countPending());
+        } catch (RuntimeException e) {
+            log.error("Falha ao drenar a outbox de e-mails", e);
+        }
+        return delivered;
+    }
+
+    private int deliver(List<EmailOutbox> batch) {
+        if (batch.isEmpty()) return 0;
+
+        List<Future<Boolean>> results = new ArrayList<>(batch.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (EmailOutbox email : batch) {
+                results.add(executor.submit(() -> send(email)));
+            }
+        }
+
+        int delivered = 0;
+        for (Future<Boolean> result : results) {
+            try {
+                if (result.get()) delivered++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Erro ao gravar o resultado: o lease expira e o e-mail volta para a fila
+                log.error("Falha ao registrar entrega de e-mail", e.getCause());
+            }
+        }
+        return delivered;
+    }
+
+    private boolean send(EmailOutbox email) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            deliverOnSmtpThread(email);
+        } catch (MailException e) {
+            sample.stop(sendFailure);
+            LocalDateTime retryAt = email.getAttempts() >= maxAttempts ? null : LocalDateTime.now().plus(backoffFor(email.getAttempts()));
+            emailService.markFailedAttempt(email.getId(), retryAt, e.getMessage());
+            if (retryAt == null) {
+                gaveUp.increment();
+                log.error("E-mail {} para {} abandonado após {} tentativas: {}", email.getId(), email.getRecipient(), email.getAttempts(), e.getMessage());
+            } else {
+                log.warn("Falha ao enviar e-mail {} (tentativa {}), nova tentativa às {}: {}", email.getId(), email.getAttempts(), retryAt, e.getMessage());
+            }
+            return false;
+        }
+        sample.stop(sendSuccess);
+        emailService.markSent(email.getId());
+        deliveryLag.record(Duration.between(email.getCreatedAt(), LocalDateTime.now()));
+        return true;
+    }
+
+    // A virtual thread só espera o Future (sem monitor, não prende a carregadora)
+    private void deliverOnSmtpThread(EmailOutbox email) {
+        Future<?> future = smtpExecutor.submit(() -> emailService.deliver(email));
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Envio interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new MailSendException("Erro ao enviar e-mail", e.getCause());
+        }
+    }
+
+    // 30s, 1min, 2min, 4min... limitado a max-backoff
+    Duration backoffFor(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @Override
+    public void destroy() {
+        smtpExecutor.shutdownNow();
+    }
+}
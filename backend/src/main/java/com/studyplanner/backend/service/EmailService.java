@@ -1,32 +1,97 @@
 package com.studyplanner.backend.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.studyplanner.backend.event.EmailQueuedEvent;
+import com.studyplanner.backend.model.EmailOutbox;
+import com.studyplanner.backend.repository.EmailOutboxRepository;
 
 @Service
 public class EmailService {
 
+    private static final int MAX_ERROR_LENGTH = 500;
+
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, EmailOutboxRepository emailOutboxRepository,
+                        ApplicationEventPublisher eventPublisher) {
         this.mailSender = mailSender;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Só grava na outbox (na transação de quem chamou); o envio SMTP fica com o EmailOutboxDispatcher
+    @Transactional
+    public EmailOutbox sendRecoveryEmail(String toEmail, String recoveryCode) {
+        EmailOutbox email = emailOutboxRepository.save(new EmailOutbox(
+            toEmail,
+            "Recuperação de Senha - Study Planner",
+            "Olá!\n\nSeu código de recuperação de senha é: " + recoveryCode + "\n\n" +
+            "Se você não solicitou isso, ignore este e-mail."));
+
+        eventPublisher.publishEvent(new EmailQueuedEvent(email.getId()));
+        return email;
     }
 
-    public void sendRecoveryEmail(String toEmail, String recoveryCode) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("seu.email@gmail.com"); 
-            message.setTo(toEmail);                
-            message.setSubject("Recuperação de Senha - Study Planner");
-            message.setText("Olá!\n\nSeu código de recuperação de senha é: " + recoveryCode + "\n\n" +
-                            "Se você não solicitou isso, ignore este e-mail.");
-
-            mailSender.send(message);
-            System.out.println("E-mail enviado com sucesso para: " + toEmail);
-        } catch (MailException e) {
-            System.err.println("Erro ao enviar e-mail: " + e.getMessage());
+    // Reserva um lote vencido: conta a tentativa e empurra o próximo horário para depois do lease,
+    // assim um envio interrompido (queda da instância) volta para a fila sozinho
+    @Transactional
+    public List<EmailOutbox> claimDue(int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(EmailOutbox.Status.PENDING, now, Limit.of(batchSize));
+        for (EmailOutbox email : due) {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(lease));
         }
+        return due;
+    }
+
+    public void deliver(EmailOutbox email) throws MailException {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("seu.email@gmail.com");
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+
+        mailSender.send(message);
+    }
+
+    @Transactional
+    public void markSent(Long id) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            email.setStatus(EmailOutbox.Status.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        });
+    }
+
+    // nextAttemptAt nulo = desistir (status FAILED)
+    @Transactional
+    public void markFailedAttempt(Long id, LocalDateTime nextAttemptAt, String error) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            if (nextAttemptAt == null) {
+                email.setStatus(EmailOutbox.Status.FAILED);
+            } else {
+                email.setNextAttemptAt(nextAttemptAt);
+            }
+            email.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING);
     }
-}
\ No newline at end of file
+}
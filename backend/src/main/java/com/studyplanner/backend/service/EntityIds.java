@@ -0,0 +1,27 @@
+package com.studyplanner.backend.service;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+// Ids para INSERTs feitos fora do persist (SQL manual), tirados do mesmo pooled optimizer que o Hibernate
+// usa no persist: o bloco reservado fica em memória e só a cada ID_ALLOCATION_SIZE ids há um nextval.
+// Precisa de transação em andamento (usa a sessão dela).
+@Component
+public class EntityIds {
+
+    private final EntityManager entityManager;
+
+    public EntityIds(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Long next(Class<?> entityType) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+            .getEntityDescriptor(entityType).getGenerator();
+        return (Long) generator.generate(session, null);
+    }
+}
@@ -0,0 +1,141 @@
+package com.studyplanner.backend.service;
+
+import com.studyplanner.backend.dto.GoalDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Calcula o progresso de todas as metas do usuário de uma vez: cada formato de meta
+// (matéria, matéria + assunto, período) vira uma única consulta agrupada sobre o study_rollup.
+// Trabalha sobre as projeções (GoalDTO) e devolve cópias com o progresso preenchido, na mesma ordem.
+class GoalProgressCalculator {
+
+    private static final LocalDate SAFE_MAX_DATE = LocalDate.of(2999, 12, 31);
+
+    private final StudyRollupRepository studyRollupRepository;
+
+    GoalProgressCalculator(StudyRollupRepository studyRollupRepository) {
+        this.studyRollupRepository = studyRollupRepository;
+    }
+
+    List<GoalDTO> apply(Long userId, List<GoalDTO> goals) {
+        List<GoalDTO> bySubject = new ArrayList<>();
+        List<GoalDTO> byMatter = new ArrayList<>();
+        List<GoalDTO> byRange = new ArrayList<>();
+
+        for (GoalDTO goal : goals) {
+            if (goal.subject() != null && goal.matters() != null && !goal.matters().trim().isEmpty()) {
+                byMatter.add(goal);
+            } else if (goal.subject() != null) {
+                bySubject.add(goal);
+            } else if (goal.startDate() != null) {
+                byRange.add(goal);
+            }
+        }
+
+        Map<GoalDTO, GoalDTO> done = new IdentityHashMap<>();
+        applySubjectTotals(userId, bySubject, done);
+        applyMatterTotals(userId, byMatter, done);
+        applyDailyTotals(userId, byRange, done);
+
+        List<GoalDTO> result = new ArrayList<>(goals.size());
+        for (GoalDTO goal : goals) {
+            result.add(done.getOrDefault(goal, withProgress(goal, 0, 0)));
+        }
+        return result;
+    }
+
+    private void applySubjectTotals(Long userId, List<GoalDTO> goals, Map<GoalDTO, GoalDTO> done) {
+        if (goals.isEmpty()) return;
+
+        Set<Long> subjectIds = new HashSet<>();
+        goals.forEach(goal -> subjectIds.add(goal.subject().id()));
+
+        Map<Long, StudyTotalsDTO.SubjectTotals> totals = new HashMap<>();
+        for (StudyTotalsDTO.SubjectTotals row : studyRollupRepository.sumBySubjects(userId, subjectIds)) {
+            totals.put(row.subjectId(), row);
+        }
+
+        for (GoalDTO goal : goals) {
+            StudyTotalsDTO.SubjectTotals row = totals.get(goal.subject().id());
+            done.put(goal, withProgress(goal, row != null ? row.minutes() : 0, row != null ? row.questions() : 0));
+        }
+    }
+
+    private void applyMatterTotals(Long userId, List<GoalDTO> goals, Map<GoalDTO, GoalDTO> done) {
+        if (goals.isEmpty()) return;
+
+        Set<Long> subjectIds = new HashSet<>();
+        Set<String> matters = new HashSet<>();
+        for (GoalDTO goal : goals) {
+            subjectIds.add(goal.subject().id());
+            matters.add(goal.matters().trim());
+        }
+
+        Map<String, StudyTotalsDTO.MatterTotals> totals = new HashMap<>();
+        for (StudyTotalsDTO.MatterTotals row : studyRollupRepository.sumByMatters(userId, subjectIds, matters)) {
+            totals.put(matterKey(row.subjectId(), row.matter()), row);
+        }
+
+        for (GoalDTO goal : goals) {
+            StudyTotalsDTO.MatterTotals row = totals.get(matterKey(goal.subject().id(), goal.matters().trim()));
+            done.put(goal, withProgress(goal, row != null ? row.minutes() : 0, row != null ? row.questions() : 0));
+        }
+    }
+
+    private void applyDailyTotals(Long userId, List<GoalDTO> goals, Map<GoalDTO, GoalDTO> done) {
+        if (goals.isEmpty()) return;
+
+        LocalDate firstDay = null;
+        LocalDate lastDay = null;
+        for (GoalDTO goal : goals) {
+            LocalDate end = goalEnd(goal);
+            if (firstDay == null || goal.startDate().isBefore(firstDay)) firstDay = goal.startDate();
+            if (lastDay == null || end.isAfter(lastDay)) lastDay = end;
+        }
+
+        List<StudyTotalsDTO.DailyTotals> days = studyRollupRepository.sumByDay(userId, firstDay, lastDay);
+
+        for (GoalDTO goal : goals) {
+            LocalDate start = goal.startDate();
+            LocalDate end = goalEnd(goal);
+            long minutes = 0;
+            long questions = 0;
+            for (StudyTotalsDTO.DailyTotals day : days) {
+                if (!day.day().isBefore(start) && !day.day().isAfter(end)) {
+                    minutes += day.minutes();
+                    questions += day.questions();
+                }
+            }
+            done.put(goal, withProgress(goal, minutes, questions));
+        }
+    }
+
+    private static LocalDate goalEnd(GoalDTO goal) {
+        return goal.endDate() != null ? goal.endDate() : SAFE_MAX_DATE;
+    }
+
+    private static String matterKey(Long subjectId, String matter) {
+        return subjectId + "|" + matter;
+    }
+
+    private static GoalDTO withProgress(GoalDTO goal, long totalMinutes, long totalQuestions) {
+        double hoursDone = totalMinutes / 60.0;
+
+        int percent = 0;
+        if (goal.targetHours() != null && goal.targetHours() > 0) {
+            percent = (int) ((hoursDone / goal.targetHours()) * 100);
+        } else if (goal.targetQuestions() != null && goal.targetQuestions() > 0) {
+            percent = (int) (((double) totalQuestions / goal.targetQuestions()) * 100);
+        }
+        return goal.withProgress(Math.round(hoursDone * 10.0) / 10.0, (int) totalQuestions, Math.min(percent, 100));
+    }
+}
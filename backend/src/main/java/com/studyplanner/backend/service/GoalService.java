@@ -1,143 +1,192 @@
 package com.studyplanner.backend.service;
 
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.dto.GoalDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
 import com.studyplanner.backend.model.Goal;
 import com.studyplanner.backend.model.Subject;
-import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.GoalRepository;
-import com.studyplanner.backend.repository.StudySessionRepository;
-import com.studyplanner.backend.repository.SubjectRepository;
+import com.studyplanner.backend.repository.StudyRollupRepository;
 import com.studyplanner.backend.repository.UserRepository;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.List;
-import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class GoalService {
 
+    // Escritas em um único statement, com a posse conferida no próprio SQL (0 linhas = recusada).
+    // Sem matéria: o SELECT só confirma o usuário; com matéria: ela precisa ser do usuário
+    private static final String INSERT_GOAL = """
+        INSERT INTO goals (id, title, goal_type, start_date, end_date, active, target_hours, target_questions,
+            matters, user_id, subject_id)
+        SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, u.id, NULL FROM users u WHERE u.id = ?
+        """;
+    private static final String INSERT_GOAL_WITH_SUBJECT = """
+        INSERT INTO goals (id, title, goal_type, start_date, end_date, active, target_hours, target_questions,
+            matters, user_id, subject_id)
+        SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, s.user_id, s.id FROM subjects s WHERE s.user_id = ? AND s.id = ?
+        """;
+    // PUT substitui a meta inteira, como fazia o findById + setters: campo ausente no corpo vira null. Gravar só os
+    // campos enviados exigiria distinguir "ausente" de "null" no JSON; a linha é estreita e a escrita é uma só
+    private static final String UPDATE_GOAL = """
+        UPDATE goals SET title = ?, goal_type = ?, start_date = ?, end_date = ?, active = ?, target_hours = ?,
+            target_questions = ?, matters = ?, subject_id = NULL
+        WHERE id = ? AND user_id = ?
+        """;
+    private static final String UPDATE_GOAL_WITH_SUBJECT = """
+        UPDATE goals SET title = ?, goal_type = ?, start_date = ?, end_date = ?, active = ?, target_hours = ?,
+            target_questions = ?, matters = ?, subject_id = ?
+        WHERE id = ? AND user_id = ?
+          AND EXISTS (SELECT 1 FROM subjects s WHERE s.id = ? AND s.user_id = goals.user_id)
+        """;
+    private static final String DELETE_OWNED_GOAL = "DELETE FROM goals WHERE id = ? AND user_id = ?";
+
     private final GoalRepository goalRepository;
     private final UserRepository userRepository;
-    private final SubjectRepository subjectRepository;
-    private final StudySessionRepository studySessionRepository;
+    private final GoalProgressCalculator goalProgressCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIds entityIds;
 
     public GoalService(GoalRepository goalRepository, 
                        UserRepository userRepository, 
-                       SubjectRepository subjectRepository, 
-                       StudySessionRepository studySessionRepository) {
+                       StudyRollupRepository studyRollupRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       JdbcTemplate jdbcTemplate,
+                       EntityIds entityIds) {
         this.goalRepository = goalRepository;
         this.userRepository = userRepository;
-        this.subjectRepository = subjectRepository;
-        this.studySessionRepository = studySessionRepository;
+        this.goalProgressCalculator = new GoalProgressCalculator(studyRollupRepository);
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityIds = entityIds;
     }
 
-    public List<Goal> findGoalsByUserId(Long userId) {
-        List<Goal> goals = goalRepository.findByUser_IdAndActiveTrue(userId);
+    @Cacheable(cacheNames = CacheConfig.GOAL_PROGRESS, key = "#userId", sync = true)
+    @Transactional(readOnly = true)
+    public List<GoalDTO> findGoalsByUserId(Long userId) {
+        List<GoalDTO> goals = goalRepository.findActiveSummariesByUserId(userId);
+        return goalProgressCalculator.apply(userId, goals);
+    }
 
-        for (Goal goal : goals) {
-            Integer totalMinutes = 0;
-            Integer totalQuestions = 0;
+    // Sem SELECT antes de gravar: id do pooled optimizer e usuário/matéria conferidos pelo INSERT ... SELECT
+    @Transactional
+    public Goal createGoal(Goal goal){
+        Long userId = requireUserId(goal);
+        Long subjectId = goal.getSubject() != null ? goal.getSubject().getId() : null;
 
-            LocalDateTime start = (goal.getStartDate() != null) ? goal.getStartDate().atStartOfDay() : null;
-            
-            LocalDateTime safeMaxDate = LocalDateTime.of(2999, 12, 31, 23, 59, 59);
+        if (goal.getMatters() != null) {
+            goal.setMatters(goal.getMatters().trim());
+        } 
 
-            LocalDateTime end = (goal.getEndDate() != null) 
-                    ? goal.getEndDate().atTime(23, 59, 59) 
-                    : safeMaxDate; 
+        Long id = entityIds.next(Goal.class);
+        int inserted = jdbcTemplate.update(subjectId != null ? INSERT_GOAL_WITH_SUBJECT : INSERT_GOAL, ps -> {
+            ps.setLong(1, id);
+            setGoalFields(ps, 2, goal);
+            ps.setLong(10, userId);
+            if (subjectId != null) {
+                ps.setLong(11, subjectId);
+            }
+        });
+        if (inserted == 0) {
+            throw new IllegalArgumentException(subjectId != null ? "Matéria não encontrada" : "Usuário não encontrado");
+        }
+
+        goal.setId(id);
+        withReferences(goal, userId, subjectId);
+        publishChange(userId);
+        return goal;
+    }
 
-            if (goal.getSubject() != null && goal.getMatters() != null && !goal.getMatters().trim().isEmpty()) {
-                totalMinutes = studySessionRepository.getTotalMinutesByMatter(userId, goal.getSubject().getId(), goal.getMatters().trim());
-                totalQuestions = studySessionRepository.getTotalQuestionsByMatter(userId, goal.getSubject().getId(), goal.getMatters().trim());
+    // UPDATE direto por id + usuário: meta de outro usuário (ou inexistente) não é tocada e vira 404
+    @Transactional
+    public Optional<Goal> updateGoal(Long id, Goal goal){
+        Long userId = requireUserId(goal);
+        Long subjectId = goal.getSubject() != null ? goal.getSubject().getId() : null;
+
+        if (goal.getMatters() != null) {
+            goal.setMatters(goal.getMatters().trim());
+        }
+
+        int updated = jdbcTemplate.update(subjectId != null ? UPDATE_GOAL_WITH_SUBJECT : UPDATE_GOAL, ps -> {
+            int next = setGoalFields(ps, 1, goal);
+            if (subjectId != null) {
+                ps.setLong(next++, subjectId);
             }
-            else if (goal.getSubject() != null) {
-                totalMinutes = studySessionRepository.getTotalMinutesBySubject(userId, goal.getSubject().getId());
-                totalQuestions = studySessionRepository.getTotalQuestionsBySubject(userId, goal.getSubject().getId());
+            ps.setLong(next++, id);
+            ps.setLong(next++, userId);
+            if (subjectId != null) {
+                ps.setLong(next, subjectId);
             }
-            else if (start != null) {
-                totalMinutes = studySessionRepository.getTotalMinutesByDateRange(userId, start, end);
-                totalQuestions = studySessionRepository.getTotalQuestionsByDateRange(userId, start, end);
+        });
+        if (updated == 0) {
+            // Só no caminho de erro: distingue matéria alheia (400) de meta não encontrada (404)
+            if (subjectId != null && goalRepository.existsByIdAndUser_Id(id, userId)) {
+                throw new IllegalArgumentException("Matéria não encontrada");
             }
+            return Optional.empty();
+        }
 
-            if (totalMinutes == null) totalMinutes = 0;
-            if (totalQuestions == null) totalQuestions = 0;
-
-            double hoursDone = totalMinutes / 60.0;
-            goal.setCurrentHours(Math.round(hoursDone * 10.0) / 10.0);
-            goal.setCurrentQuestions(totalQuestions);
+        goal.setId(id);
+        withReferences(goal, userId, subjectId);
+        publishChange(userId);
+        return Optional.of(goal);
+    }
 
-            int percent = 0;
-            if (goal.getTargetHours() != null && goal.getTargetHours() > 0) {
-                percent = (int) ((hoursDone / goal.getTargetHours()) * 100);
-            } else if (goal.getTargetQuestions() != null && goal.getTargetQuestions() > 0) {
-                percent = (int) (((double) totalQuestions / goal.getTargetQuestions()) * 100);
-            }
-            goal.setProgressPercentage(Math.min(percent, 100));
+    // DELETE direto por id + usuário, como no UPDATE: meta de outro usuário (ou inexistente) = não encontrada
+    @Transactional
+    public void deleteGoal(Long id, Long userId){
+        if (userId == null || jdbcTemplate.update(DELETE_OWNED_GOAL, id, userId) == 0) {
+            throw new IllegalArgumentException("Meta não encontrada.");
         }
-        return goals;
+        publishChange(userId);
     }
 
-    public Goal createGoal(Goal goal){
+    private static Long requireUserId(Goal goal) {
         if (goal.getUser() == null || goal.getUser().getId() == null) {
             throw new IllegalArgumentException("ID do usuário é obrigatório");
         }
-
-        Optional<User> userOptional = userRepository.findById(goal.getUser().getId());
-        if (userOptional.isEmpty()) {
-            throw new IllegalArgumentException("Usuário não encontrado");
-        }
-        goal.setUser(userOptional.get());
-
-        if (goal.getSubject() != null && goal.getSubject().getId() != null) {
-            Optional<Subject> sub = subjectRepository.findById(goal.getSubject().getId());
-            goal.setSubject(sub.orElse(null));
-        } else {
-            goal.setSubject(null);
-        }
-
-        if (goal.getMatters() != null) {
-            goal.setMatters(goal.getMatters().trim());
-        } 
-
-        return goalRepository.save(goal);
+        return goal.getUser().getId();
     }
 
-    public Optional<Goal> updateGoal(Long id, Goal goal){
-        return goalRepository.findById(id).map(existingGoal -> {
-            existingGoal.setTitle(goal.getTitle());
-            existingGoal.setGoalType(goal.getGoalType());
-            existingGoal.setTargetHours(goal.getTargetHours());
-            
-            // --- NOVO: ATUALIZAR QUESTÕES ALVO ---
-            existingGoal.setTargetQuestions(goal.getTargetQuestions());
-
-            existingGoal.setStartDate(goal.getStartDate());
-            existingGoal.setEndDate(goal.getEndDate());
-            existingGoal.setActive(goal.isActive());
-
-            if (goal.getMatters() != null) {
-                existingGoal.setMatters(goal.getMatters().trim());
-            } else {
-                existingGoal.setMatters(null);
-            }
-
-            if (goal.getSubject() != null && goal.getSubject().getId() != null) {
-                Optional<Subject> sub = subjectRepository.findById(goal.getSubject().getId());
-                existingGoal.setSubject(sub.orElse(null));
-            } else {
-                existingGoal.setSubject(null);
-            }
+    // Campos da meta a partir de index, na ordem dos statements acima; devolve o próximo índice livre
+    private static int setGoalFields(PreparedStatement ps, int index, Goal goal) throws SQLException {
+        ps.setString(index++, goal.getTitle());
+        ps.setString(index++, goal.getGoalType());
+        ps.setDate(index++, goal.getStartDate() != null ? Date.valueOf(goal.getStartDate()) : null);
+        ps.setDate(index++, goal.getEndDate() != null ? Date.valueOf(goal.getEndDate()) : null);
+        ps.setBoolean(index++, goal.isActive());
+        ps.setObject(index++, goal.getTargetHours(), Types.DOUBLE);
+        ps.setObject(index++, goal.getTargetQuestions(), Types.INTEGER);
+        ps.setString(index++, goal.getMatters());
+        return index;
+    }
 
-            return goalRepository.save(existingGoal); 
-        });
+    // Para a resposta: usuário como referência e só o id da matéria, sem nenhum SELECT depois da escrita
+    private void withReferences(Goal goal, Long userId, Long subjectId) {
+        goal.setUser(userRepository.getReferenceById(userId));
+        Subject subject = null;
+        if (subjectId != null) {
+            subject = new Subject();
+            subject.setId(subjectId);
+        }
+        goal.setSubject(subject);
     }
 
-    public void deleteGoal(Long id){
-        if (goalRepository.existsById(id)) {
-            goalRepository.deleteById(id);
-        } else {
-            throw new IllegalArgumentException("Meta não encontrada.");
+    private void publishChange(Long userId) {
+        if (userId != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId, UserDataChangedEvent.Source.GOAL));
         }
     }
 }
\ No newline at end of file
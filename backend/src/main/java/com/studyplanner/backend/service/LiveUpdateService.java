@@ -0,0 +1,254 @@
+package com.studyplanner.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.studyplanner.backend.config.ReplicaRoutingDataSource;
+import com.studyplanner.backend.dto.LiveUpdateDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+import com.studyplanner.backend.exception.RateLimitedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Canal SSE por usuário para o dashboard e as metas. Conexões ociosas não prendem thread (servlet assíncrono)
+// e não geram consulta: só um commit do próprio usuário dispara trabalho. Alterações próximas são agrupadas
+// (coalesce) e geram uma leitura por usuário, não por conexão; cada conexão recebe só o que mudou.
+@Service
+public class LiveUpdateService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    private final DashboardService dashboardService;
+    private final GoalService goalService;
+    private final TaskScheduler taskScheduler;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final Duration timeout;
+    private final Duration coalesce;
+
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter deltas;
+    private final Counter resyncs;
+
+    public LiveUpdateService(DashboardService dashboardService, GoalService goalService, TaskScheduler taskScheduler,
+                             MeterRegistry meterRegistry,
+                             @Value("${studyplanner.live.max-connections:10000}") int maxConnections,
+                             @Value("${studyplanner.live.max-connections-per-user:5}") int maxConnectionsPerUser,
+                             @Value("${studyplanner.live.timeout:30m}") Duration timeout,
+                             @Value("${studyplanner.live.coalesce:250ms}") Duration coalesce) {
+        this.dashboardService = dashboardService;
+        this.goalService = goalService;
+        this.taskScheduler = taskScheduler;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeout = timeout;
+        this.coalesce = coalesce;
+
+        Gauge.builder("live.connections", connections, AtomicInteger::get)
+            .description("Conexões SSE abertas").register(meterRegistry);
+        this.deltas = Counter.builder("live.events").tag("type", "delta")
+            .description("Eventos enviados pelo canal ao vivo").register(meterRegistry);
+        this.resyncs = Counter.builder("live.events").tag("type", "snapshot")
+            .description("Eventos enviados pelo canal ao vivo").register(meterRegistry);
+    }
+
+    // Primeiro evento: o estado completo ("snapshot"); depois só "delta"
+    public SseEmitter subscribe(Long userId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw RateLimitedException.busy(Duration.ofSeconds(30));
+        }
+
+        Connection connection = new Connection(userId, newEmitter(timeout));
+        AtomicBoolean accepted = new AtomicBoolean();
+        UserChannel channel = channels.compute(userId, (id, existing) -> {
+            UserChannel target = existing != null ? existing : new UserChannel(id);
+            if (target.connections.size() < maxConnectionsPerUser) {
+                target.connections.add(connection);
+                accepted.set(true);
+            }
+            return target;
+        });
+        if (!accepted.get()) {
+            connections.decrementAndGet();
+            throw RateLimitedException.tooManyConnections(Duration.ofSeconds(30));
+        }
+
+        SseEmitter emitter = connection.emitter;
+        emitter.onCompletion(() -> remove(userId, connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(userId, connection));
+
+        // Demais conexões do usuário já compartilham um estado; um novo só é lido se o canal acabou de nascer
+        channel.lock.lock();
+        try {
+            if (channel.state == null) channel.state = load(userId);
+        } catch (RuntimeException e) {
+            remove(userId, connection);
+            throw e;
+        } finally {
+            channel.lock.unlock();
+        }
+        connection.resync = true;
+        connection.deliver(channel, null);
+        return emitter;
+    }
+
+    // Só agenda; a leitura acontece depois da janela de coalesce (e depois dos caches já invalidados)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel == null) return;
+        if (channel.flushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> flush(channel), Instant.now().plus(coalesce));
+        }
+    }
+
+    // Comentário SSE a cada intervalo: mantém proxies e balanceadores sem derrubar a conexão e detecta
+    // clientes que sumiram. Conexão com envio em andamento não precisa de heartbeat.
+    @Scheduled(fixedDelayString = "${studyplanner.live.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (UserChannel channel : channels.values()) {
+            for (Connection connection : channel.connections) {
+                connection.heartbeat(channel);
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    // Pontos de extensão para os testes
+    SseEmitter newEmitter(Duration timeout) {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    void sendFinished(Connection connection) {
+    }
+
+    void flush(UserChannel channel) {
+        channel.lock.lock();
+        try {
+            channel.flushScheduled.set(false);
+            if (channel.connections.isEmpty()) return;
+            LiveUpdateDTO current;
+            try {
+                current = load(channel.userId);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao montar atualização ao vivo do usuário {}", channel.userId, e);
+                return;
+            }
+            LiveUpdateDTO delta = channel.state != null ? current.changesSince(channel.state) : current;
+            channel.state = current;
+            if (delta == null) return;
+            for (Connection connection : channel.connections) {
+                connection.deliver(channel, delta);
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    // Logo após o commit e fora da requisição do usuário: a réplica ainda pode não ter a alteração
+    private LiveUpdateDTO load(Long userId) {
+        return ReplicaRoutingDataSource.onPrimary(() ->
+            LiveUpdateDTO.of(dashboardService.getStats(userId), goalService.findGoalsByUserId(userId)));
+    }
+
+    private void remove(Long userId, Connection connection) {
+        channels.computeIfPresent(userId, (id, channel) -> {
+            if (channel.connections.remove(connection)) connections.decrementAndGet();
+            return channel.connections.isEmpty() ? null : channel;
+        });
+    }
+
+    static final class UserChannel {
+        final Long userId;
+        final List<Connection> connections = new CopyOnWriteArrayList<>();
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+        // Lock e não synchronized: load() espera por conexão do pool, e uma virtual thread bloqueada dentro de
+        // um monitor prende a thread carregadora (JDK 21)
+        final ReentrantLock lock = new ReentrantLock();
+        // Último estado enviado (base dos deltas e do snapshot de quem conecta ou se atrasa)
+        volatile LiveUpdateDTO state;
+
+        UserChannel(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    // No máximo um envio em andamento por conexão. Cliente lento não acumula fila: os deltas perdidos viram
+    // um snapshot do estado atual assim que o envio anterior termina.
+    final class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean resync;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        // delta nulo: só o snapshot pendente (resync)
+        void deliver(UserChannel channel, LiveUpdateDTO delta) {
+            if (!sending.compareAndSet(false, true)) {
+                resync = true;
+                return;
+            }
+            SseEventBuilder event = delta != null ? SseEmitter.event().name("delta").data(delta) : null;
+            Thread.ofVirtual().name("live-update-send").start(() -> run(channel, event, deltas));
+        }
+
+        void heartbeat(UserChannel channel) {
+            if (!sending.compareAndSet(false, true)) return;
+            Thread.ofVirtual().name("live-update-heartbeat").start(() -> run(channel, SseEmitter.event().comment("ping"), null));
+        }
+
+        private void run(UserChannel channel, SseEventBuilder event, Counter counter) {
+            boolean open = event == null || send(event, counter);
+            sending.set(false);
+            // Um deliver pode ter marcado resync entre o envio e a liberação acima
+            while (open && resync && sending.compareAndSet(false, true)) {
+                resync = false;
+                open = send(SseEmitter.event().name("snapshot").data(channel.state), resyncs);
+                sending.set(false);
+            }
+            sendFinished(this);
+        }
+
+        private boolean send(SseEventBuilder event, Counter counter) {
+            try {
+                emitter.send(event);
+                if (counter != null) counter.increment();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emitter já encerrado
+                remove(userId, this);
+                return false;
+            }
+        }
+    }
+}
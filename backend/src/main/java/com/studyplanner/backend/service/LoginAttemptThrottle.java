@@ -0,0 +1,92 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studyplanner.backend.exception.RateLimitedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Conta falhas de senha por e-mail e por IP numa janela fixa (a partir da primeira falha).
+// Acima do limite a tentativa é recusada com 429 antes de gastar CPU com BCrypt.
+// O IP é o do cliente resolvido pelo Tomcat a partir do X-Forwarded-For (server.forward-headers-strategy=native).
+// Se ainda for um proxy confiável (server.tomcat.remoteip.internal-proxies), o proxy não repassou o cliente e
+// todos chegariam com o mesmo endereço: nesse caso vale só o limite por e-mail.
+@Component
+public class LoginAttemptThrottle {
+
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final Duration window;
+    private final Pattern trustedProxies;
+
+    private final Cache<String, AtomicInteger> failuresByEmail;
+    private final Cache<String, AtomicInteger> failuresByIp;
+
+    private final Counter throttledByEmail;
+    private final Counter throttledByIp;
+
+    public LoginAttemptThrottle(MeterRegistry meterRegistry,
+                                ServerProperties serverProperties,
+                                @Value("${studyplanner.login.max-failures-per-email:5}") int maxFailuresPerEmail,
+                                @Value("${studyplanner.login.max-failures-per-ip:50}") int maxFailuresPerIp,
+                                @Value("${studyplanner.login.window:15m}") Duration window) {
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.window = window;
+        String internalProxies = serverProperties.getTomcat().getRemoteip().getInternalProxies();
+        this.trustedProxies = internalProxies == null || internalProxies.isBlank() ? null : Pattern.compile(internalProxies);
+        this.failuresByEmail = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build();
+        this.failuresByIp = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build();
+        this.throttledByEmail = Counter.builder("auth.throttled").tag("key", "email").register(meterRegistry);
+        this.throttledByIp = Counter.builder("auth.throttled").tag("key", "ip").register(meterRegistry);
+    }
+
+    // ip pode ser nulo (chamadas internas); o e-mail é comparado sem diferenciar maiúsculas
+    public void check(String email, String ip) {
+        ip = clientIp(ip);
+        if (exceeded(failuresByEmail, key(email), maxFailuresPerEmail)) {
+            throttledByEmail.increment();
+            throw RateLimitedException.tooManyAttempts(window);
+        }
+        if (ip != null && exceeded(failuresByIp, ip, maxFailuresPerIp)) {
+            throttledByIp.increment();
+            throw RateLimitedException.tooManyAttempts(window);
+        }
+    }
+
+    public void recordFailure(String email, String ip) {
+        ip = clientIp(ip);
+        failuresByEmail.get(key(email), k -> new AtomicInteger()).incrementAndGet();
+        if (ip != null) {
+            failuresByIp.get(ip, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    // Sucesso zera só o e-mail: um IP compartilhado (ex.: NAT de faculdade) não limpa o histórico dos outros
+    public void recordSuccess(String email) {
+        failuresByEmail.invalidate(key(email));
+    }
+
+    // Endereço de proxy confiável não identifica o cliente: sem chave de IP
+    private String clientIp(String ip) {
+        return ip != null && trustedProxies != null && trustedProxies.matcher(ip).matches() ? null : ip;
+    }
+
+    private static boolean exceeded(Cache<String, AtomicInteger> cache, String key, int max) {
+        AtomicInteger failures = cache.getIfPresent(key);
+        return failures != null && failures.get() >= max;
+    }
+
+    private static String key(String email) {
+        return email == null ? "" : email.trim().toLowerCase();
+    }
+}
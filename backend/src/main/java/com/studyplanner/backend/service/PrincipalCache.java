@@ -0,0 +1,56 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studyplanner.backend.dto.AuthenticatedUser;
+import com.studyplanner.backend.event.PasswordChangedEvent;
+import com.studyplanner.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// email -> (id, versão da senha) dos usuários autenticados por JWT. No caso comum a requisição
+// autenticada não consulta o banco; a troca de senha descarta a entrada após o commit.
+@Component
+public class PrincipalCache {
+
+    public static final String AUTH_PRINCIPALS = "authPrincipals";
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> principals;
+
+    public PrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                          @Value("${api.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${api.security.principal-cache.ttl:30m}") Duration ttl) {
+        this.userRepository = userRepository;
+        // O TTL só cobre mudanças feitas fora da aplicação (ex.: direto no banco)
+        this.principals = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, AUTH_PRINCIPALS);
+    }
+
+    // E-mails desconhecidos não ficam em cache (o loader devolve null)
+    public Optional<AuthenticatedUser> findByEmail(String email) {
+        return Optional.ofNullable(principals.get(email, key -> userRepository.findPrincipalByEmail(key).orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        principals.invalidate(email);
+    }
+
+    // Depois do commit: uma carga em andamento termina antes da remoção e a próxima já lê a versão nova
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPasswordChanged(PasswordChangedEvent event) {
+        invalidate(event.email());
+    }
+}
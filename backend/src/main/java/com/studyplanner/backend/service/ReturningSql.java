@@ -0,0 +1,25 @@
+package com.studyplanner.backend.service;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Escritas que devolvem as linhas afetadas no mesmo statement, sem SELECT antes. O PostgreSQL usa
+// UPDATE/DELETE ... RETURNING; o H2 (testes e dev) não tem RETURNING e lê a tabela de delta OLD TABLE (...)
+@Component
+public class ReturningSql {
+
+    private final boolean deltaTables;
+
+    public ReturningSql(EntityManagerFactory entityManagerFactory) {
+        this.deltaTables = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+            .getDialect() instanceof H2Dialect;
+    }
+
+    // As duas formas precisam receber os parâmetros na mesma ordem e devolver as mesmas colunas
+    public String choose(String returning, String oldTable) {
+        return deltaTables ? oldTable : returning;
+    }
+}
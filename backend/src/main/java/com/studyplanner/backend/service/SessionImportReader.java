@@ -0,0 +1,232 @@
+package com.studyplanner.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.dto.SessionImportDTO;
+
+// Lê o arquivo de importação em streaming: cada sessão é entregue ao consumidor assim que é lida,
+// sem montar a lista inteira em memória. Linhas ilegíveis viram Entry com erro e a leitura continua;
+// um arquivo corrompido (JSON quebrado, aspas sem fechar) encerra a leitura com um último erro.
+public final class SessionImportReader {
+
+    public record Entry(long row, SessionImportDTO.Row data, String error) {
+
+        static Entry ok(long row, SessionImportDTO.Row data) { return new Entry(row, data, null); }
+
+        static Entry failed(long row, String error) { return new Entry(row, null, error); }
+    }
+
+    private SessionImportReader() {}
+
+    // Array JSON de objetos no formato de SessionImportDTO.Row
+    public static void readJson(InputStream in, ObjectMapper objectMapper, Consumer<Entry> consumer) throws IOException {
+        long row = 0;
+        // Sessão em leitura no momento em que o JSON quebrar (a seguinte, se quebrar entre elementos)
+        long current = 1;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    consumer.accept(Entry.failed(0, "O arquivo deve ser um array JSON de sessões."));
+                    return;
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    row++;
+                    // Lido como árvore: um campo com tipo errado invalida só esta sessão, não o resto do array
+                    JsonNode node = parser.readValueAsTree();
+                    current = row + 1;
+                    try {
+                        consumer.accept(Entry.ok(row, objectMapper.treeToValue(node, SessionImportDTO.Row.class)));
+                    } catch (JsonProcessingException e) {
+                        consumer.accept(Entry.failed(row, "Formato inválido: " + e.getOriginalMessage()));
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                consumer.accept(Entry.failed(current, "JSON malformado: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    // CSV com cabeçalho (nomes dos campos de Row, sem diferenciar maiúsculas nem "_").
+    // Separador "," ou ";" (detectado no cabeçalho, como exporta o Excel em português); assuntos separados por "|".
+    public static void readCsv(InputStream in, Consumer<Entry> consumer) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || header.isBlank()) {
+                consumer.accept(Entry.failed(1, "Arquivo CSV vazio."));
+                return;
+            }
+            // Sem vírgula e com ";" no cabeçalho: planilha exportada com separador ";"
+            char separator = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+            Map<String, Integer> columns = new HashMap<>();
+            String[] names = header.split(String.valueOf(separator), -1);
+            for (int i = 0; i < names.length; i++) {
+                columns.put(normalize(names[i]), i);
+            }
+            if (!columns.containsKey("title") || !columns.containsKey("date")) {
+                consumer.accept(Entry.failed(1, "Cabeçalho deve ter pelo menos as colunas title e date."));
+                return;
+            }
+
+            CsvTokenizer csv = new CsvTokenizer(reader, separator, 2);
+            List<String> fields;
+            while (true) {
+                long row = csv.line();
+                try {
+                    fields = csv.next();
+                } catch (IllegalStateException e) {
+                    consumer.accept(Entry.failed(row, e.getMessage()));
+                    return;
+                }
+                if (fields == null) return;
+                if (fields.size() == 1 && fields.get(0).isBlank()) continue;
+                consumer.accept(toRow(row, columns, fields));
+            }
+        }
+    }
+
+    private static Entry toRow(long row, Map<String, Integer> columns, List<String> fields) {
+        try {
+            String matters = field(columns, fields, "matters");
+            return Entry.ok(row, new SessionImportDTO.Row(
+                field(columns, fields, "title"),
+                field(columns, fields, "description"),
+                field(columns, fields, "date"),
+                toInteger(field(columns, fields, "durationminutes"), "durationMinutes"),
+                toBoolean(field(columns, fields, "completed")),
+                toLong(field(columns, fields, "subjectid"), "subjectId"),
+                field(columns, fields, "subject"),
+                matters == null ? List.of() : Arrays.asList(matters.split("\\|")),
+                toInteger(field(columns, fields, "totalquestions"), "totalQuestions"),
+                toInteger(field(columns, fields, "correctquestions"), "correctQuestions")));
+        } catch (IllegalArgumentException e) {
+            return Entry.failed(row, e.getMessage());
+        }
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> fields, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer toInteger(String value, String name) {
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido em " + name + ": " + value);
+        }
+    }
+
+    private static Long toLong(String value, String name) {
+        if (value == null) return null;
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido em " + name + ": " + value);
+        }
+    }
+
+    private static Boolean toBoolean(String value) {
+        if (value == null) return null;
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "sim", "s", "1", "yes" -> true;
+            case "false", "nao", "não", "n", "0", "no" -> false;
+            default -> throw new IllegalArgumentException("Valor inválido em completed: " + value);
+        };
+    }
+
+    // Remove BOM (UTF-8 do Excel), aspas e "_" para aceitar "Duration_Minutes", "durationMinutes" etc.
+    private static String normalize(String column) {
+        return column.replace("\uFEFF", "").replace("\"", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    // RFC 4180: campos entre aspas podem ter separador, quebra de linha e "" (aspas escapadas)
+    private static final class CsvTokenizer {
+
+        private final Reader reader;
+        private final char separator;
+        private long line;
+        private int pending = -2;
+
+        CsvTokenizer(Reader reader, char separator, long firstLine) {
+            this.reader = reader;
+            this.separator = separator;
+            this.line = firstLine;
+        }
+
+        // Linha (da planilha) onde começa o próximo registro
+        long line() {
+            return line;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new IllegalStateException("Aspas sem fechamento.");
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c == -1 || c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') pending = next;
+                    }
+                    if (c != -1) line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == separator) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.studyplanner.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.dto.SessionImportDTO;
+import com.studyplanner.backend.dto.SubjectDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.repository.SubjectRepository;
+import com.studyplanner.backend.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Importação de histórico (planilhas antigas): lê o arquivo em streaming, valida linha a linha e grava
+// em blocos de chunk-size sessões. Cada bloco é uma transação curta com INSERT em batch de sessões e
+// assuntos e um único ajuste agregado no rollup; linhas inválidas são puladas e reportadas.
+@Service
+public class SessionImportService {
+
+    private static final String INSERT_SESSION = """
+        INSERT INTO study_sessions (id, title, description, date, duration_minutes, completed,
+            total_questions, correct_questions, user_id, subject_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String INSERT_MATTER = "INSERT INTO session_matters (session_id, matter) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final StudyRollupService studyRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String nextSessionIdSql;
+
+    @Value("${studyplanner.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${studyplanner.import.max-rows:100000}")
+    private long maxRows;
+
+    @Value("${studyplanner.import.max-errors:100}")
+    private int maxErrors;
+
+    public SessionImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                UserRepository userRepository,
+                                SubjectRepository subjectRepository,
+                                StudyRollupService studyRollupService,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.subjectRepository = subjectRepository;
+        this.studyRollupService = studyRollupService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.nextSessionIdSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+            .getDialect().getSequenceSupport().getSequenceNextValString(StudySession.ID_SEQUENCE);
+    }
+
+    // Sessão já validada, pronta para o INSERT
+    private record ValidRow(
+        String title,
+        String description,
+        LocalDateTime date,
+        int durationMinutes,
+        boolean completed,
+        Long subjectId,
+        List<String> matters,
+        Integer totalQuestions,
+        Integer correctQuestions) {}
+
+    public SessionImportDTO.Result importJson(Long userId, InputStream in) {
+        return importSessions(userId, consumer -> SessionImportReader.readJson(in, objectMapper, consumer));
+    }
+
+    public SessionImportDTO.Result importCsv(Long userId, InputStream in) {
+        return importSessions(userId, consumer -> SessionImportReader.readCsv(in, consumer));
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        void read(Consumer<SessionImportReader.Entry> consumer) throws IOException;
+    }
+
+    private SessionImportDTO.Result importSessions(Long userId, Source source) {
+        if (userId == null || !userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("Usuário não encontrado.");
+        }
+
+        Run run = new Run(userId, subjectRepository.findSummariesByUserId(userId));
+        try {
+            source.read(run::accept);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de importação", e);
+        } catch (StopImport e) {
+            // Limite de linhas atingido: o que já foi lido é gravado normalmente
+        }
+        run.flush();
+
+        if (run.imported > 0) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId, UserDataChangedEvent.Source.SESSION));
+        }
+        return new SessionImportDTO.Result(run.imported, run.rejected, run.errors);
+    }
+
+    private static class StopImport extends RuntimeException {
+        StopImport() { super(null, null, false, false); }
+    }
+
+    // Estado de uma importação: diretório de matérias do usuário (resolvido uma vez), bloco atual e erros
+    private class Run {
+
+        private final Long userId;
+        private final Map<Long, Long> subjectsById = new HashMap<>();
+        private final Map<String, Long> subjectsByName = new HashMap<>();
+        private final List<ValidRow> chunk = new ArrayList<>(chunkSize);
+        private final List<SessionImportDTO.RowError> errors = new ArrayList<>();
+        private final LocalDate today = CacheConfig.today();
+        private long read;
+        private int imported;
+        private int rejected;
+
+        Run(Long userId, List<SubjectDTO> subjects) {
+            this.userId = userId;
+            for (SubjectDTO subject : subjects) {
+                subjectsById.put(subject.id(), subject.id());
+                subjectsByName.putIfAbsent(key(subject.name()), subject.id());
+            }
+        }
+
+        void accept(SessionImportReader.Entry entry) {
+            if (++read > maxRows) {
+                reject(entry.row(), "Limite de " + maxRows + " sessões por importação atingido; o restante foi ignorado.");
+                throw new StopImport();
+            }
+            if (entry.error() != null) {
+                reject(entry.row(), entry.error());
+                return;
+            }
+            String error = validate(entry.data());
+            if (error != null) {
+                reject(entry.row(), error);
+                return;
+            }
+            chunk.add(toValidRow(entry.data()));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new SessionImportDTO.RowError(row, message));
+            }
+        }
+
+        // Mesmas regras da entidade StudySession e de StudySessionService.createSession
+        private String validate(SessionImportDTO.Row row) {
+            if (row.title() == null || row.title().isBlank()) return "O título da sessão é obrigatório";
+            if (row.title().length() > 100) return "O título deve ter no máximo 100 caracteres";
+            if (row.description() != null && row.description().length() > 500) return "A descrição deve ter no máximo 500 caracteres";
+
+            if (row.date() == null || row.date().isBlank()) return "A data e hora da sessão são obrigatórias";
+            LocalDateTime date = parseDate(row.date());
+            if (date == null) return "Data inválida: " + row.date();
+            if (date.toLocalDate().isAfter(today)) return "Não é possível registrar sessões em datas futuras.";
+
+            if (row.durationMinutes() == null) return "A duração é obrigatória";
+            if (row.durationMinutes() < 0) return "A duração não pode ser negativa";
+            if (row.durationMinutes() > 1440) return "A sessão não pode durar mais de 24 horas (1440 minutos)";
+
+            if (row.subjectId() == null && (row.subject() == null || row.subject().isBlank())) {
+                return "A matéria (disciplina) é obrigatória";
+            }
+            if (resolveSubject(row) == null) {
+                return "Matéria não encontrada: " + (row.subjectId() != null ? row.subjectId() : row.subject());
+            }
+
+            if (row.totalQuestions() != null && row.totalQuestions() < 0) return "O total de questões não pode ser negativo";
+            if (row.correctQuestions() != null && row.correctQuestions() < 0) return "O número de acertos não pode ser negativo";
+            if (row.correctQuestions() != null && row.correctQuestions() > (row.totalQuestions() == null ? 0 : row.totalQuestions())) {
+                return "Os acertos não podem passar do total de questões";
+            }
+            if (row.matters() != null && row.matters().stream().anyMatch(m -> m != null && m.trim().length() > 255)) {
+                return "O assunto deve ter no máximo 255 caracteres";
+            }
+            return null;
+        }
+
+        private Long resolveSubject(SessionImportDTO.Row row) {
+            if (row.subjectId() != null) return subjectsById.get(row.subjectId());
+            return subjectsByName.get(key(row.subject()));
+        }
+
+        private ValidRow toValidRow(SessionImportDTO.Row row) {
+            List<String> matters = row.matters() == null ? List.of() : row.matters().stream()
+                .filter(Objects::nonNull).map(String::trim).filter(m -> !m.isEmpty()).toList();
+            return new ValidRow(row.title().trim(), row.description(), parseDate(row.date()), row.durationMinutes(),
+                Boolean.TRUE.equals(row.completed()), resolveSubject(row), matters,
+                row.totalQuestions(), row.correctQuestions());
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) return;
+            List<ValidRow> rows = List.copyOf(chunk);
+            chunk.clear();
+            transactionTemplate.executeWithoutResult(status -> insert(userId, rows));
+            imported += rows.size();
+        }
+    }
+
+    private void insert(Long userId, List<ValidRow> rows) {
+        long[] ids = allocateSessionIds(rows.size());
+        List<Object[]> sessions = new ArrayList<>(rows.size());
+        List<Object[]> matters = new ArrayList<>();
+        List<StudyRollupService.Contribution> contributions = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ValidRow row = rows.get(i);
+            sessions.add(new Object[] {
+                ids[i], row.title(), row.description(), Timestamp.valueOf(row.date()), row.durationMinutes(),
+                row.completed(), row.totalQuestions(), row.correctQuestions(), userId, row.subjectId()
+            });
+            for (String matter : row.matters()) {
+                matters.add(new Object[] { ids[i], matter });
+            }
+            contributions.add(new StudyRollupService.Contribution(userId, row.subjectId(), row.date().toLocalDate(),
+                row.matters(), row.durationMinutes(),
+                row.totalQuestions() != null ? row.totalQuestions() : 0,
+                row.correctQuestions() != null ? row.correctQuestions() : 0,
+                row.completed()));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SESSION, sessions, sessions.size(), SessionImportService::setSession);
+        if (!matters.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MATTER, matters);
+        }
+        studyRollupService.addAll(contributions);
+    }
+
+    private static void setSession(PreparedStatement ps, Object[] row) throws SQLException {
+        ps.setLong(1, (Long) row[0]);
+        ps.setString(2, (String) row[1]);
+        ps.setString(3, (String) row[2]);
+        ps.setTimestamp(4, (Timestamp) row[3]);
+        ps.setInt(5, (Integer) row[4]);
+        ps.setBoolean(6, (Boolean) row[5]);
+        ps.setObject(7, row[6], Types.INTEGER);
+        ps.setObject(8, row[7], Types.INTEGER);
+        ps.setLong(9, (Long) row[8]);
+        ps.setLong(10, (Long) row[9]);
+    }
+
+    // Reserva ids na mesma sequence das entidades e com a mesma regra do pooled optimizer do Hibernate:
+    // o nextval v é o fim do bloco (v - ID_ALLOCATION_SIZE + 1 .. v). Mil sessões custam 20 nextval.
+    private long[] allocateSessionIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long hi = jdbcTemplate.queryForObject(nextSessionIdSql, Long.class);
+            for (long id = Math.max(1, hi - StudySession.ID_ALLOCATION_SIZE + 1); id <= hi && filled < count; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        String text = value.trim();
+        try {
+            return text.length() <= 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
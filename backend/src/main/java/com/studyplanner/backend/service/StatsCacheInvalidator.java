@@ -0,0 +1,41 @@
+package com.studyplanner.backend.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+
+@Component
+public class StatsCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public StatsCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Depois do commit. As leituras usam @Cacheable(sync = true): a carga roda dentro do compute do Caffeine e a
+    // remoção de uma chave com carga em andamento espera ela terminar e descarta o resultado. Quem começou a
+    // carregar antes do commit não deixa o valor antigo no cache; quem começa depois da remoção consulta depois do commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        evict(CacheConfig.DASHBOARD_STATS, DashboardService.cacheKey(event.userId()));
+        evict(CacheConfig.GOAL_PROGRESS, event.userId());
+    }
+
+    // Entradas do dia anterior já não são mais lidas (a data faz parte da chave); aqui só liberamos memória
+    @Scheduled(cron = "0 0 0 * * *", zone = "America/Sao_Paulo")
+    public void onDayRollover() {
+        Cache dashboard = cacheManager.getCache(CacheConfig.DASHBOARD_STATS);
+        if (dashboard != null) dashboard.clear();
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) cache.evict(key);
+    }
+}
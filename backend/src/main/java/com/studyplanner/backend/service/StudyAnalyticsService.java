@@ -0,0 +1,69 @@
+package com.studyplanner.backend.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.studyplanner.backend.dto.StudyAnalyticsDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.model.StudyRollup;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+
+// Séries por dia/semana/mês: o banco agrupa o study_rollup por bucket (uma linha por bucket com dados)
+// e aqui só completamos os buckets vazios, então o custo acompanha o número de buckets e não de sessões
+@Service
+public class StudyAnalyticsService {
+
+    private final StudyRollupRepository studyRollupRepository;
+    private final int maxBuckets;
+
+    public StudyAnalyticsService(StudyRollupRepository studyRollupRepository,
+                                 @Value("${studyplanner.analytics.max-buckets:400}") int maxBuckets) {
+        this.studyRollupRepository = studyRollupRepository;
+        this.maxBuckets = maxBuckets;
+    }
+
+    @Transactional(readOnly = true)
+    public StudyAnalyticsDTO getAnalytics(Long userId, LocalDate start, LocalDate end, String granularityValue,
+                                          Long subjectId, String matter) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Informe o início e o fim do período.");
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("O fim do período não pode ser anterior ao início.");
+        }
+        StudyAnalyticsDTO.Granularity granularity = StudyAnalyticsDTO.Granularity.parse(granularityValue);
+
+        LocalDate first = granularity.truncate(start);
+        long buckets = switch (granularity) {
+            case DAY -> ChronoUnit.DAYS.between(first, end) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(first, end) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(first, end) + 1;
+        };
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Período muito longo para essa granularidade (máximo de " + maxBuckets + " pontos).");
+        }
+
+        String matterFilter = matter == null || matter.isBlank() ? StudyRollup.SESSION_TOTAL : matter.trim();
+
+        Map<LocalDate, StudyTotalsDTO.PeriodTotals> totals = new HashMap<>();
+        for (StudyTotalsDTO.PeriodTotals row : studyRollupRepository.sumPerPeriod(granularity, userId, subjectId, matterFilter, start, end)) {
+            totals.put(row.start(), row);
+        }
+
+        List<StudyAnalyticsDTO.Bucket> series = new ArrayList<>((int) buckets);
+        for (LocalDate bucket = first; !bucket.isAfter(end); bucket = granularity.next(bucket)) {
+            series.add(StudyAnalyticsDTO.Bucket.of(bucket, totals.get(bucket)));
+        }
+
+        return new StudyAnalyticsDTO(granularity, start, end, subjectId,
+            matterFilter.isEmpty() ? null : matterFilter, series);
+    }
+}
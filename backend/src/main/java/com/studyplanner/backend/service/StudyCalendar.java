@@ -0,0 +1,183 @@
+package com.studyplanner.backend.service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.studyplanner.backend.dto.StudyHeatmapDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+
+// Calendário de estudo de um usuário: bitmap "estudou no dia N" sobre epoch days (bit b da palavra w
+// é o dia w * 64 + b) e os minutos de cada dia, em blocos de 64 alocados só para palavras com algum
+// dia estudado. Streaks e contagens andam palavra a palavra; o mapa de calor só visita os bits ligados.
+// Métodos sincronizados: leituras são curtas e as escritas só chegam depois de commits.
+final class StudyCalendar {
+
+    private static final int[][] NO_MINUTES = new int[0][];
+
+    private long firstWord;
+    private long[] words = new long[0];
+    private int[][] minutes = NO_MINUTES;
+    // Versão (ver StudyCalendarService) da leitura mais recente aplicada
+    private long version;
+
+    StudyCalendar() {
+        this(0);
+    }
+
+    StudyCalendar(long version) {
+        this.version = version;
+    }
+
+    // Aplica os dias relidos do banco de uma vez. Leitura mais antiga que a última aplicada não entra (false):
+    // ela pode ter visto o banco antes da outra e desfazer uma alteração mais nova
+    synchronized boolean apply(long readVersion, Set<LocalDate> days, List<StudyTotalsDTO.DayActivity> studied) {
+        if (readVersion < version) return false;
+        version = readVersion;
+        Set<LocalDate> cleared = new HashSet<>(days);
+        for (StudyTotalsDTO.DayActivity day : studied) {
+            set(day.day(), true, day.minutes());
+            cleared.remove(day.day());
+        }
+        // Dias pedidos que não voltaram da consulta ficaram sem nenhuma sessão
+        for (LocalDate day : cleared) {
+            set(day, false, 0);
+        }
+        return true;
+    }
+
+    // Dia sem sessão (ex.: todas excluídas) desliga o bit e descarta os minutos
+    synchronized void set(LocalDate day, boolean studied, long dayMinutes) {
+        long word = Math.floorDiv(day.toEpochDay(), 64);
+        int bit = (int) Math.floorMod(day.toEpochDay(), 64);
+
+        if (!studied) {
+            if (word < firstWord || word >= firstWord + words.length) return;
+            int i = (int) (word - firstWord);
+            words[i] &= ~(1L << bit);
+            if (words[i] == 0) {
+                minutes[i] = null;
+            } else if (minutes[i] != null) {
+                minutes[i][bit] = 0;
+            }
+            return;
+        }
+
+        int i = ensureWord(word);
+        words[i] |= 1L << bit;
+        if (minutes[i] == null) minutes[i] = new int[64];
+        minutes[i][bit] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, dayMinutes));
+    }
+
+    synchronized boolean studied(LocalDate day) {
+        long word = Math.floorDiv(day.toEpochDay(), 64);
+        if (word < firstWord || word >= firstWord + words.length) return false;
+        return (words[(int) (word - firstWord)] & (1L << Math.floorMod(day.toEpochDay(), 64))) != 0;
+    }
+
+    synchronized StudyHeatmapDTO heatmap(LocalDate end, int days) {
+        LocalDate start = end.minusDays(days - 1L);
+        long first = start.toEpochDay();
+        long last = end.toEpochDay();
+
+        int[] dayMinutes = new int[days];
+        int studiedDays = 0;
+        long totalMinutes = 0;
+
+        long lastWord = Math.floorDiv(last, 64);
+        for (long word = Math.max(Math.floorDiv(first, 64), firstWord);
+             word <= lastWord && word < firstWord + words.length; word++) {
+            int i = (int) (word - firstWord);
+            int lo = word == Math.floorDiv(first, 64) ? (int) Math.floorMod(first, 64) : 0;
+            int hi = word == lastWord ? (int) Math.floorMod(last, 64) : 63;
+            long bits = words[i] & (-1L << lo) & (-1L >>> (63 - hi));
+
+            studiedDays += Long.bitCount(bits);
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                int m = minutes[i][bit];
+                dayMinutes[(int) (word * 64 + bit - first)] = m;
+                totalMinutes += m;
+                bits &= bits - 1;
+            }
+        }
+
+        return new StudyHeatmapDTO(start, end, dayMinutes, studiedDays, totalMinutes,
+            currentStreak(end), longestStreak());
+    }
+
+    // Quem ainda não estudou hoje mantém a sequência que terminou ontem
+    synchronized int currentStreak(LocalDate today) {
+        return runEndingAt(studied(today) ? today : today.minusDays(1));
+    }
+
+    synchronized int longestStreak() {
+        int best = 0;
+        int run = 0;
+        for (long word : words) {
+            if (word == -1L) {
+                run += 64;
+                continue;
+            }
+            // Bits baixos continuam a sequência da palavra anterior; os altos abrem a próxima
+            run += Long.numberOfTrailingZeros(~word);
+            best = Math.max(best, Math.max(run, longestRunIn(word)));
+            run = Long.numberOfLeadingZeros(~word);
+        }
+        return Math.max(best, run);
+    }
+
+    // Quantos dias seguidos, terminando em day (inclusive), têm o bit ligado
+    private int runEndingAt(LocalDate day) {
+        long word = Math.floorDiv(day.toEpochDay(), 64);
+        int bit = (int) Math.floorMod(day.toEpochDay(), 64);
+        if (word < firstWord || word >= firstWord + words.length) return 0;
+
+        int i = (int) (word - firstWord);
+        int run = Long.numberOfLeadingZeros(~(words[i] << (63 - bit)));
+        if (run <= bit) return run;
+
+        for (i--; i >= 0 && words[i] == -1L; i--) run += 64;
+        if (i >= 0) run += Long.numberOfLeadingZeros(~words[i]);
+        return run;
+    }
+
+    // Cada passo encurta todas as sequências de bits em 1: o número de passos é a maior delas
+    private static int longestRunIn(long word) {
+        int length = 0;
+        while (word != 0) {
+            word &= word >>> 1;
+            length++;
+        }
+        return length;
+    }
+
+    private int ensureWord(long word) {
+        if (words.length == 0) {
+            firstWord = word;
+            words = new long[1];
+            minutes = new int[1][];
+            return 0;
+        }
+        long lastWord = firstWord + words.length - 1;
+        if (word < firstWord) {
+            resize(word, lastWord);
+        } else if (word > lastWord) {
+            resize(firstWord, word);
+        }
+        return (int) (word - firstWord);
+    }
+
+    private void resize(long newFirst, long newLast) {
+        int length = Math.toIntExact(newLast - newFirst + 1);
+        int offset = (int) (firstWord - newFirst);
+        long[] newWords = new long[length];
+        int[][] newMinutes = new int[length][];
+        System.arraycopy(words, 0, newWords, offset, words.length);
+        System.arraycopy(minutes, 0, newMinutes, offset, minutes.length);
+        firstWord = newFirst;
+        words = newWords;
+        minutes = newMinutes;
+    }
+}
@@ -0,0 +1,106 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.dto.StudyHeatmapDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.event.StudyDaysChangedEvent;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Mapa de calor e streaks a partir do calendário de estudo em memória. Na primeira leitura o calendário
+// é montado com os totais diários do study_rollup (nunca de study_sessions); depois de cada commit que
+// mexe em sessões só os dias alterados são relidos.
+@Service
+public class StudyCalendarService {
+
+    public static final String STUDY_CALENDARS = "studyCalendars";
+    public static final int MAX_HEATMAP_DAYS = 366;
+    private static final int VERSION_STRIPES = 64;
+
+    private final StudyRollupRepository studyRollupRepository;
+    private final Cache<Long, StudyCalendar> calendars;
+    // Contador de alterações por faixa de usuários, incrementado antes de cada releitura. Quem leu o banco
+    // compara com o valor de antes da leitura para saber se uma alteração pode ter passado no meio
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public StudyCalendarService(StudyRollupRepository studyRollupRepository, MeterRegistry meterRegistry,
+                                @Value("${studyplanner.calendar.cache.max-size:10000}") long maxSize,
+                                @Value("${studyplanner.calendar.cache.ttl:1h}") Duration ttl) {
+        this.studyRollupRepository = studyRollupRepository;
+        // O TTL só cobre mudanças feitas por outras instâncias ou fora da aplicação
+        this.calendars = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, calendars, STUDY_CALENDARS);
+    }
+
+    public StudyHeatmapDTO getHeatmap(Long userId, int days) {
+        if (days < 1 || days > MAX_HEATMAP_DAYS) {
+            throw new IllegalArgumentException("O período do mapa de calor deve ter entre 1 e " + MAX_HEATMAP_DAYS + " dias.");
+        }
+        return calendarOf(userId).heatmap(CacheConfig.today(), days);
+    }
+
+    // Valores absolutos relidos do banco (e não deltas): reaplicar o mesmo evento não altera nada. A consulta roda
+    // fora do cache e de qualquer lock (uma virtual thread esperando conexão dentro do compute do mapa prenderia a
+    // thread carregadora); só a aplicação dos dias é feita sob o lock do próprio calendário.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudyDaysChanged(StudyDaysChangedEvent event) {
+        if (event.days().isEmpty()) return;
+        Long userId = event.userId();
+        // Antes de olhar o cache: uma carga que já começou percebe a alteração e não guarda o que leu
+        long version = versions.incrementAndGet(stripe(userId));
+        if (calendars.getIfPresent(userId) == null) return;
+
+        List<StudyTotalsDTO.DayActivity> studied = studyRollupRepository.findStudiedDays(userId,
+            Collections.min(event.days()), Collections.max(event.days()));
+        StudyCalendar calendar = calendars.getIfPresent(userId);
+        if (calendar != null && !calendar.apply(version, event.days(), studied)) {
+            // Duas alterações aplicadas fora de ordem: a próxima leitura remonta o calendário
+            calendars.asMap().remove(userId, calendar);
+        }
+    }
+
+    private StudyCalendar calendarOf(Long userId) {
+        StudyCalendar cached = calendars.getIfPresent(userId);
+        if (cached != null) return cached;
+
+        int stripe = stripe(userId);
+        long version = versions.get(stripe);
+        StudyCalendar loaded = load(userId, version);
+        StudyCalendar existing = calendars.asMap().putIfAbsent(userId, loaded);
+        if (existing != null) return existing;
+        // Alteração durante a leitura: o evento pode ter procurado o calendário antes de ele entrar no cache
+        if (versions.get(stripe) != version) {
+            calendars.asMap().remove(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private StudyCalendar load(Long userId, long version) {
+        StudyCalendar calendar = new StudyCalendar(version);
+        for (StudyTotalsDTO.DayActivity day : studyRollupRepository.findStudiedDays(userId)) {
+            calendar.set(day.day(), true, day.minutes());
+        }
+        return calendar;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (VERSION_STRIPES - 1);
+    }
+}
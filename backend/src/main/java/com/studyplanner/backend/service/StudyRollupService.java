@@ -0,0 +1,320 @@
+package com.studyplanner.backend.service;
+
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.event.StudyDaysChangedEvent;
+import com.studyplanner.backend.model.StudyRollup;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+import com.studyplanner.backend.repository.StudySessionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class StudyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudyRollupService.class);
+
+    private static final String ADD_DELTA = """
+        UPDATE study_rollup SET minutes = minutes + ?, total_questions = total_questions + ?,
+            correct_questions = correct_questions + ?, completed_count = completed_count + ?,
+            session_count = session_count + ?
+        WHERE user_id = ? AND subject_id = ? AND matter = ? AND study_day = ?
+        """;
+    private static final String INSERT_ROW = """
+        INSERT INTO study_rollup (user_id, subject_id, matter, study_day, minutes, total_questions,
+            correct_questions, completed_count, session_count)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    // unique_violation no PostgreSQL e no H2
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final StudyRollupRepository studyRollupRepository;
+    private final StudySessionRepository studySessionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StudyRollupService(StudyRollupRepository studyRollupRepository, StudySessionRepository studySessionRepository,
+                              JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.studyRollupRepository = studyRollupRepository;
+        this.studySessionRepository = studySessionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Foto dos campos da sessão que entram no rollup (tirada antes de alterar a entidade)
+    public record Contribution(
+        Long userId,
+        Long subjectId,
+        LocalDate day,
+        List<String> matters,
+        long minutes,
+        long totalQuestions,
+        long correctQuestions,
+        boolean completed) {
+
+        public static Contribution of(StudySession session) {
+            return new Contribution(
+                session.getUser() != null ? session.getUser().getId() : null,
+                session.getSubject() != null ? session.getSubject().getId() : null,
+                session.getDate() != null ? session.getDate().toLocalDate() : null,
+                session.getMatters() != null ? session.getMatters().stream().filter(Objects::nonNull).toList() : List.of(),
+                session.getDurationMinutes(),
+                session.getTotalQuestions() != null ? session.getTotalQuestions() : 0,
+                session.getCorrectQuestions() != null ? session.getCorrectQuestions() : 0,
+                session.isCompleted()
+            );
+        }
+    }
+
+    public record Key(Long userId, Long subjectId, String matter, LocalDate day) {}
+
+    public record Drift(Key key, StudyTotalsDTO.RollupTotals expected, StudyTotalsDTO.RollupTotals actual) {}
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Contribution contribution) {
+        apply(contribution, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Contribution contribution) {
+        apply(contribution, -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Contribution before, Contribution after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    // Importação em lote: soma as contribuições por chave em memória e grava cada chave uma vez,
+    // com um UPDATE em batch e um INSERT em batch para as chaves que ainda não existiam
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(List<Contribution> contributions) {
+        Map<Key, long[]> deltas = new LinkedHashMap<>();
+        Map<Long, Set<LocalDate>> days = new HashMap<>();
+        for (Contribution c : contributions) {
+            if (c.userId() == null || c.day() == null) continue;
+            if (c.subjectId() == null) {
+                // subject_id nulo não casa com "=" no UPDATE em batch; caso raro, segue pelo caminho normal
+                add(c);
+                continue;
+            }
+            days.computeIfAbsent(c.userId(), id -> new HashSet<>()).add(c.day());
+            accumulate(deltas, new Key(c.userId(), c.subjectId(), StudyRollup.SESSION_TOTAL, c.day()), c);
+            for (String matter : c.matters()) {
+                if (!matter.isEmpty()) {
+                    accumulate(deltas, new Key(c.userId(), c.subjectId(), matter, c.day()), c);
+                }
+            }
+        }
+        if (deltas.isEmpty()) return;
+
+        List<Map.Entry<Key, long[]>> rows = new ArrayList<>(deltas.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(ADD_DELTA, rows.stream().map(StudyRollupService::deltaParams).toList());
+
+        List<Map.Entry<Key, long[]>> missing = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty() && !insertIfAbsent(missing.stream().map(StudyRollupService::insertParams).toList())) {
+            // Outra transação criou alguma das chaves no meio do caminho: refaz uma a uma
+            for (Map.Entry<Key, long[]> row : missing) {
+                if (!insertIfAbsent(List.<Object[]>of(insertParams(row)))) {
+                    jdbcTemplate.update(ADD_DELTA, deltaParams(row));
+                }
+            }
+        }
+        days.forEach((userId, changed) -> eventPublisher.publishEvent(new StudyDaysChangedEvent(userId, changed)));
+    }
+
+    private static Object[] deltaParams(Map.Entry<Key, long[]> row) {
+        Key key = row.getKey();
+        long[] d = row.getValue();
+        return new Object[] { d[0], d[1], d[2], d[3], d[4], key.userId(), key.subjectId(), key.matter(), key.day() };
+    }
+
+    private static Object[] insertParams(Map.Entry<Key, long[]> row) {
+        Key key = row.getKey();
+        long[] d = row.getValue();
+        return new Object[] { key.userId(), key.subjectId(), key.matter(), key.day(), d[0], d[1], d[2], d[3], d[4] };
+    }
+
+    // INSERT das chaves que o UPDATE não achou. Duas sessões salvas ao mesmo tempo para uma chave nova passam
+    // ambas pelo UPDATE sem achar linha; a segunda a inserir esbarra em uk_study_rollup_key. O savepoint desfaz
+    // só o INSERT (no PostgreSQL o erro abortaria a transação inteira) e devolve false para o chamador refazer
+    // o UPDATE, que agora encontra a linha já commitada pela outra transação
+    private boolean insertIfAbsent(List<Object[]> rows) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ROW)) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            } catch (SQLException e) {
+                if (!isUniqueViolation(e)) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+            connection.releaseSavepoint(savepoint);
+            return true;
+        }));
+    }
+
+    private static boolean isUniqueViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t instanceof SQLException sql && sql.getNextException() != null ? sql.getNextException() : t.getCause()) {
+            if (t instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void accumulate(Map<Key, long[]> deltas, Key key, Contribution c) {
+        long[] d = deltas.computeIfAbsent(key, k -> new long[5]);
+        d[0] += c.minutes();
+        d[1] += c.totalQuestions();
+        d[2] += c.correctQuestions();
+        d[3] += c.completed() ? 1 : 0;
+        d[4] += 1;
+    }
+
+    private void apply(Contribution c, int sign) {
+        if (c.userId() == null || c.day() == null) return;
+
+        applyRow(c, StudyRollup.SESSION_TOTAL, sign);
+        for (String matter : c.matters()) {
+            if (!matter.isEmpty()) {
+                applyRow(c, matter, sign);
+            }
+        }
+        eventPublisher.publishEvent(new StudyDaysChangedEvent(c.userId(), Set.of(c.day())));
+    }
+
+    private void applyRow(Contribution c, String matter, int sign) {
+        long minutes = sign * c.minutes();
+        long totalQuestions = sign * c.totalQuestions();
+        long correctQuestions = sign * c.correctQuestions();
+        long completed = c.completed() ? sign : 0;
+
+        int updated = studyRollupRepository.addDelta(c.userId(), c.subjectId(), matter, c.day(),
+                minutes, totalQuestions, correctQuestions, completed, sign);
+
+        if (updated == 0) {
+            if (sign < 0) {
+                log.warn("Rollup sem linha para remover: user={} subject={} matter='{}' day={}", c.userId(), c.subjectId(), matter, c.day());
+                return;
+            }
+            Object[] row = { c.userId(), c.subjectId(), matter, c.day(), minutes, totalQuestions, correctQuestions, completed, 1L };
+            if (!insertIfAbsent(List.<Object[]>of(row))) {
+                studyRollupRepository.addDelta(c.userId(), c.subjectId(), matter, c.day(),
+                        minutes, totalQuestions, correctQuestions, completed, sign);
+            }
+        }
+    }
+
+    // Recalcula o rollup inteiro a partir de study_sessions
+    @Transactional
+    public int rebuild() {
+        Map<Key, StudyTotalsDTO.RollupTotals> expected = computeExpected();
+
+        studyRollupRepository.deleteAllInBatch();
+
+        List<StudyRollup> rows = new ArrayList<>(expected.size());
+        for (StudyTotalsDTO.RollupTotals totals : expected.values()) {
+            StudyRollup row = new StudyRollup(totals.userId(), totals.subjectId(), totals.matter(), totals.day());
+            row.setMinutes(totals.minutes());
+            row.setTotalQuestions(totals.totalQuestions());
+            row.setCorrectQuestions(totals.correctQuestions());
+            row.setCompletedCount(totals.completedCount());
+            row.setSessionCount(totals.sessionCount());
+            rows.add(row);
+        }
+        studyRollupRepository.saveAll(rows);
+
+        log.info("Rollup reconstruído: {} linhas", rows.size());
+        return rows.size();
+    }
+
+    // Primeira subida com a tabela nova: monta o rollup para quem já tinha sessões
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (studyRollupRepository.count() == 0 && studySessionRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    // Compara o rollup atual com o recalculado e devolve as chaves divergentes
+    @Transactional(readOnly = true)
+    public List<Drift> verify() {
+        Map<Key, StudyTotalsDTO.RollupTotals> expected = computeExpected();
+
+        Map<Key, StudyTotalsDTO.RollupTotals> actual = new HashMap<>();
+        // Linhas zeradas (todas as sessões do dia removidas) equivalem a linhas ausentes
+        for (StudyTotalsDTO.RollupTotals totals : studyRollupRepository.findAllNonEmpty()) {
+            actual.put(keyOf(totals), totals);
+        }
+
+        Set<Key> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        List<Drift> drifts = new ArrayList<>();
+        for (Key key : keys) {
+            StudyTotalsDTO.RollupTotals e = expected.get(key);
+            StudyTotalsDTO.RollupTotals a = actual.get(key);
+            if (!Objects.equals(e, a)) {
+                drifts.add(new Drift(key, e, a));
+            }
+        }
+
+        if (drifts.isEmpty()) {
+            log.info("Rollup verificado: nenhuma divergência em {} linhas", expected.size());
+        } else {
+            log.warn("Rollup verificado: {} divergências encontradas", drifts.size());
+            drifts.forEach(d -> log.warn("Divergência em {}: esperado={} atual={}", d.key(), d.expected(), d.actual()));
+        }
+        return drifts;
+    }
+
+    private Map<Key, StudyTotalsDTO.RollupTotals> computeExpected() {
+        Map<Key, StudyTotalsDTO.RollupTotals> expected = new HashMap<>();
+        for (StudyTotalsDTO.RollupTotals totals : studySessionRepository.computeSessionRollup()) {
+            expected.put(keyOf(totals), totals);
+        }
+        for (StudyTotalsDTO.RollupTotals totals : studySessionRepository.computeMatterRollup()) {
+            expected.put(keyOf(totals), totals);
+        }
+        return expected;
+    }
+
+    private static Key keyOf(StudyTotalsDTO.RollupTotals totals) {
+        return new Key(totals.userId(), totals.subjectId(), totals.matter(), totals.day());
+    }
+}
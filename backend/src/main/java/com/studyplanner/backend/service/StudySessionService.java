@@ -1,96 +1,349 @@
 package com.studyplanner.backend.service;
 
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.dto.MatterRowDTO;
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.dto.SessionPageDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
 import com.studyplanner.backend.model.StudySession;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.StudySessionRepository;
-import com.studyplanner.backend.repository.SubjectRepository;
 import com.studyplanner.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class StudySessionService {
 
+    private static final int MATTERS_BATCH_SIZE = 500;
+
+    // INSERT ... SELECT: a linha só é gravada se a matéria existir e for do usuário (0 linhas = recusada)
+    private static final String INSERT_OWNED_SESSION = """
+        INSERT INTO study_sessions (id, title, description, date, duration_minutes, completed,
+            total_questions, correct_questions, user_id, subject_id)
+        SELECT ?, ?, ?, ?, ?, ?, ?, ?, s.user_id, s.id FROM subjects s WHERE s.id = ? AND s.user_id = ?
+        """;
+    private static final String INSERT_MATTER = "INSERT INTO session_matters (session_id, matter) VALUES (?, ?)";
+
+    // UPDATE com a posse no WHERE: sessão do usuário e, se vier matéria nova, matéria do mesmo usuário (0 linhas =
+    // recusada). Devolve os valores anteriores que o rollup precisa: no PostgreSQL pela subconsulta travada no FROM,
+    // no H2 pela OLD TABLE. Parâmetros: 7 campos, matéria, id, usuário, matéria, matéria
+    private static final String UPDATE_OWNED_SESSION = """
+        UPDATE study_sessions t SET title = ?, description = ?, date = ?, duration_minutes = ?, completed = ?,
+            total_questions = ?, correct_questions = ?, subject_id = COALESCE(?, t.subject_id)
+        FROM (SELECT id, date, duration_minutes, completed, total_questions, correct_questions, subject_id
+              FROM study_sessions WHERE id = ? AND user_id = ? FOR UPDATE) prev
+        WHERE t.id = prev.id
+          AND (CAST(? AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM subjects s WHERE s.id = ? AND s.user_id = t.user_id))
+        RETURNING prev.date, prev.duration_minutes, prev.completed, prev.total_questions, prev.correct_questions,
+            prev.subject_id
+        """;
+    private static final String UPDATE_OWNED_SESSION_OLD_TABLE = """
+        SELECT date, duration_minutes, completed, total_questions, correct_questions, subject_id FROM OLD TABLE (
+            UPDATE study_sessions t SET title = ?, description = ?, date = ?, duration_minutes = ?, completed = ?,
+                total_questions = ?, correct_questions = ?, subject_id = COALESCE(?, t.subject_id)
+            WHERE t.id = ? AND t.user_id = ?
+              AND (CAST(? AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM subjects s WHERE s.id = ? AND s.user_id = t.user_id)))
+        """;
+    private static final String DELETE_MATTERS = "DELETE FROM session_matters WHERE session_id = ? RETURNING matter";
+    private static final String DELETE_MATTERS_OLD_TABLE = "SELECT matter FROM OLD TABLE (DELETE FROM session_matters WHERE session_id = ?)";
+    // DELETE com a posse no WHERE: os assuntos só saem se a sessão for do usuário, e a sessão devolve os valores que
+    // o rollup precisa descontar. Parâmetros: id, usuário (nos dois)
+    private static final String DELETE_OWNED_MATTERS = """
+        DELETE FROM session_matters
+        WHERE session_id IN (SELECT id FROM study_sessions WHERE id = ? AND user_id = ? FOR UPDATE)
+        RETURNING matter
+        """;
+    private static final String DELETE_OWNED_MATTERS_OLD_TABLE = """
+        SELECT matter FROM OLD TABLE (
+            DELETE FROM session_matters WHERE session_id IN (SELECT id FROM study_sessions WHERE id = ? AND user_id = ?))
+        """;
+    private static final String DELETE_OWNED_SESSION = """
+        DELETE FROM study_sessions WHERE id = ? AND user_id = ?
+        RETURNING date, duration_minutes, completed, total_questions, correct_questions, subject_id
+        """;
+    private static final String DELETE_OWNED_SESSION_OLD_TABLE = """
+        SELECT date, duration_minutes, completed, total_questions, correct_questions, subject_id FROM OLD TABLE (
+            DELETE FROM study_sessions WHERE id = ? AND user_id = ?)
+        """;
+
     private final StudySessionRepository studySessionRepository;
     private final UserRepository userRepository;
-    private final SubjectRepository subjectRepository;
+    private final StudyRollupService studyRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIds entityIds;
+    private final String updateOwnedSession;
+    private final String deleteMatters;
+    private final String deleteOwnedMatters;
+    private final String deleteOwnedSession;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${studyplanner.sessions.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${studyplanner.sessions.max-page-size:200}")
+    private int maxPageSize;
 
     public StudySessionService(StudySessionRepository studySessionRepository, 
                                UserRepository userRepository, 
-                               SubjectRepository subjectRepository) {
+                               StudyRollupService studyRollupService,
+                               ApplicationEventPublisher eventPublisher,
+                               JdbcTemplate jdbcTemplate,
+                               EntityIds entityIds,
+                               ReturningSql returningSql,
+                               PlatformTransactionManager transactionManager) {
         this.studySessionRepository = studySessionRepository;
         this.userRepository = userRepository;
-        this.subjectRepository = subjectRepository;
+        this.studyRollupService = studyRollupService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityIds = entityIds;
+        this.updateOwnedSession = returningSql.choose(UPDATE_OWNED_SESSION, UPDATE_OWNED_SESSION_OLD_TABLE);
+        this.deleteMatters = returningSql.choose(DELETE_MATTERS, DELETE_MATTERS_OLD_TABLE);
+        this.deleteOwnedMatters = returningSql.choose(DELETE_OWNED_MATTERS, DELETE_OWNED_MATTERS_OLD_TABLE);
+        this.deleteOwnedSession = returningSql.choose(DELETE_OWNED_SESSION, DELETE_OWNED_SESSION_OLD_TABLE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionDTO> findAllByUserId(Long userId) {
+        return withMatters(studySessionRepository.findSummariesByUserId(userId));
     }
 
-    public List<StudySession> findAllByUserId(Long userId) {
-        return studySessionRepository.findByUserIdOrderByDateDesc(userId);
+    @Transactional(readOnly = true)
+    public SessionPageDTO<SessionDTO> findPage(Long userId, String cursor, Integer size) {
+        int pageSize = (size == null) ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // Busca um item a mais só para saber se existe próxima página
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<SessionDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = studySessionRepository.findFirstPage(userId, limit);
+        } else {
+            SessionPageDTO.Cursor after = SessionPageDTO.Cursor.decode(cursor);
+            rows = studySessionRepository.findPageAfter(userId, after.date(), after.id(), limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new SessionPageDTO<>(withMatters(rows), null);
+        }
+
+        List<SessionDTO> items = withMatters(rows.subList(0, pageSize));
+        SessionDTO last = items.get(items.size() - 1);
+        return new SessionPageDTO<>(items, new SessionPageDTO.Cursor(last.date(), last.id()).encode());
     }
 
-    public List<StudySession> findRecentSessions(Long userId) {
-        LocalDateTime sevenDaysAgo = LocalDate.now().minusDays(7).atStartOfDay();
-        return studySessionRepository.findRecentSessions(userId, sevenDaysAgo);
+    // Percorre todo o histórico por keyset, em blocos de MATTERS_BATCH_SIZE. Cada bloco (sessões + assuntos) é lido
+    // numa transação curta e só é entregue depois do commit: nenhuma conexão fica presa enquanto o cliente consome.
+    public void forEachSession(Long userId, Consumer<SessionDTO> consumer) {
+        Limit limit = Limit.of(MATTERS_BATCH_SIZE);
+        SessionDTO last = null;
+        List<SessionDTO> chunk;
+        do {
+            SessionDTO after = last;
+            chunk = readOnlyTransaction.execute(status -> withMatters(after == null
+                ? studySessionRepository.findFirstPage(userId, limit)
+                : studySessionRepository.findPageAfter(userId, after.date(), after.id(), limit)));
+            chunk.forEach(consumer);
+            if (!chunk.isEmpty()) last = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == MATTERS_BATCH_SIZE);
     }
 
-    public List<StudySession> findSessionsByRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return studySessionRepository.findSessionsByDateRange(userId, startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<SessionDTO> findRecentSessions(Long userId) {
+        LocalDateTime sevenDaysAgo = CacheConfig.today().minusDays(7).atStartOfDay();
+        return withMatters(studySessionRepository.findRecentSummaries(userId, sevenDaysAgo));
     }
-    
+
+    @Transactional(readOnly = true)
+    public List<SessionDTO> findSessionsByRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        return withMatters(studySessionRepository.findSummariesByDateRange(userId, startDate, endDate));
+    }
+
+    // Completa as projeções com os assuntos, uma consulta IN a cada MATTERS_BATCH_SIZE sessões
+    private List<SessionDTO> withMatters(List<SessionDTO> sessions) {
+        if (sessions.isEmpty()) return List.of();
+
+        List<SessionDTO> result = new ArrayList<>(sessions.size());
+        for (int from = 0; from < sessions.size(); from += MATTERS_BATCH_SIZE) {
+            List<SessionDTO> batch = sessions.subList(from, Math.min(from + MATTERS_BATCH_SIZE, sessions.size()));
+            Map<Long, List<String>> matters = MatterRowDTO.groupByOwner(
+                studySessionRepository.findMattersBySessionIds(batch.stream().map(SessionDTO::id).toList()));
+            for (SessionDTO session : batch) {
+                result.add(session.withMatters(matters.get(session.id())));
+            }
+        }
+        return result;
+    }
+
+    // Sem SELECT antes de gravar: o id vem do pooled optimizer e a posse da matéria é conferida pelo próprio INSERT
+    @Transactional
     public StudySession createSession(StudySession session) {
-        if (session.getUser() == null) {
+        if (session.getUser() == null || session.getUser().getId() == null) {
             throw new IllegalArgumentException("Usuário é obrigatório.");
         }
 
         if (session.getDate() != null){
-            if (session.getDate().toLocalDate().isAfter(LocalDate.now())){
+            if (session.getDate().toLocalDate().isAfter(CacheConfig.today())){
                 throw new IllegalArgumentException("Não é possível registrar sessões em datas futuras.");
             }
         }
 
-        User user = userRepository.findById(session.getUser().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado."));
+        if (session.getSubject() == null || session.getSubject().getId() == null) {
+            throw new IllegalArgumentException("Matéria é obrigatória.");
+        }
 
-        session.setUser(user);
+        Long userId = session.getUser().getId();
+        Long subjectId = session.getSubject().getId();
+        Long id = entityIds.next(StudySession.class);
 
-        if (session.getSubject() != null && session.getSubject().getId() != null) {
-            Optional<Subject> subject = subjectRepository.findById(session.getSubject().getId());
-            subject.ifPresent(session::setSubject);
+        int inserted = jdbcTemplate.update(INSERT_OWNED_SESSION, ps -> {
+            ps.setLong(1, id);
+            setSessionFields(ps, 2, session);
+            ps.setLong(9, subjectId);
+            ps.setLong(10, userId);
+        });
+        if (inserted == 0) {
+            throw new IllegalArgumentException("Matéria não encontrada.");
         }
 
-        return studySessionRepository.save(session);
+        List<String> matters = session.getMatters() != null ? session.getMatters() : List.of();
+        if (!matters.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MATTER, matters.stream().map(matter -> new Object[] { id, matter }).toList());
+        }
+
+        session.setId(id);
+        session.setUser(userRepository.getReferenceById(userId));
+        // A resposta leva só o id da matéria: buscar nome e cor seria mais uma consulta por escrita
+        session.setSubject(subjectReference(subjectId));
+
+        studyRollupService.add(StudyRollupService.Contribution.of(session));
+        publishChange(userId);
+        return session;
     }
 
+    // Um UPDATE que confere a posse e devolve os valores antigos para o rollup, sem ler a sessão antes.
+    // Sessão de outro usuário (ou inexistente) = não encontrada; matéria de outro usuário = recusada
+    @Transactional
     public Optional<StudySession> updateSession(Long id, StudySession sessionDetails){
-        return studySessionRepository.findById(id).map(existingSession -> {
-            existingSession.setTitle(sessionDetails.getTitle());
-            existingSession.setDescription(sessionDetails.getDescription());
-            existingSession.setDurationMinutes(sessionDetails.getDurationMinutes());
-            existingSession.setDate(sessionDetails.getDate());
-            existingSession.setCompleted(sessionDetails.isCompleted());
-            existingSession.setMatters(sessionDetails.getMatters());
-            
-            existingSession.setTotalQuestions(sessionDetails.getTotalQuestions());
-            existingSession.setCorrectQuestions(sessionDetails.getCorrectQuestions());
-            // --------------------------------------------------
-
-            if (sessionDetails.getSubject() != null && sessionDetails.getSubject().getId() != null) {
-                existingSession.setSubject(sessionDetails.getSubject());
+        if (sessionDetails.getUser() == null || sessionDetails.getUser().getId() == null) {
+            throw new IllegalArgumentException("Usuário é obrigatório.");
+        }
+        Long userId = sessionDetails.getUser().getId();
+        Long subjectId = sessionDetails.getSubject() != null ? sessionDetails.getSubject().getId() : null;
+
+        List<StudySession> previous = jdbcTemplate.query(updateOwnedSession, ps -> {
+            int next = setSessionFields(ps, 1, sessionDetails);
+            ps.setObject(next++, subjectId, Types.BIGINT);
+            ps.setLong(next++, id);
+            ps.setLong(next++, userId);
+            ps.setObject(next++, subjectId, Types.BIGINT);
+            ps.setObject(next, subjectId, Types.BIGINT);
+        }, (rs, rowNum) -> rollupValues(rs, sessionDetails.getUser()));
+        if (previous.isEmpty()) {
+            // Só no caminho de erro: distingue matéria alheia (400) de sessão não encontrada (404)
+            if (subjectId != null && studySessionRepository.existsByIdAndUser_Id(id, userId)) {
+                throw new IllegalArgumentException("Matéria não encontrada.");
             }
+            return Optional.empty();
+        }
+        StudySession before = previous.get(0);
+        before.setMatters(jdbcTemplate.queryForList(deleteMatters, String.class, id));
 
-            return studySessionRepository.save(existingSession);
-        });
+        List<String> matters = sessionDetails.getMatters() != null ? sessionDetails.getMatters() : List.of();
+        if (!matters.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MATTER, matters.stream().map(matter -> new Object[] { id, matter }).toList());
+        }
+
+        StudySession updated = new StudySession(id, sessionDetails.getTitle(), sessionDetails.getDescription(),
+            sessionDetails.getDate(), sessionDetails.getDurationMinutes(), sessionDetails.isCompleted(),
+            userRepository.getReferenceById(userId),
+            subjectId != null ? subjectReference(subjectId) : before.getSubject(),
+            new ArrayList<>(matters));
+        updated.setTotalQuestions(sessionDetails.getTotalQuestions());
+        updated.setCorrectQuestions(sessionDetails.getCorrectQuestions());
+
+        studyRollupService.replace(StudyRollupService.Contribution.of(before), StudyRollupService.Contribution.of(updated));
+        publishChange(userId);
+        return Optional.of(updated);
     }
 
-    public void deleteSession(Long id) {
-        if (studySessionRepository.existsById(id)) {
-            studySessionRepository.deleteById(id);
-        } else {
+    // Como no UPDATE: sessão de outro usuário (ou inexistente) = não encontrada, sem carregar a entidade antes
+    @Transactional
+    public void deleteSession(Long id, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("Sessão não encontrada.");
+        }
+        User owner = userRepository.getReferenceById(userId);
+        List<String> matters = jdbcTemplate.queryForList(deleteOwnedMatters, String.class, id, userId);
+        List<StudySession> deleted = jdbcTemplate.query(deleteOwnedSession, (rs, rowNum) -> rollupValues(rs, owner), id, userId);
+        if (deleted.isEmpty()) {
             throw new IllegalArgumentException("Sessão não encontrada.");
         }
+        StudySession session = deleted.get(0);
+        session.setMatters(matters);
+
+        studyRollupService.remove(StudyRollupService.Contribution.of(session));
+        publishChange(userId);
+    }
+
+    // Valores devolvidos pelo UPDATE/DELETE que o rollup precisa (sem os assuntos, que vêm à parte)
+    private static StudySession rollupValues(ResultSet rs, User user) throws SQLException {
+        StudySession session = new StudySession();
+        session.setUser(user);
+        Timestamp date = rs.getTimestamp("date");
+        session.setDate(date != null ? date.toLocalDateTime() : null);
+        session.setDurationMinutes(rs.getInt("duration_minutes"));
+        session.setCompleted(rs.getBoolean("completed"));
+        session.setTotalQuestions(rs.getObject("total_questions", Integer.class));
+        session.setCorrectQuestions(rs.getObject("correct_questions", Integer.class));
+        session.setSubject(subjectReference(rs.getObject("subject_id", Long.class)));
+        return session;
+    }
+
+    // Campos da sessão a partir de index, na ordem dos statements acima; devolve o próximo índice livre
+    private static int setSessionFields(PreparedStatement ps, int index, StudySession session) throws SQLException {
+        ps.setString(index++, session.getTitle());
+        ps.setString(index++, session.getDescription());
+        ps.setTimestamp(index++, session.getDate() != null ? Timestamp.valueOf(session.getDate()) : null);
+        ps.setInt(index++, session.getDurationMinutes());
+        ps.setBoolean(index++, session.isCompleted());
+        ps.setObject(index++, session.getTotalQuestions(), Types.INTEGER);
+        ps.setObject(index++, session.getCorrectQuestions(), Types.INTEGER);
+        return index;
+    }
+
+    private static Subject subjectReference(Long subjectId) {
+        if (subjectId == null) return null;
+        Subject subject = new Subject();
+        subject.setId(subjectId);
+        return subject;
+    }
+
+    private void publishChange(Long userId) {
+        if (userId != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId, UserDataChangedEvent.Source.SESSION));
+        }
     }
 }
\ No newline at end of file
@@ -1,10 +1,16 @@
 package com.studyplanner.backend.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.studyplanner.backend.dto.MatterRowDTO;
+import com.studyplanner.backend.dto.SubjectDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.SubjectRepository;
@@ -15,16 +21,26 @@ public class SubjectService {
 
     private final SubjectRepository subjectRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SubjectService(SubjectRepository subjectRepository, UserRepository userRepository) {
+    public SubjectService(SubjectRepository subjectRepository, UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.subjectRepository = subjectRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<Subject> findSubjectsByUserId(Long userId) {
-        return subjectRepository.findByUserId(userId);
+    // Projeção + uma consulta IN para os assuntos: nenhuma entidade é carregada
+    @Transactional(readOnly = true)
+    public List<SubjectDTO> findSubjectsByUserId(Long userId) {
+        List<SubjectDTO> subjects = subjectRepository.findSummariesByUserId(userId);
+        if (subjects.isEmpty()) return subjects;
+
+        Map<Long, List<String>> matters = MatterRowDTO.groupByOwner(
+            subjectRepository.findMattersBySubjectIds(subjects.stream().map(SubjectDTO::id).toList()));
+        return subjects.stream().map(s -> s.withMatters(matters.get(s.id()))).toList();
     }
 
+    @Transactional
     public Subject createSubject(Subject subject) {
         if (subject.getUser() == null || subject.getUser().getId() == null) {
             throw new IllegalArgumentException("ID do usuário é obrigatório.");
@@ -39,9 +55,12 @@ public class SubjectService {
             subject.setMatters(List.of());
         }
 
-        return subjectRepository.save(subject);
+        Subject saved = subjectRepository.save(subject);
+        publishChange(user.getId());
+        return saved;
     }
 
+    @Transactional
     public Optional<Subject> updateSubject(Long id, Subject subjectData) {
         return subjectRepository.findById(id).map(existingSubject -> {
             existingSubject.setName(subjectData.getName());
@@ -51,15 +70,24 @@ public class SubjectService {
                 existingSubject.setMatters(subjectData.getMatters());
             }
             
-            return subjectRepository.save(existingSubject);
+            Subject saved = subjectRepository.save(existingSubject);
+            publishChange(existingSubject.getUser() != null ? existingSubject.getUser().getId() : null);
+            return saved;
         });
     }
 
+    @Transactional
     public void deleteSubject(Long id) {
-        if (subjectRepository.existsById(id)) {
-            subjectRepository.deleteById(id);
-        } else {
-            throw new IllegalArgumentException("Matéria não encontrada para exclusão.");
+        Subject subject = subjectRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Matéria não encontrada para exclusão."));
+
+        subjectRepository.delete(subject);
+        publishChange(subject.getUser() != null ? subject.getUser().getId() : null);
+    }
+
+    private void publishChange(Long userId) {
+        if (userId != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId, UserDataChangedEvent.Source.SUBJECT));
         }
     }
 }
\ No newline at end of file
@@ -1,29 +1,70 @@
 package com.studyplanner.backend.service;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.studyplanner.backend.model.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Optional;
 
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "auth-api";
+    private static final String PASSWORD_VERSION_CLAIM = "pwv";
+
+    // Nome do cache nas métricas (cache.gets{cache="verifiedTokens",result=hit|miss}, cache.size, cache.evictions)
+    public static final String VERIFIED_TOKENS = "verifiedTokens";
+
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: montados uma vez e reaproveitados
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    // hash do token -> subject e versão da senha; cada entrada expira junto com o token
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    // Tokens emitidos antes da claim "pwv" contam como versão 0
+    public record VerifiedToken(String subject, int passwordVersion, Instant expiresAt) {}
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${api.security.token.cache.max-size:10000}") long cacheMaxSize,
+                        MeterRegistry meterRegistry) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).withIssuer(ISSUER).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.creating((String hash, VerifiedToken token) -> timeToLive(token)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, VERIFIED_TOKENS);
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("auth-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
+                    .withClaim(PASSWORD_VERSION_CLAIM, user.getPasswordVersion())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
@@ -32,19 +73,49 @@ public class TokenService {
     }
 
     public String validateToken(String token) {
+        return verify(token).map(VerifiedToken::subject).orElse("");
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+
+        String hash = sha256(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT decoded = verifier.verify(token);
+            Integer passwordVersion = decoded.getClaim(PASSWORD_VERSION_CLAIM).asInt();
+            VerifiedToken verified = new VerifiedToken(decoded.getSubject(), passwordVersion != null ? passwordVersion : 0,
+                    decoded.getExpiresAtAsInstant());
+            // Só tokens válidos e com expiração entram no cache; inválidos sempre passam pela verificação
+            if (verified.expiresAt() != null) {
+                verifiedTokens.put(hash, verified);
+            }
+            return Optional.of(verified);
         } catch (JWTVerificationException exception) {
-            return "";
+            return Optional.empty();
+        }
+    }
+
+    private static Duration timeToLive(VerifiedToken token) {
+        Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    // A chave é o hash, não o token: o cache não guarda credenciais utilizáveis
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
         }
     }
 
     private Instant genExpirationDate() {
         return LocalDateTime.now().plusDays(30).toInstant(ZoneOffset.of("-03:00"));
     }
-}
\ No newline at end of file
+}
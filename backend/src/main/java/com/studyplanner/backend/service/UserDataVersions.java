@@ -0,0 +1,64 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+import com.studyplanner.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Versão dos dados de cada usuário (users.data_version). Toda alteração em sessões, metas ou matérias
+// incrementa a coluna na própria transação; a leitura vem do cache e só consulta o banco depois de uma
+// alteração (ou do TTL, que cobre outras instâncias).
+@Component
+public class UserDataVersions {
+
+    public static final String USER_DATA_VERSIONS = "userDataVersions";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> versions;
+
+    public UserDataVersions(UserRepository userRepository, MeterRegistry meterRegistry,
+                            @Value("${studyplanner.etag.cache.max-size:10000}") long maxSize,
+                            @Value("${studyplanner.etag.cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, USER_DATA_VERSIONS);
+    }
+
+    // Usuário inexistente não fica em cache (o loader devolve null)
+    public Optional<Long> current(Long userId) {
+        return Optional.ofNullable(versions.get(userId, id -> userRepository.findDataVersion(id).orElse(null)));
+    }
+
+    // ETag forte: o dia entra junto porque dashboard, mapa de calor e metas dependem da data atual
+    public Optional<String> etag(Long userId) {
+        return current(userId).map(version -> "\"" + userId + "-" + version + "-" + CacheConfig.today().toEpochDay() + "\"");
+    }
+
+    // Antes do commit, dentro da transação da alteração: versão e dados ficam visíveis juntos
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void bump(UserDataChangedEvent event) {
+        userRepository.bumpDataVersion(event.userId());
+    }
+
+    // Depois do commit: uma carga em andamento termina antes da remoção e a próxima já lê a versão nova
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        versions.invalidate(event.userId());
+    }
+}
@@ -1,19 +1,29 @@
 package com.studyplanner.backend.service;
 
+import com.studyplanner.backend.event.PasswordChangedEvent;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher,
+                       LoginAttemptThrottle loginAttemptThrottle, ApplicationEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.loginAttemptThrottle = loginAttemptThrottle;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public User findById(Long id) {
@@ -21,14 +31,32 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
     }
 
+    // Verificação e hash (fila do PasswordHasher + ~100 ms de BCrypt) antes da transação: nenhuma conexão do
+    // pool fica presa esperando a CPU. A transação só relê o usuário e grava
     public void changePassword(Long userId, String currentPassword, String newPassword) {
         User user = findById(userId);
+        // Mesmo limite do login: a senha atual não pode ser descoberta por tentativa e erro
+        loginAttemptThrottle.check(user.getEmail(), null);
 
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        String verifiedHash = user.getPassword();
+        if (!passwordHasher.matches(currentPassword, verifiedHash)) {
+            loginAttemptThrottle.recordFailure(user.getEmail(), null);
             throw new RuntimeException("A senha atual está incorreta.");
         }
-
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String newHash = passwordHasher.encode(newPassword);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User current = findById(userId);
+            // A senha conferida acima pode ter sido trocada durante o hash
+            if (!verifiedHash.equals(current.getPassword())) {
+                throw new RuntimeException("A senha atual está incorreta.");
+            }
+            current.setPassword(newHash);
+            // Tokens emitidos com a versão anterior deixam de autenticar
+            current.setPasswordVersion(current.getPasswordVersion() + 1);
+            userRepository.save(current);
+
+            eventPublisher.publishEvent(new PasswordChangedEvent(current.getEmail()));
+        });
     }
-}
\ No newline at end of file
+}
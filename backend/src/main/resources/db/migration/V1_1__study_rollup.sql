@@ -0,0 +1,16 @@
+-- Rollup de estatísticas (StudyRollupService). Fica fora da V1: bancos que recebem baseline na versão 1
+-- pulam a V1 e precisam desta tabela antes do índice da V2. O rollup vazio é reconstruído na subida.
+
+CREATE TABLE IF NOT EXISTS study_rollup (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id           BIGINT NOT NULL,
+    subject_id        BIGINT,
+    matter            VARCHAR(255) NOT NULL,
+    study_day         DATE NOT NULL,
+    minutes           BIGINT NOT NULL,
+    total_questions   BIGINT,
+    correct_questions BIGINT,
+    completed_count   BIGINT,
+    session_count     BIGINT,
+    CONSTRAINT uk_study_rollup_key UNIQUE (user_id, subject_id, matter, study_day)
+);
@@ -0,0 +1,56 @@
+-- Esquema inicial, equivalente ao que o ddl-auto=update gerava.
+-- Bancos já existentes recebem baseline na versão 1 (spring.flyway.baseline-on-migrate) e pulam este script;
+-- o IF NOT EXISTS cobre quem aplicar manualmente sobre um banco parcial.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                VARCHAR(255),
+    email               VARCHAR(255) UNIQUE,
+    password            VARCHAR(255),
+    recovery_code       VARCHAR(255),
+    recovery_expiration TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS subjects (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(50)  NOT NULL,
+    color   VARCHAR(255) NOT NULL,
+    user_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS subject_subtopics (
+    subject_id BIGINT NOT NULL REFERENCES subjects (id),
+    name       VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS study_sessions (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title             VARCHAR(100) NOT NULL,
+    description       TEXT,
+    date              TIMESTAMP(6) NOT NULL,
+    duration_minutes  INTEGER NOT NULL CHECK (duration_minutes >= 0 AND duration_minutes <= 1440),
+    completed         BOOLEAN NOT NULL,
+    total_questions   INTEGER,
+    correct_questions INTEGER,
+    user_id           BIGINT REFERENCES users (id),
+    subject_id        BIGINT NOT NULL REFERENCES subjects (id)
+);
+
+CREATE TABLE IF NOT EXISTS session_matters (
+    session_id BIGINT NOT NULL REFERENCES study_sessions (id) ON DELETE CASCADE,
+    matter     VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS goals (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(50)  NOT NULL,
+    goal_type        VARCHAR(255) NOT NULL,
+    start_date       DATE NOT NULL,
+    end_date         DATE,
+    active           BOOLEAN NOT NULL,
+    target_hours     FLOAT(53) CHECK (target_hours <= 1000),
+    target_questions INTEGER,
+    matters          VARCHAR(255),
+    user_id          BIGINT REFERENCES users (id),
+    subject_id       BIGINT REFERENCES subjects (id)
+);
@@ -0,0 +1,16 @@
+-- Índices dos caminhos de acesso do repositório (todas as listagens filtram por usuário).
+
+-- Histórico, recentes, intervalo e paginação por keyset (date DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_study_sessions_user_date ON study_sessions (user_id, date DESC, id DESC);
+-- Progresso por matéria e exclusão de matérias
+CREATE INDEX IF NOT EXISTS idx_study_sessions_user_subject ON study_sessions (user_id, subject_id);
+CREATE INDEX IF NOT EXISTS idx_study_sessions_subject ON study_sessions (subject_id);
+-- Assuntos carregados em lote (session_id IN ...) e filtros por assunto
+CREATE INDEX IF NOT EXISTS idx_session_matters_session_matter ON session_matters (session_id, matter);
+
+CREATE INDEX IF NOT EXISTS idx_subjects_user ON subjects (user_id);
+CREATE INDEX IF NOT EXISTS idx_subject_subtopics_subject ON subject_subtopics (subject_id);
+CREATE INDEX IF NOT EXISTS idx_goals_user_active ON goals (user_id, active);
+
+-- Dashboard e metas por período: linhas de total da sessão (matter = '') em um intervalo de dias
+CREATE INDEX IF NOT EXISTS idx_study_rollup_user_matter_day ON study_rollup (user_id, matter, study_day);
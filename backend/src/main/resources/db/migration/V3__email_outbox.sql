@@ -0,0 +1,18 @@
+-- Fila de e-mails (transactional outbox): gravada junto com a alteração que originou o envio
+-- e drenada pelo EmailOutboxDispatcher.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT NOT NULL,
+    status          VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    attempts        INTEGER NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6),
+    last_error      VARCHAR(500)
+);
+
+-- Busca dos pendentes vencidos (status = 'PENDING' AND next_attempt_at <= agora)
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next ON email_outbox (status, next_attempt_at);
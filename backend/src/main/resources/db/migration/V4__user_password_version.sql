@@ -0,0 +1,2 @@
+-- Versão da senha: entra no JWT e é incrementada a cada troca, invalidando os tokens emitidos antes
+ALTER TABLE users ADD COLUMN IF NOT EXISTS password_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,29 @@
+-- Chaves por sequence com pooled optimizer (allocationSize = 50): o Hibernate reserva 50 ids por nextval
+-- e consegue agrupar os INSERTs em batch, o que IDENTITY impedia.
+-- Os ids existentes não mudam: cada sequence continua depois do maior id da tabela. O pooled optimizer
+-- usa o valor do nextval como o fim do bloco (v-49 .. v), por isso o primeiro valor é MAX(id) + 50.
+-- INSERTs sem id (SQL manual) passam a usar a mesma sequence como DEFAULT, sem colidir com os blocos.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+CREATE SEQUENCE IF NOT EXISTS subjects_seq INCREMENT BY 50;
+SELECT setval('subjects_seq', COALESCE((SELECT MAX(id) FROM subjects), 0) + 50, false);
+ALTER TABLE subjects ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE subjects ALTER COLUMN id SET DEFAULT nextval('subjects_seq');
+ALTER SEQUENCE subjects_seq OWNED BY subjects.id;
+
+CREATE SEQUENCE IF NOT EXISTS study_sessions_seq INCREMENT BY 50;
+SELECT setval('study_sessions_seq', COALESCE((SELECT MAX(id) FROM study_sessions), 0) + 50, false);
+ALTER TABLE study_sessions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE study_sessions ALTER COLUMN id SET DEFAULT nextval('study_sessions_seq');
+ALTER SEQUENCE study_sessions_seq OWNED BY study_sessions.id;
+
+CREATE SEQUENCE IF NOT EXISTS goals_seq INCREMENT BY 50;
+SELECT setval('goals_seq', COALESCE((SELECT MAX(id) FROM goals), 0) + 50, false);
+ALTER TABLE goals ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE goals ALTER COLUMN id SET DEFAULT nextval('goals_seq');
+ALTER SEQUENCE goals_seq OWNED BY goals.id;
@@ -0,0 +1,3 @@
+-- Versão dos dados do usuário (sessões, metas, matérias): incrementada na transação de cada alteração
+-- e usada como ETag nas leituras por usuário
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,123 @@
+package com.studyplanner.backend.config;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void deveRecusarNaHoraQuandoAFilaEstaCheia() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, 0, Duration.ofSeconds(5), Duration.ofSeconds(2), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = occupy(filter, release);
+
+        long start = System.nanoTime();
+        MockHttpServletResponse response = call(filter, (req, res) -> {});
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("Servidor ocupado");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meterRegistry.get("http.admission.rejected").tag("reason", "queue_full").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void deveRecusarQuandoAEsperaPassaDoLimite() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, 10, Duration.ofMillis(50), Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = occupy(filter, release);
+
+        MockHttpServletResponse response = call(filter, (req, res) -> {});
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(meterRegistry.get("http.admission.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void deveExecutarRequisicaoDaFilaQuandoUmaVagaLibera() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, 10, Duration.ofSeconds(5), Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = occupy(filter, release);
+
+        Thread.ofVirtual().start(() -> {
+            sleep(100);
+            release.countDown();
+        });
+        MockHttpServletResponse response = call(filter, (req, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        assertThat(response.getStatus()).isEqualTo(204);
+        holder.join();
+        assertThat(meterRegistry.get("http.admission.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void naoDeveLimitarAsRotasDeAutenticacao() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, 0, Duration.ofSeconds(5), Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = occupy(filter, release);
+
+        // Com a vaga ocupada e sem fila, o resto da API recebe 503, mas o login passa direto
+        assertThat(call(filter, (req, res) -> {}).getStatus()).isEqualTo(503);
+        MockHttpServletResponse login = call(filter, "/api/auth/login", (req, res) -> ((HttpServletResponse) res).setStatus(204));
+        assertThat(login.getStatus()).isEqualTo(204);
+
+        release.countDown();
+        holder.join();
+    }
+
+    // Ocupa a única vaga até o latch ser liberado
+    private Thread occupy(AdmissionControlFilter filter, CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Thread thread = Thread.ofVirtual().start(() -> call(filter, (req, res) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return thread;
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, FilterChain chain) {
+        return call(filter, "/api/dashboard/stats/1", chain);
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, String uri, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.studyplanner.backend.config;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.studyplanner.backend.dto.AuthenticatedUser;
+import com.studyplanner.backend.event.PasswordChangedEvent;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.UserRepository;
+import com.studyplanner.backend.service.PrincipalCache;
+import com.studyplanner.backend.service.TokenService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "aluno@email.com";
+
+    private UserRepository userRepository;
+    private TokenService tokenService;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userRepository = mock(UserRepository.class);
+        tokenService = new TokenService("segredo-de-teste", 100, meterRegistry);
+        principalCache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ofMinutes(30));
+        filter = new JwtAuthenticationFilter(tokenService, principalCache);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deveAutenticarSemConsultarOBancoNasRequisicoesSeguintes() throws Exception {
+        when(userRepository.findPrincipalByEmail(EMAIL)).thenReturn(Optional.of(new AuthenticatedUser(7L, EMAIL, 0)));
+        String token = tokenService.generateToken(user(0));
+
+        for (int i = 0; i < 3; i++) {
+            Authentication authentication = authenticate("Bearer " + token);
+            assertThat(authentication).isNotNull();
+            assertThat(((AuthenticatedUser) authentication.getPrincipal()).id()).isEqualTo(7L);
+        }
+
+        verify(userRepository, times(1)).findPrincipalByEmail(EMAIL);
+    }
+
+    @Test
+    void trocaDeSenhaDeveInvalidarOsTokensAnteriores() throws Exception {
+        when(userRepository.findPrincipalByEmail(EMAIL)).thenReturn(Optional.of(new AuthenticatedUser(7L, EMAIL, 0)));
+        String oldToken = tokenService.generateToken(user(0));
+        assertThat(authenticate("Bearer " + oldToken)).isNotNull();
+
+        when(userRepository.findPrincipalByEmail(EMAIL)).thenReturn(Optional.of(new AuthenticatedUser(7L, EMAIL, 1)));
+        principalCache.onPasswordChanged(new PasswordChangedEvent(EMAIL));
+
+        assertThat(authenticate("Bearer " + oldToken)).isNull();
+        assertThat(authenticate("Bearer " + tokenService.generateToken(user(1)))).isNotNull();
+        verify(userRepository, times(2)).findPrincipalByEmail(EMAIL);
+    }
+
+    @Test
+    void semTokenValidoDeveSeguirComoAnonimo() throws Exception {
+        assertThat(authenticate(null)).isNull();
+        assertThat(authenticate("Bearer nao.e.jwt")).isNull();
+        assertThat(authenticate("Basic dXNlcjpzZW5oYQ==")).isNull();
+
+        verify(userRepository, never()).findPrincipalByEmail(anyString());
+    }
+
+    @Test
+    void usuarioRemovidoNaoDeveAutenticar() throws Exception {
+        when(userRepository.findPrincipalByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThat(authenticate("Bearer " + tokenService.generateToken(user(0)))).isNull();
+    }
+
+    private Authentication authenticate(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stats/7");
+        if (authorization != null) request.addHeader("Authorization", authorization);
+
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+        return seen.get();
+    }
+
+    private static User user(int passwordVersion) {
+        User user = new User(7L, "Aluno", EMAIL, "hash");
+        user.setPasswordVersion(passwordVersion);
+        return user;
+    }
+}
@@ -0,0 +1,137 @@
+package com.studyplanner.backend.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.studyplanner.backend.dto.AuthenticatedUser;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Dois H2 em memória fazem o papel de primário e réplica; cada um responde o próprio nome
+class ReplicaRoutingDataSourceTest {
+
+    private static final String SERVICE_READ = "com.studyplanner.backend.service.SubjectService.findSubjectsByUserId";
+    private static final String REPOSITORY_READ = "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById";
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary");
+        DataSource replica = h2("routing-replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        for (JdbcTemplate node : List.of(primaryJdbc, replicaJdbc)) {
+            node.execute("CREATE TABLE node (name VARCHAR(20))");
+            node.execute("CREATE TABLE notes (text VARCHAR(20))");
+        }
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM replica_lag", Duration.ofSeconds(2), meterRegistry);
+        lagMonitor.check();
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor, Duration.ofMinutes(1), meterRegistry);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("SHUTDOWN");
+        replicaJdbc.execute("SHUTDOWN");
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deveLerDaReplicaSoEmTransacoesReadOnlyDosServicos() {
+        assertThat(read(SERVICE_READ)).isEqualTo("replica");
+        assertThat(read(REPOSITORY_READ)).isEqualTo("primary");
+        assertThat(write("com.studyplanner.backend.service.SubjectService.createSubject")).isEqualTo("primary");
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> read(SERVICE_READ))).isEqualTo("primary");
+        // Fora de transação não há como saber se é leitura
+        assertThat(jdbc.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void deveVoltarAoPrimarioQuandoAReplicaAtrasa() {
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 10");
+        lagMonitor.check();
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(read(SERVICE_READ)).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 0.5");
+        lagMonitor.check();
+        assertThat(read(SERVICE_READ)).isEqualTo("replica");
+    }
+
+    @Test
+    void deveManterLeiturasNoPrimarioDepoisDeEscritaDoProprioUsuario() {
+        authenticate(1L);
+        assertThat(read(SERVICE_READ)).isEqualTo("replica");
+
+        write("com.studyplanner.backend.service.StudySessionService.createSession");
+        assertThat(read(SERVICE_READ)).isEqualTo("primary");
+
+        // Outro usuário continua lendo da réplica
+        authenticate(2L);
+        assertThat(read(SERVICE_READ)).isEqualTo("replica");
+
+        // Escrita desfeita não conta
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        rollback.setName("com.studyplanner.backend.service.GoalService.createGoal");
+        rollback.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO notes VALUES ('descartada')");
+            status.setRollbackOnly();
+        });
+        assertThat(read(SERVICE_READ)).isEqualTo("replica");
+    }
+
+    private String read(String transactionName) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(transactionName);
+        template.setReadOnly(true);
+        return template.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private String write(String transactionName) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(transactionName);
+        return template.execute(status -> {
+            jdbc.update("INSERT INTO notes VALUES ('nova')");
+            return jdbc.queryForObject("SELECT name FROM node", String.class);
+        });
+    }
+
+    private static void authenticate(Long userId) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+            new AuthenticatedUser(userId, "user" + userId + "@email.com", 0), null, List.of()));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,81 @@
+package com.studyplanner.backend.config;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+class SqlStatementCountFilterTest {
+
+    private final SqlStatementCountFilter filter = new SqlStatementCountFilter();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-count;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new SqlStatementCounter(h2));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS goals (id BIGINT PRIMARY KEY, title VARCHAR(50))");
+        jdbcTemplate.execute("DELETE FROM goals");
+    }
+
+    @Test
+    void deveEnviarOTotalDeComandosAntesDeConfirmarAResposta() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/goals/user/1"), response, (req, res) -> {
+            jdbcTemplate.queryForList("SELECT * FROM goals");
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM goals", Long.class);
+            res.getWriter().write("[]");
+            res.flushBuffer();
+            // Depois do commit o cabeçalho já foi enviado: não muda mais
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        });
+
+        assertThat(response.getHeader(SqlStatementCountFilter.HEADER)).isEqualTo("2");
+    }
+
+    @Test
+    void deveContarEscritasDoJdbcTemplateComUmLotePorIdaAoBanco() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/goals"), response, (req, res) -> {
+            jdbcTemplate.update("INSERT INTO goals (id, title) VALUES (?, ?)", 1L, "Meta");
+            jdbcTemplate.batchUpdate("INSERT INTO goals (id, title) VALUES (?, ?)",
+                List.of(new Object[] { 2L, "A" }, new Object[] { 3L, "B" }, new Object[] { 4L, "C" }));
+            jdbcTemplate.update("DELETE FROM goals WHERE id = ?", 4L);
+        });
+
+        assertThat(response.getHeader(SqlStatementCountFilter.HEADER)).isEqualTo("3");
+    }
+
+    @Test
+    void deveEnviarZeroQuandoNaoHouverSql() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/study-sessions/1"), response,
+            (req, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        assertThat(response.getHeader(SqlStatementCountFilter.HEADER)).isEqualTo("0");
+    }
+
+    @Test
+    void naoDeveContarForaDeUmaRequisicao() throws Exception {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        assertThat(SqlStatementCounter.current()).isZero();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/subjects"), response,
+            (req, res) -> jdbcTemplate.queryForList("SELECT * FROM goals"));
+
+        assertThat(response.getHeader(SqlStatementCountFilter.HEADER)).isEqualTo("1");
+        assertThat(SqlStatementCounter.current()).isZero();
+    }
+}
@@ -8,11 +8,15 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -23,9 +27,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.dto.AuthenticatedUser;
+import com.studyplanner.backend.dto.GoalDTO;
 import com.studyplanner.backend.model.Goal;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.service.GoalService;
+import com.studyplanner.backend.service.UserDataVersions;
 
 @WebMvcTest(GoalController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -33,17 +40,21 @@ class GoalControllerTest {
 
     @Autowired private MockMvc mockMvc;
     @MockitoBean private GoalService goalService;
+    @MockitoBean private UserDataVersions userDataVersions;
     @Autowired private ObjectMapper objectMapper;
 
     @Test
     void deveListarMetasDoUsuario() throws Exception {
-        Goal meta1 = new Goal(); meta1.setTitle("Meta 1");
-        
+        GoalDTO meta1 = new GoalDTO(1L, "Meta 1", "Semanal", LocalDate.now(), null, true, 10.0, null,
+                5L, "Java", "#FF0000", null);
+
         when(goalService.findGoalsByUserId(1L)).thenReturn(List.of(meta1));
 
         mockMvc.perform(get("/api/goals/user/1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].subject.id").value(5))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
     }
 
     @Test
@@ -90,6 +101,8 @@ class GoalControllerTest {
     void deveAtualizarMetaComSucesso() throws Exception {
         Goal metaAtualizada = new Goal();
         metaAtualizada.setTitle("Título Novo");
+        metaAtualizada.setGoalType("Semanal");
+        metaAtualizada.setStartDate(LocalDate.now());
 
         when(goalService.updateGoal(eq(1L), any(Goal.class)))
             .thenReturn(Optional.of(metaAtualizada));
@@ -108,6 +121,8 @@ class GoalControllerTest {
 
         Goal metaDados = new Goal();
         metaDados.setTitle("Tanto faz");
+        metaDados.setGoalType("Semanal");
+        metaDados.setStartDate(LocalDate.now());
 
         mockMvc.perform(put("/api/goals/99")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -115,18 +130,43 @@ class GoalControllerTest {
                 .andExpect(status().isNotFound()); // 404
     }
 
+    @Test
+    void deveRetornar400AoAtualizarMetaInvalida() throws Exception {
+        Goal metaInvalida = new Goal();
+        metaInvalida.setTitle("X");
+
+        mockMvc.perform(put("/api/goals/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(metaInvalida)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.goalType").exists());
+
+        verify(goalService, never()).updateGoal(any(), any());
+    }
+
     @Test
     void deveDeletarMetaComSucesso() throws Exception {
+        autenticar(7L);
         mockMvc.perform(delete("/api/goals/1"))
                 .andExpect(status().isOk());
+
+        // A posse vem do usuário autenticado
+        verify(goalService).deleteGoal(1L, 7L);
     }
 
     @Test
     void deveRetornar404AoTentarDeletarMetaInexistente() throws Exception {
         doThrow(new IllegalArgumentException("Meta não encontrada."))
-            .when(goalService).deleteGoal(99L);
+            .when(goalService).deleteGoal(99L, 7L);
 
+        autenticar(7L);
         mockMvc.perform(delete("/api/goals/99"))
                 .andExpect(status().isNotFound()); // 404
     }
+
+    // Sem os filtros (addFilters = false), o principal vai direto para o contexto, como faria o JwtAuthenticationFilter
+    private static void autenticar(Long userId) {
+        TestSecurityContextHolder.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+            new AuthenticatedUser(userId, "aluno@email.com", 0), null, List.of()));
+    }
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.studyplanner.backend.controller;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -11,13 +18,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.dto.SessionImportDTO;
+import com.studyplanner.backend.dto.SessionPageDTO;
 import com.studyplanner.backend.model.StudySession;
 import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.service.SessionImportService;
 import com.studyplanner.backend.service.StudySessionService;
+import com.studyplanner.backend.service.UserDataVersions;
 
 @WebMvcTest(StudySessionController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -28,6 +47,12 @@ class StudySessionControllerTest {
     @MockitoBean
     private StudySessionService studySessionService;
 
+    @MockitoBean
+    private SessionImportService sessionImportService;
+
+    @MockitoBean
+    private UserDataVersions userDataVersions;
+
     @Autowired private ObjectMapper objectMapper;
 
     @Test
@@ -66,4 +91,96 @@ class StudySessionControllerTest {
                 .content(objectMapper.writeValueAsString(session)))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveRetornar400AoAtualizarSessaoInvalida() throws Exception {
+        StudySession session = new StudySession();
+        session.setTitle(" ");
+        session.setDurationMinutes(2000);
+        session.setDate(LocalDateTime.now());
+
+        mockMvc.perform(put("/api/study-sessions/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(session)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").exists())
+                .andExpect(jsonPath("$.durationMinutes").exists());
+
+        verify(studySessionService, never()).updateSession(any(), any());
+    }
+
+    @Test
+    void deveRetornarPaginaComCursor() throws Exception {
+        SessionDTO session = new SessionDTO(7L, "Revisão", null, LocalDateTime.now(), 30, true,
+                3L, "Java", "#FF0000", null, null).withMatters(List.of("JPA"));
+        when(studySessionService.findPage(1L, null, 1)).thenReturn(new SessionPageDTO<>(List.of(session), "abc"));
+
+        mockMvc.perform(get("/api/study-sessions/user/1/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7))
+                .andExpect(jsonPath("$.items[0].subject.name").value("Java"))
+                .andExpect(jsonPath("$.items[0].matters[0]").value("JPA"))
+                .andExpect(jsonPath("$.items[0].user").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+    }
+
+    @Test
+    void deveRetornar400QuandoCursorForInvalido() throws Exception {
+        when(studySessionService.findPage(eq(1L), eq("lixo"), any()))
+            .thenThrow(new IllegalArgumentException("Cursor inválido."));
+
+        mockMvc.perform(get("/api/study-sessions/user/1/page").param("cursor", "lixo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveExportarSessoesEmNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<SessionDTO> consumer = invocation.getArgument(1);
+            for (long id = 1; id <= 2; id++) {
+                consumer.accept(new SessionDTO(id, "Sessão", null, LocalDateTime.now(), 30, true, 3L, "Java", "#FF0000", null, null));
+            }
+            return null;
+        }).when(studySessionService).forEachSession(eq(1L), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/study-sessions/user/1/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    void deveEncaminharImportacaoPeloContentType() throws Exception {
+        when(sessionImportService.importCsv(eq(1L), any())).thenReturn(
+            new SessionImportDTO.Result(1, 1, List.of(new SessionImportDTO.RowError(3, "Data inválida: ontem"))));
+
+        mockMvc.perform(post("/api/study-sessions/user/1/import")
+                .contentType("text/csv")
+                .content("title,date,durationMinutes,subject\nRevisão,2024-03-01,30,Java\nErro,ontem,30,Java\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3));
+
+        verify(sessionImportService, never()).importJson(any(), any());
+    }
+
+    @Test
+    void deveRetornar400NaImportacaoParaUsuarioInexistente() throws Exception {
+        when(sessionImportService.importJson(eq(99L), any())).thenThrow(new IllegalArgumentException("Usuário não encontrado."));
+
+        mockMvc.perform(post("/api/study-sessions/user/99/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
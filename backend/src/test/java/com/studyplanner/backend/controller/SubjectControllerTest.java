@@ -1,9 +1,12 @@
 package com.studyplanner.backend.controller;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -13,13 +16,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.dto.SubjectDTO;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.service.SubjectService;
+import com.studyplanner.backend.service.UserDataVersions;
 
 @WebMvcTest(SubjectController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -31,20 +37,47 @@ class SubjectControllerTest {
     @MockitoBean
     private SubjectService subjectService;
 
+    @MockitoBean
+    private UserDataVersions userDataVersions;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     void deveListarMateriasDoUsuario() throws Exception {
-        Subject mat1 = new Subject(); mat1.setName("Java"); mat1.setColor("#000");
-        Subject mat2 = new Subject(); mat2.setName("React"); mat2.setColor("#FFF");
-        
+        SubjectDTO mat1 = new SubjectDTO(1L, "Java", "#000", List.of("JPA"));
+        SubjectDTO mat2 = new SubjectDTO(2L, "React", "#FFF", List.of());
+
         when(subjectService.findSubjectsByUserId(1L)).thenReturn(List.of(mat1, mat2));
 
         mockMvc.perform(get("/api/subjects/user/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].name").value("Java"));
+                .andExpect(jsonPath("$[0].name").value("Java"))
+                .andExpect(jsonPath("$[0].matters[0]").value("JPA"));
+    }
+
+    @Test
+    void deveResponder304QuandoVersaoDosDadosNaoMudou() throws Exception {
+        when(userDataVersions.etag(1L)).thenReturn(Optional.of("\"1-7-20000\""));
+        when(subjectService.findSubjectsByUserId(1L)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/subjects/user/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-7-20000\""))
+                .andExpect(header().string("Cache-Control", "private, no-cache"));
+
+        mockMvc.perform(get("/api/subjects/user/1").header("If-None-Match", "\"1-7-20000\""))
+                .andExpect(status().isNotModified());
+
+        // Versão nova: ETag antigo não vale mais
+        when(userDataVersions.etag(1L)).thenReturn(Optional.of("\"1-8-20000\""));
+        mockMvc.perform(get("/api/subjects/user/1").header("If-None-Match", "\"1-7-20000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-8-20000\""));
+
+        // O 304 não chega ao service
+        verify(subjectService, times(2)).findSubjectsByUserId(1L);
     }
 
     @Test
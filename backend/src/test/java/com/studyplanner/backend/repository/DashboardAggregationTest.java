@@ -0,0 +1,129 @@
+package com.studyplanner.backend.repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.studyplanner.backend.dto.DashboardStatsDTO;
+import com.studyplanner.backend.model.Goal;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.service.StudyRollupService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Compara o caminho antigo do dashboard (5 consultas + entidades) com a agregação em um único SELECT sobre o rollup.
+// O tempo de cada caminho é medido no JMH (StatsBenchmark em backend-benchmarks)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(StudyRollupService.class)
+class DashboardAggregationTest {
+
+    private static final int SESSIONS = 2_000;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private StudySessionRepository studySessionRepository;
+    @Autowired private StudyRollupRepository studyRollupRepository;
+    @Autowired private GoalRepository goalRepository;
+    @Autowired private StudyRollupService studyRollupService;
+
+    private Long userId;
+    private LocalDateTime startOfWeek;
+    private LocalDate chartStart;
+
+    @BeforeEach
+    void seed() {
+        User user = new User(null, "Benchmark", "bench@email.com", "123");
+        entityManager.persist(user);
+
+        Subject subject = new Subject(null, "Java", "#FF0000", user, List.of("JPA", "Streams"));
+        entityManager.persist(subject);
+
+        Goal goal = new Goal(null, "Meta", "Semanal", LocalDate.now(), true, user);
+        entityManager.persist(goal);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < SESSIONS; i++) {
+            StudySession s = new StudySession(null, "Sessão " + i, null, now.minusHours(i * 3L),
+                    15 + (i % 90), i % 3 == 0, user, subject, List.of("JPA"));
+            entityManager.persist(s);
+        }
+        entityManager.flush();
+        studyRollupService.rebuild();
+        entityManager.flush();
+        entityManager.clear();
+
+        userId = user.getId();
+        startOfWeek = now.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toLocalDate().atStartOfDay();
+        chartStart = now.toLocalDate().minusDays(6);
+    }
+
+    @Test
+    void agregacaoUnicaDeveBaterComCaminhoAntigoUsandoUmaConsulta() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        DashboardStatsDTO legacy = legacyStats();
+        long legacyStatements = stats.getPrepareStatementCount();
+        entityManager.clear();
+
+        stats.clear();
+        DashboardStatsDTO aggregated = DashboardStatsDTO.from(
+                studyRollupRepository.aggregateDashboard(userId, startOfWeek.toLocalDate(), chartStart), chartStart);
+        long aggregatedStatements = stats.getPrepareStatementCount();
+
+        assertThat(aggregated.getTotalHours()).isEqualTo(legacy.getTotalHours());
+        assertThat(aggregated.getWeeklyHours()).isEqualTo(legacy.getWeeklyHours());
+        assertThat(aggregated.getCompletedSessions()).isEqualTo(legacy.getCompletedSessions());
+        assertThat(aggregated.getActiveGoals()).isEqualTo(legacy.getActiveGoals());
+        for (int i = 0; i < 7; i++) {
+            assertThat(aggregated.getChartData().get(i).getDay()).isEqualTo(legacy.getChartData().get(i).getDay());
+            assertThat(aggregated.getChartData().get(i).getHours())
+                    .isCloseTo(legacy.getChartData().get(i).getHours(), within(1e-9));
+        }
+
+        assertThat(aggregatedStatements).isEqualTo(1);
+        assertThat(legacyStatements).isGreaterThanOrEqualTo(5);
+    }
+
+    // Réplica fiel da implementação anterior de DashboardService.getStats
+    private DashboardStatsDTO legacyStats() {
+        LocalDateTime sevenDaysAgo = chartStart.atStartOfDay();
+        List<StudySession> sessions = studySessionRepository.findByUserIdAndDateAfter(userId, sevenDaysAgo);
+
+        Map<LocalDate, Double> dailyMap = sessions.stream()
+                .collect(Collectors.groupingBy(
+                        s -> s.getDate().toLocalDate(),
+                        Collectors.summingDouble(s -> s.getDurationMinutes() / 60.0)));
+
+        List<DashboardStatsDTO.ChartDataDTO> chartData = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = chartStart.plusDays(i);
+            chartData.add(new DashboardStatsDTO.ChartDataDTO(date.toString(), dailyMap.getOrDefault(date, 0.0)));
+        }
+
+        Integer totalMinutes = studySessionRepository.getTotalStudyMinutes(userId);
+        Integer weeklyMinutes = studySessionRepository.getWeeklyStudyMinutes(userId, startOfWeek);
+        Long completedSessions = studySessionRepository.countByUser_IdAndCompletedTrue(userId);
+        Long activeGoals = goalRepository.countByUser_IdAndActiveTrue(userId);
+
+        return new DashboardStatsDTO(totalMinutes / 60, weeklyMinutes / 60, completedSessions, activeGoals, chartData);
+    }
+}
@@ -0,0 +1,99 @@
+package com.studyplanner.backend.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Com ids de sequence (pooled) e hibernate.jdbc.batch_size, gravar N sessões com assuntos vira um
+// PreparedStatement por tabela em batch, e não um INSERT (round trip) por linha
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.studyplanner.backend.repository.InsertBatchingTest$SqlCapture"
+})
+class InsertBatchingTest {
+
+    // Um registro por PreparedStatement criado; um batch reaproveita o mesmo statement para todas as linhas
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    private static final int SESSIONS = 40;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private StudySessionRepository studySessionRepository;
+
+    @Test
+    void deveGravarVariasSessoesEmBatch() {
+        User user = entityManager.persist(new User(null, "Batch", "batch@email.com", "123"));
+        Subject subject = entityManager.persist(new Subject(null, "Java", "#FF0000", user, List.of()));
+        entityManager.flush();
+
+        Statistics stats = statistics();
+        stats.clear();
+        SqlCapture.STATEMENTS.clear();
+
+        List<StudySession> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(new StudySession(null, "Sessão " + i, null, LocalDate.now().atStartOfDay(), 30, true,
+                user, subject, new ArrayList<>(List.of("JPA", "Streams"))));
+        }
+        studySessionRepository.saveAll(sessions);
+        entityManager.flush();
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(SESSIONS);
+        // Sem batch seriam 40 INSERTs de sessão e 80 de assunto; os demais statements são nextval
+        // (1 por bloco de 50 ids, 2 na primeira chamada de uma sequence nova)
+        assertThat(SqlCapture.STATEMENTS).filteredOn(sql -> sql.startsWith("insert into study_sessions")).hasSize(1);
+        assertThat(SqlCapture.STATEMENTS).filteredOn(sql -> sql.startsWith("insert into session_matters")).hasSize(1);
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        assertThat(sessions).extracting(StudySession::getId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void deveAtualizarVariasSessoesEmBatch() {
+        User user = entityManager.persist(new User(null, "Batch", "batch-update@email.com", "123"));
+        Subject subject = entityManager.persist(new Subject(null, "Java", "#FF0000", user, List.of()));
+        List<StudySession> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(entityManager.persist(new StudySession(null, "Sessão " + i, null, LocalDate.now().atStartOfDay(),
+                30, false, user, subject, new ArrayList<>())));
+        }
+        entityManager.flush();
+
+        Statistics stats = statistics();
+        stats.clear();
+
+        sessions.forEach(session -> session.setCompleted(true));
+        entityManager.flush();
+
+        assertThat(stats.getEntityUpdateCount()).isEqualTo(SESSIONS);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,199 @@
+package com.studyplanner.backend.repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.studyplanner.backend.model.EmailOutbox;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import jakarta.persistence.EntityManager;
+
+import javax.sql.DataSource;
+
+// Roda as migrações do Flyway num PostgreSQL embarcado, executa cada consulta de listagem dos
+// repositórios e faz EXPLAIN do SQL gerado pelo Hibernate. Com enable_seqscan=off o planner só
+// escolhe Seq Scan quando nenhum índice atende o filtro, então qualquer Seq Scan reprova o build.
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.datasource.driverClassName=org.postgresql.Driver",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.studyplanner.backend.repository.QueryPlanTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Fora do build padrão (baixa e sobe um PostgreSQL): roda com mvn test -Pquery-plans, que o CI usa
+@Tag("query-plans")
+class QueryPlanTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired private DataSource dataSource;
+    @Autowired private EntityManager entityManager;
+    @Autowired private StudySessionRepository studySessionRepository;
+    @Autowired private StudyRollupRepository studyRollupRepository;
+    @Autowired private GoalRepository goalRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+
+    static synchronized EmbeddedPostgres postgres() throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(QueryPlanTest::stopPostgres));
+        }
+        return postgres;
+    }
+
+    private static void stopPostgres() {
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            // JVM já está encerrando
+        }
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        String url = postgres().getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void consultasDosRepositoriosNaoDevemFazerSeqScan() throws SQLException {
+        Long userId = 1L;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        Set<Long> ids = Set.of(1L, 2L);
+        Set<String> matters = Set.of("Álgebra");
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("StudySession.findByUserIdOrderByDateDesc", () -> studySessionRepository.findByUserIdOrderByDateDesc(userId));
+        queries.put("StudySession.findSummariesByUserId", () -> studySessionRepository.findSummariesByUserId(userId));
+        queries.put("StudySession.findRecentSummaries", () -> studySessionRepository.findRecentSummaries(userId, now));
+        queries.put("StudySession.findSummariesByDateRange", () -> studySessionRepository.findSummariesByDateRange(userId, now.minusDays(7), now));
+        queries.put("StudySession.findFirstPage", () -> studySessionRepository.findFirstPage(userId, Limit.of(50)));
+        queries.put("StudySession.findPageAfter", () -> studySessionRepository.findPageAfter(userId, now, 10L, Limit.of(50)));
+        queries.put("StudySession.findMattersBySessionIds", () -> studySessionRepository.findMattersBySessionIds(ids));
+        queries.put("StudySession.findRecentSessions", () -> studySessionRepository.findRecentSessions(userId, now));
+        queries.put("StudySession.findByUserIdAndDateAfter", () -> studySessionRepository.findByUserIdAndDateAfter(userId, now));
+        queries.put("StudySession.getTotalStudyMinutes", () -> studySessionRepository.getTotalStudyMinutes(userId));
+        queries.put("StudySession.getWeeklyStudyMinutes", () -> studySessionRepository.getWeeklyStudyMinutes(userId, now));
+        queries.put("StudySession.countByUser_IdAndCompletedTrue", () -> studySessionRepository.countByUser_IdAndCompletedTrue(userId));
+        queries.put("StudyRollup.aggregateDashboard", () -> studyRollupRepository.aggregateDashboard(userId, today, today));
+        queries.put("StudyRollup.sumBySubjects", () -> studyRollupRepository.sumBySubjects(userId, ids));
+        queries.put("StudyRollup.sumByMatters", () -> studyRollupRepository.sumByMatters(userId, ids, matters));
+        queries.put("StudyRollup.sumByDay", () -> studyRollupRepository.sumByDay(userId, today.minusDays(7), today));
+        queries.put("StudyRollup.findStudiedDays", () -> studyRollupRepository.findStudiedDays(userId));
+        queries.put("StudyRollup.findStudiedDaysInRange", () -> studyRollupRepository.findStudiedDays(userId, today.minusDays(7), today));
+        queries.put("StudyRollup.sumPerDay", () -> studyRollupRepository.sumPerDay(userId, null, "", today.minusDays(30), today));
+        queries.put("StudyRollup.sumPerWeek", () -> studyRollupRepository.sumPerWeek(userId, 1L, "", today.minusDays(90), today));
+        queries.put("StudyRollup.sumPerMonth", () -> studyRollupRepository.sumPerMonth(userId, null, "JPA", today.minusDays(365), today));
+        queries.put("Goal.findByUser_IdAndActiveTrue", () -> goalRepository.findByUser_IdAndActiveTrue(userId));
+        queries.put("Goal.countByUser_IdAndActiveTrue", () -> goalRepository.countByUser_IdAndActiveTrue(userId));
+        queries.put("Goal.findActiveSummariesByUserId", () -> goalRepository.findActiveSummariesByUserId(userId));
+        queries.put("Subject.findByUserId", () -> subjectRepository.findByUserId(userId));
+        queries.put("Subject.findSummariesByUserId", () -> subjectRepository.findSummariesByUserId(userId));
+        queries.put("Subject.findMattersBySubjectIds", () -> subjectRepository.findMattersBySubjectIds(ids));
+        queries.put("User.findByEmail", () -> userRepository.findByEmail("plano@email.com"));
+        queries.put("User.existsByEmail", () -> userRepository.existsByEmail("plano@email.com"));
+        queries.put("User.findPrincipalByEmail", () -> userRepository.findPrincipalByEmail("plano@email.com"));
+        queries.put("User.findDataVersion", () -> userRepository.findDataVersion(userId));
+        queries.put("EmailOutbox.findDueForUpdate", () -> emailOutboxRepository.findDueForUpdate(EmailOutbox.Status.PENDING, now, Limit.of(20)));
+        queries.put("EmailOutbox.countByStatus", () -> emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            // Plano genérico: independe dos valores dos parâmetros, como o de um PreparedStatement em cache
+            statement.execute("SET enable_seqscan = off");
+            statement.execute("SET plan_cache_mode = force_generic_plan");
+
+            for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+                for (String sql : capture(query.getValue())) {
+                    String plan = explain(statement, sql);
+                    if (plan.contains("Seq Scan")) {
+                        failures.add(query.getKey() + "\n" + sql + "\n" + plan);
+                    }
+                }
+            }
+        }
+
+        assertThat(failures).as("consultas com Seq Scan").isEmpty();
+    }
+
+    private List<String> capture(Runnable query) {
+        entityManager.clear();
+        SqlCapture.STATEMENTS.clear();
+        query.run();
+        List<String> selects = new ArrayList<>();
+        for (String sql : SqlCapture.STATEMENTS) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                selects.add(sql);
+            }
+        }
+        assertThat(selects).as("nenhum SELECT capturado").isNotEmpty();
+        return selects;
+    }
+
+    private static String explain(Statement statement, String sql) throws SQLException {
+        int parameters = 0;
+        StringBuilder numbered = new StringBuilder();
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') inLiteral = !inLiteral;
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        statement.execute("DEALLOCATE ALL");
+        statement.execute("PREPARE plan_check AS " + numbered);
+        String args = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rs = statement.executeQuery("EXPLAIN EXECUTE plan_check" + args)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    // Guarda o SQL que o Hibernate prepara (instanciado pelo Hibernate a partir do nome da classe)
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
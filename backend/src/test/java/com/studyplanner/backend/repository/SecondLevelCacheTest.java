@@ -0,0 +1,108 @@
+package com.studyplanner.backend.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.studyplanner.backend.config.HibernateCacheConfig;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.service.EntityIds;
+import com.studyplanner.backend.service.ReturningSql;
+import com.studyplanner.backend.service.StudyRollupService;
+import com.studyplanner.backend.service.StudySessionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Usuários, matérias e assuntos das matérias vêm do cache de 2º nível depois do primeiro commit.
+// Sem transação do teste: o cache só é preenchido/atualizado quando a transação de quem grava termina
+@DataJpaTest
+@Import({HibernateCacheConfig.class, StudySessionService.class, StudyRollupService.class, EntityIds.class, ReturningSql.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private StudySessionService studySessionService;
+
+    @Test
+    void deveCriarSessaoSemSelectDeUsuarioEMateria() {
+        User user = userRepository.save(new User(null, "Cache", "cache-sessao@email.com", "123"));
+        Subject subject = subjectRepository.save(new Subject(null, "Java", "#FF0000", user, new ArrayList<>(List.of("JPA"))));
+
+        Statistics stats = statistics();
+        stats.clear();
+
+        StudySession saved = studySessionService.createSession(new StudySession(null, "Sessão", null,
+            LocalDate.now().atStartOfDay(), 30, true, reference(user), subjectReference(subject), new ArrayList<>()));
+
+        // A resposta leva só o id da matéria: nem o banco nem o cache de 2º nível são consultados
+        assertThat(saved.getSubject().getId()).isEqualTo(subject.getId());
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getDomainDataRegionStatistics(HibernateCacheConfig.SUBJECTS).getHitCount()).isZero();
+    }
+
+    @Test
+    void deveLerAssuntosDoCacheEVerAlteracaoDepoisDoCommit() {
+        User user = userRepository.save(new User(null, "Cache", "cache-assuntos@email.com", "123"));
+        Long subjectId = subjectRepository.save(new Subject(null, "Java", "#FF0000", user, new ArrayList<>(List.of("JPA")))).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // A coleção entra no cache na primeira leitura; a partir daí nem a matéria nem os assuntos vão ao banco
+        transaction.executeWithoutResult(status -> subjectRepository.findById(subjectId).orElseThrow().getMatters().size());
+        Statistics stats = statistics();
+        stats.clear();
+        List<String> matters = transaction.execute(status -> List.copyOf(subjectRepository.findById(subjectId).orElseThrow().getMatters()));
+        assertThat(matters).containsExactly("JPA");
+        assertThat(stats.getPrepareStatementCount()).isZero();
+
+        transaction.executeWithoutResult(status -> {
+            Subject subject = subjectRepository.findById(subjectId).orElseThrow();
+            subject.setName("Java 21");
+            subject.getMatters().add("Streams");
+        });
+
+        // A entidade é atualizada no cache pelo commit; a coleção alterada sai do cache e é relida uma vez
+        stats.clear();
+        Subject reloaded = transaction.execute(status -> {
+            Subject subject = subjectRepository.findById(subjectId).orElseThrow();
+            subject.getMatters().size();
+            return subject;
+        });
+        assertThat(reloaded.getName()).isEqualTo("Java 21");
+        assertThat(reloaded.getMatters()).containsExactly("JPA", "Streams");
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isEqualTo(1);
+    }
+
+    private static User reference(User user) {
+        User reference = new User();
+        reference.setId(user.getId());
+        return reference;
+    }
+
+    private static Subject subjectReference(Subject subject) {
+        Subject reference = new Subject();
+        reference.setId(subject.getId());
+        return reference;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,144 @@
+package com.studyplanner.backend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.model.Goal;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.service.EntityIds;
+import com.studyplanner.backend.service.ReturningSql;
+import com.studyplanner.backend.service.StudyRollupService;
+import com.studyplanner.backend.service.StudySessionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Garante que listar N sessões custa um número fixo de SELECTs, e não 1 + N
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({StudySessionService.class, StudyRollupService.class, EntityIds.class, ReturningSql.class})
+class SessionFetchPlanTest {
+
+    private static final int SUBJECTS = 4;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private StudySessionRepository studySessionRepository;
+    @Autowired private GoalRepository goalRepository;
+    @Autowired private StudySessionService studySessionService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void deveListarSessoesComQuantidadeFixaDeConsultas() throws Exception {
+        // 1 SELECT sessões + user + subject, 1 lote de assuntos das sessões, 1 lote de assuntos das matérias
+        assertThat(statementsToList(seed("lista10@email.com", 10))).isEqualTo(3);
+        assertThat(statementsToList(seed("lista90@email.com", 90))).isEqualTo(3);
+    }
+
+    @Test
+    void deveExportarEmLotesSemConsultaPorSessao() throws Exception {
+        Long userId = seed("export@email.com", 600);
+        Statistics stats = statistics();
+        stats.clear();
+
+        List<String> lines = new ArrayList<>();
+        studySessionService.forEachSession(userId, session -> lines.add(write(session)));
+
+        assertThat(lines).hasSize(600).doesNotHaveDuplicates();
+        assertThat(lines.get(0)).contains("\"matters\":[\"Tópico 0\"]");
+        assertThat(lines.get(599)).contains("\"matters\":[\"Tópico 599\"]");
+        // Dois blocos por keyset (500 + 100), cada um com 1 página da projeção + 1 lote de assuntos
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void deveListarProjecoesComDuasConsultas() {
+        Long userId = seed("projecao@email.com", 90);
+        Statistics stats = statistics();
+        stats.clear();
+
+        List<SessionDTO> sessions = studySessionService.findAllByUserId(userId);
+
+        assertThat(sessions).hasSize(90);
+        assertThat(sessions.get(0).matters()).containsExactly("Tópico 0");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void deveCarregarAssuntosDaMateriaNasMetasCacheadas() {
+        Long userId = seed("metas@email.com", 1);
+        Subject subject = entityManager.getEntityManager()
+            .createQuery("SELECT s FROM Subject s WHERE s.user.id = :userId", Subject.class)
+            .setParameter("userId", userId).setMaxResults(1).getSingleResult();
+        Goal goal = new Goal(null, "Meta", "Semanal", LocalDate.now(), true, subject.getUser());
+        goal.setSubject(subject);
+        entityManager.persist(goal);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Goal> goals = goalRepository.findByUser_IdAndActiveTrue(userId);
+        entityManager.clear();
+
+        // Já fora do contexto (como no cache), a serialização não pode depender de lazy loading
+        assertThat(goals.get(0).getSubject().getMatters()).containsExactly("Álgebra", "Geometria");
+    }
+
+    private long statementsToList(Long userId) throws Exception {
+        Statistics stats = statistics();
+        stats.clear();
+
+        List<StudySession> sessions = studySessionRepository.findByUserIdOrderByDateDesc(userId);
+        objectMapper.writeValueAsString(sessions);
+
+        return stats.getPrepareStatementCount();
+    }
+
+    private Long seed(String email, int sessions) {
+        User user = new User(null, "Fetch", email, "123");
+        entityManager.persist(user);
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < SUBJECTS; i++) {
+            Subject subject = new Subject(null, "Matéria " + i, "#FF0000", user, new ArrayList<>(List.of("Álgebra", "Geometria")));
+            entityManager.persist(subject);
+            subjects.add(subject);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < sessions; i++) {
+            entityManager.persist(new StudySession(null, "Sessão " + i, null, now.minusHours(i), 30, true,
+                    user, subjects.get(i % SUBJECTS), new ArrayList<>(List.of("Tópico " + i))));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return user.getId();
+    }
+
+    private String write(SessionDTO session) {
+        try {
+            return objectMapper.writeValueAsString(session);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -1,5 +1,6 @@
 package com.studyplanner.backend.repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -8,7 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
+import com.studyplanner.backend.dto.SessionDTO;
 import com.studyplanner.backend.model.StudySession;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.model.User;
@@ -111,4 +114,35 @@ class StudySessionRepositoryTest {
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getTitle()).isEqualTo("Recente");
     }
-}
\ No newline at end of file
+
+    @Test
+    void devePaginarPorCursorSemRepetirSessoesComMesmaData() {
+        User user = new User();
+        user.setName("User Paginado");
+        user.setEmail("paginado@email.com");
+        user.setPassword("123");
+        entityManager.persist(user);
+
+        Subject subject = new Subject(null, "História", "#00FF00", user, List.of());
+        entityManager.persist(subject);
+
+        LocalDateTime mesmoHorario = LocalDate.of(2024, 5, 10).atTime(8, 0);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(new StudySession(null, "S" + i, null, mesmoHorario, 30, true, user, subject, List.of()));
+        }
+        entityManager.persist(new StudySession(null, "Antiga", null, mesmoHorario.minusDays(1), 30, true, user, subject, List.of()));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<SessionDTO> primeira = repository.findFirstPage(user.getId(), Limit.of(3));
+        SessionDTO ultima = primeira.get(2);
+        List<SessionDTO> segunda = repository.findPageAfter(user.getId(), ultima.date(), ultima.id(), Limit.of(3));
+
+        assertThat(primeira).hasSize(3);
+        assertThat(segunda).hasSize(3);
+        assertThat(segunda).extracting(SessionDTO::id).doesNotContainAnyElementsOf(
+            primeira.stream().map(SessionDTO::id).toList());
+        assertThat(segunda.get(2).title()).isEqualTo("Antiga");
+        assertThat(segunda.get(2).subject().name()).isEqualTo("História");
+    }
+}
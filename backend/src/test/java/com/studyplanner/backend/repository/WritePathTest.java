@@ -0,0 +1,223 @@
+package com.studyplanner.backend.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.studyplanner.backend.config.HibernateCacheConfig;
+import com.studyplanner.backend.model.Goal;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.service.EntityIds;
+import com.studyplanner.backend.service.ReturningSql;
+import com.studyplanner.backend.service.GoalService;
+import com.studyplanner.backend.service.StudyRollupService;
+import com.studyplanner.backend.service.StudySessionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Criação, atualização e exclusão de sessão/meta: um statement por escrita, posse conferida no próprio SQL.
+// Sem transação do teste: cada chamada de serviço é a sua própria transação, como numa requisição
+@DataJpaTest
+@Import({HibernateCacheConfig.class, StudySessionService.class, GoalService.class, StudyRollupService.class, EntityIds.class, ReturningSql.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WritePathTest {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private StudySessionRepository studySessionRepository;
+    @Autowired private GoalRepository goalRepository;
+    @Autowired private StudySessionService studySessionService;
+    @Autowired private GoalService goalService;
+    @Autowired private StudyRollupService studyRollupService;
+
+    @Test
+    void deveCriarSessaoEMetaSemLeituraPrevia() {
+        User user = userRepository.save(new User(null, "Escrita", "escrita@email.com", "123"));
+        Subject subject = subjectRepository.save(new Subject(null, "Java", "#FF0000", user, new ArrayList<>(List.of("JPA"))));
+
+        // Aquecimento: bloco de ids do pooled optimizer e matéria no cache de 2º nível
+        studySessionService.createSession(session(user, subject));
+        goalService.createGoal(goal(user, subject));
+
+        Statistics stats = statistics();
+        stats.clear();
+
+        StudySession session = studySessionService.createSession(session(user, subject));
+        Goal goal = goalService.createGoal(goal(user, subject));
+
+        // Nenhuma entidade/coleção lida do banco antes de gravar (o Hibernate só executa os incrementos do rollup)
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        assertThat(stats.getQueryExecutionCount()).isZero();
+        // A resposta leva só o id da matéria, sem consulta depois da escrita
+        assertThat(session.getSubject().getId()).isEqualTo(subject.getId());
+        assertThat(goal.getSubject().getId()).isEqualTo(subject.getId());
+        List<String> matters = new TransactionTemplate(transactionManager)
+            .execute(status -> List.copyOf(studySessionRepository.findById(session.getId()).orElseThrow().getMatters()));
+        assertThat(matters).containsExactly("JPA");
+        assertThat(goalRepository.findById(goal.getId())).get()
+            .satisfies(saved -> assertThat(saved.getSubject().getId()).isEqualTo(subject.getId()));
+    }
+
+    @Test
+    void deveRecusarMateriaDeOutroUsuario() {
+        User owner = userRepository.save(new User(null, "Dono", "dono@email.com", "123"));
+        User other = userRepository.save(new User(null, "Outro", "outro@email.com", "123"));
+        Subject foreign = subjectRepository.save(new Subject(null, "Java", "#FF0000", owner, new ArrayList<>()));
+
+        assertThatThrownBy(() -> studySessionService.createSession(session(other, foreign)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> goalService.createGoal(goal(other, foreign)))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(studySessionRepository.count()).isZero();
+        assertThat(goalRepository.count()).isZero();
+    }
+
+    @Test
+    void deveAtualizarSessaoSemLeituraPreviaEManterRollup() {
+        User owner = userRepository.save(new User(null, "Dono", "dono-sessao@email.com", "123"));
+        User other = userRepository.save(new User(null, "Outro", "outro-sessao@email.com", "123"));
+        Subject java = subjectRepository.save(new Subject(null, "Java", "#FF0000", owner, new ArrayList<>()));
+        Subject sql = subjectRepository.save(new Subject(null, "SQL", "#0000FF", owner, new ArrayList<>()));
+        Subject foreign = subjectRepository.save(new Subject(null, "Python", "#00FF00", other, new ArrayList<>()));
+        Long sessionId = studySessionService.createSession(session(owner, java)).getId();
+
+        StudySession changes = session(owner, sql);
+        changes.setDurationMinutes(90);
+        changes.setMatters(new ArrayList<>(List.of("Joins", "Índices")));
+        Statistics stats = statistics();
+        stats.clear();
+
+        StudySession updated = studySessionService.updateSession(sessionId, changes).orElseThrow();
+
+        // Valores antigos vêm do próprio UPDATE/DELETE: nenhuma sessão ou coleção carregada pelo Hibernate
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        assertThat(stats.getQueryExecutionCount()).isZero();
+        assertThat(updated.getSubject().getId()).isEqualTo(sql.getId());
+        assertThat(studyRollupService.verify()).isEmpty();
+
+        // Sessão de outro usuário: não encontrada (404); matéria de outro usuário: recusada (400)
+        assertThat(studySessionService.updateSession(sessionId, session(other, foreign))).isEmpty();
+        assertThatThrownBy(() -> studySessionService.updateSession(sessionId, session(owner, foreign)))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        // Sem matéria no corpo a sessão mantém a atual
+        StudySession semMateria = session(owner, java);
+        semMateria.setSubject(null);
+        assertThat(studySessionService.updateSession(sessionId, semMateria)).get()
+            .satisfies(saved -> assertThat(saved.getSubject().getId()).isEqualTo(sql.getId()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            StudySession saved = studySessionRepository.findById(sessionId).orElseThrow();
+            assertThat(saved.getDurationMinutes()).isEqualTo(30);
+            assertThat(saved.getSubject().getId()).isEqualTo(sql.getId());
+            assertThat(saved.getMatters()).containsExactly("JPA");
+        });
+        assertThat(studyRollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void deveAtualizarMetaApenasDoProprioUsuario() {
+        User owner = userRepository.save(new User(null, "Dono", "dono-meta@email.com", "123"));
+        User other = userRepository.save(new User(null, "Outro", "outro-meta@email.com", "123"));
+        Subject subject = subjectRepository.save(new Subject(null, "Java", "#FF0000", owner, new ArrayList<>()));
+        Subject foreign = subjectRepository.save(new Subject(null, "Python", "#00FF00", other, new ArrayList<>()));
+        Long goalId = goalService.createGoal(goal(owner, null)).getId();
+
+        Goal changes = goal(owner, subject);
+        changes.setTitle("Meta alterada");
+        assertThat(goalService.updateGoal(goalId, changes)).isPresent();
+        assertThat(goalRepository.findById(goalId)).get().satisfies(saved -> {
+            assertThat(saved.getTitle()).isEqualTo("Meta alterada");
+            assertThat(saved.getSubject().getId()).isEqualTo(subject.getId());
+        });
+
+        // Meta de outro usuário: não encontrada (404); matéria de outro usuário na própria meta: recusada (400)
+        assertThat(goalService.updateGoal(goalId, goal(other, foreign))).isEmpty();
+        assertThatThrownBy(() -> goalService.updateGoal(goalId, goal(owner, foreign)))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(goalRepository.findById(goalId)).get().satisfies(saved -> {
+            assertThat(saved.getTitle()).isEqualTo("Meta alterada");
+            assertThat(saved.getSubject().getId()).isEqualTo(subject.getId());
+        });
+    }
+
+    @Test
+    void deveExcluirApenasDoProprioUsuarioEManterRollup() {
+        User owner = userRepository.save(new User(null, "Dono", "dono-exclusao@email.com", "123"));
+        User other = userRepository.save(new User(null, "Outro", "outro-exclusao@email.com", "123"));
+        Subject subject = subjectRepository.save(new Subject(null, "Java", "#FF0000", owner, new ArrayList<>()));
+        Long sessionId = studySessionService.createSession(session(owner, subject)).getId();
+        Long goalId = goalService.createGoal(goal(owner, subject)).getId();
+
+        // De outro usuário: não encontrada, e nada (nem os assuntos da sessão) é apagado
+        assertThatThrownBy(() -> studySessionService.deleteSession(sessionId, other.getId()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> goalService.deleteGoal(goalId, other.getId()))
+            .isInstanceOf(IllegalArgumentException.class);
+        List<String> matters = new TransactionTemplate(transactionManager)
+            .execute(status -> List.copyOf(studySessionRepository.findById(sessionId).orElseThrow().getMatters()));
+        assertThat(matters).containsExactly("JPA");
+        assertThat(goalRepository.existsById(goalId)).isTrue();
+
+        Statistics stats = statistics();
+        stats.clear();
+        studySessionService.deleteSession(sessionId, owner.getId());
+        goalService.deleteGoal(goalId, owner.getId());
+
+        // Valores para o rollup vêm do próprio DELETE: nada carregado antes
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        assertThat(studySessionRepository.existsById(sessionId)).isFalse();
+        assertThat(goalRepository.existsById(goalId)).isFalse();
+        assertThat(studyRollupService.verify()).isEmpty();
+    }
+
+    private static StudySession session(User user, Subject subject) {
+        return new StudySession(null, "Sessão", null, LocalDate.now().atStartOfDay(), 30, true,
+            reference(user), subjectReference(subject), new ArrayList<>(List.of("JPA")));
+    }
+
+    private static Goal goal(User user, Subject subject) {
+        Goal goal = new Goal(null, "Meta", "HOURS", LocalDate.now(), true, reference(user));
+        goal.setTargetHours(10.0);
+        goal.setSubject(subject != null ? subjectReference(subject) : null);
+        return goal;
+    }
+
+    private static User reference(User user) {
+        User reference = new User();
+        reference.setId(user.getId());
+        return reference;
+    }
+
+    private static Subject subjectReference(Subject subject) {
+        Subject reference = new Subject();
+        reference.setId(subject.getId());
+        return reference;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
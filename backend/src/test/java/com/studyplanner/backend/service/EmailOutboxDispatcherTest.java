@@ -0,0 +1,143 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.studyplanner.backend.model.EmailOutbox;
+import com.studyplanner.backend.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.mail.internet.MimeMessage;
+
+// Outbox de ponta a ponta contra um SMTP local (GreenMail); sem transação do teste, como na aplicação
+@DataJpaTest(properties = "studyplanner.mail.outbox.max-attempts=2")
+@Import({EmailService.class, EmailOutboxDispatcher.class, EmailOutboxDispatcherTest.MailConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private EmailService emailService;
+    @Autowired private EmailOutboxDispatcher dispatcher;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class MailConfig {
+
+        // Threads em que a conversa SMTP aconteceu
+        static final List<String> SMTP_THREADS = new CopyOnWriteArrayList<>();
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl() {
+                @Override
+                protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                    SMTP_THREADS.add(Thread.currentThread().getName());
+                    super.doSend(mimeMessages, originalMessages);
+                }
+            };
+            sender.setHost("127.0.0.1");
+            sender.setPort(ServerSetupTest.SMTP.getPort());
+            Properties properties = sender.getJavaMailProperties();
+            properties.put("mail.smtp.connectiontimeout", "2000");
+            properties.put("mail.smtp.timeout", "2000");
+            return sender;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        dispatcher.drain();
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void deveEntregarEmailDaOutbox() throws Exception {
+        EmailOutbox queued = emailService.sendRecoveryEmail("aluno@email.com", "123456");
+
+        dispatcher.drain();
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 1)).isTrue();
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        assertThat(message.getSubject()).isEqualTo("Recuperação de Senha - Study Planner");
+        assertThat(GreenMailUtil.getBody(message)).contains("123456");
+
+        EmailOutbox sent = emailOutboxRepository.findById(queued.getId()).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(meterRegistry.get("email.outbox.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("email.outbox.send").tag("result", "success").timer().count()).isPositive();
+        // SMTP no pool de threads de plataforma, não na virtual thread do lote
+        assertThat(MailConfig.SMTP_THREADS).isNotEmpty().allMatch(name -> name.startsWith("email-smtp-"));
+    }
+
+    @Test
+    void deveReagendarComBackoffQuandoSmtpFalha() {
+        greenMail.stop();
+        EmailOutbox queued = emailService.sendRecoveryEmail("aluno@email.com", "654321");
+
+        dispatcher.drain();
+
+        EmailOutbox retry = emailOutboxRepository.findById(queued.getId()).orElseThrow();
+        assertThat(retry.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getLastError()).isNotBlank();
+        assertThat(retry.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(20));
+    }
+
+    @Test
+    void deveDesistirAposEsgotarTentativas() {
+        greenMail.stop();
+        EmailOutbox queued = emailService.sendRecoveryEmail("aluno@email.com", "000000");
+        dispatcher.drain();
+
+        // Simula a passagem do tempo até a próxima tentativa
+        EmailOutbox retry = emailOutboxRepository.findById(queued.getId()).orElseThrow();
+        retry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(retry);
+        dispatcher.drain();
+
+        EmailOutbox failed = emailOutboxRepository.findById(queued.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(EmailOutbox.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(meterRegistry.get("email.outbox.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void backoffDeveDobrarAteOLimite() {
+        assertThat(dispatcher.backoffFor(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoffFor(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(dispatcher.backoffFor(4)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(dispatcher.backoffFor(30)).isEqualTo(Duration.ofHours(1));
+    }
+}
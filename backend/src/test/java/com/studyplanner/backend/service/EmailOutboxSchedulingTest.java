@@ -0,0 +1,32 @@
+package com.studyplanner.backend.service;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+
+
+// Contexto completo com lazy init, como em produção: nada injeta o EmailOutboxDispatcher e mesmo assim
+// o poll precisa estar agendado desde a subida (e-mails pendentes de antes do restart)
+@SpringBootTest(properties = {
+    "spring.main.lazy-initialization=true",
+    "spring.mail.host=localhost",
+    "studyplanner.mail.outbox.poll-interval-ms=3600000"
+})
+class EmailOutboxSchedulingTest {
+
+    @Autowired private ScheduledTaskHolder scheduledTaskHolder;
+
+    @Test
+    void deveAgendarPollDaOutboxComLazyInit() {
+        // Task.toString() é "<classe>.<método>" do @Scheduled
+        List<String> scheduled = scheduledTaskHolder.getScheduledTasks().stream()
+            .map(task -> task.getTask().toString())
+            .toList();
+
+        assertThat(scheduled).contains(EmailOutboxDispatcher.class.getName() + ".poll");
+    }
+}
@@ -1,7 +1,10 @@
 package com.studyplanner.backend.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -9,16 +12,26 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 
+import com.studyplanner.backend.dto.GoalDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
 import com.studyplanner.backend.model.Goal;
-import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.GoalRepository;
-import com.studyplanner.backend.repository.StudySessionRepository;
+import com.studyplanner.backend.repository.StudyRollupRepository;
 import com.studyplanner.backend.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +39,10 @@ class GoalServiceTest {
 
     @Mock private GoalRepository goalRepository;
     @Mock private UserRepository userRepository;
-    @Mock private StudySessionRepository studySessionRepository; 
+    @Mock private StudyRollupRepository studyRollupRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private EntityIds entityIds;
 
     @InjectMocks
     private GoalService goalService;
@@ -39,13 +55,30 @@ class GoalServiceTest {
         goal.setUser(user);
         goal.setTargetHours(10.0);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(goalRepository.save(any(Goal.class))).thenReturn(goal);
+        when(entityIds.next(Goal.class)).thenReturn(100L);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(1);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
 
         Goal criada = goalService.createGoal(goal);
 
         assertNotNull(criada);
+        assertEquals(100L, criada.getId());
         assertEquals("Aprender Java", criada.getTitle());
+        verify(goalRepository, never()).save(any(Goal.class));
+    }
+
+    @Test
+    void deveTratarMetaDeOutroUsuarioComoNaoEncontrada() {
+        User user = new User(); user.setId(1L);
+        Goal goal = new Goal();
+        goal.setTitle("Aprender Java");
+        goal.setUser(user);
+
+        // O UPDATE filtra por id e usuário: nenhuma linha alterada
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(0);
+
+        assertFalse(goalService.updateGoal(7L, goal).isPresent());
+        verify(goalRepository, never()).findById(any());
     }
 
     @Test
@@ -53,27 +86,21 @@ class GoalServiceTest {
         Long userId = 1L;
         Long subjectId = 5L;
 
-        User user = new User(); user.setId(userId);
-        Subject subject = new Subject(); subject.setId(subjectId);
+        GoalDTO goal = goal(subjectId, null, 10.0, null, null, null);
 
-        Goal goal = new Goal();
-        goal.setUser(user);
-        goal.setSubject(subject);
-        goal.setTargetHours(10.0); 
-        goal.setActive(true);
-
-        when(goalRepository.findByUser_IdAndActiveTrue(userId)).thenReturn(List.of(goal));
+        when(goalRepository.findActiveSummariesByUserId(userId)).thenReturn(List.of(goal));
 
-        when(studySessionRepository.getTotalMinutesBySubject(userId, subjectId)).thenReturn(120);
+        when(studyRollupRepository.sumBySubjects(userId, Set.of(subjectId)))
+            .thenReturn(List.of(new StudyTotalsDTO.SubjectTotals(subjectId, 120L, 0L)));
 
-        List<Goal> metas = goalService.findGoalsByUserId(userId);
+        List<GoalDTO> metas = goalService.findGoalsByUserId(userId);
 
         assertFalse(metas.isEmpty());
-        Goal metaProcessada = metas.get(0);
+        GoalDTO metaProcessada = metas.get(0);
 
-        assertEquals(2.0, metaProcessada.getCurrentHours()); 
+        assertEquals(2.0, metaProcessada.currentHours()); 
         
-        assertEquals(20, metaProcessada.getProgressPercentage());
+        assertEquals(20, metaProcessada.progressPercentage());
     }
 
     @Test
@@ -81,17 +108,56 @@ class GoalServiceTest {
         Long userId = 1L;
         Long subjectId = 5L;
         
-        Goal goal = new Goal();
-        goal.setUser(new User());
-        Subject sub = new Subject(); sub.setId(subjectId);
-        goal.setSubject(sub);
-        goal.setTargetHours(2.0); 
+        GoalDTO goal = goal(subjectId, null, 2.0, null, null, null);
 
-        when(goalRepository.findByUser_IdAndActiveTrue(userId)).thenReturn(List.of(goal));
-        when(studySessionRepository.getTotalMinutesBySubject(userId, subjectId)).thenReturn(300);
+        when(goalRepository.findActiveSummariesByUserId(userId)).thenReturn(List.of(goal));
+        when(studyRollupRepository.sumBySubjects(userId, Set.of(subjectId)))
+            .thenReturn(List.of(new StudyTotalsDTO.SubjectTotals(subjectId, 300L, 0L)));
 
-        List<Goal> metas = goalService.findGoalsByUserId(userId);
+        List<GoalDTO> metas = goalService.findGoalsByUserId(userId);
+
+        assertEquals(100, metas.get(0).progressPercentage());
+    }
+
+    @Test
+    void deveCalcularProgressoDeMuitasMetasComNumeroFixoDeConsultas() {
+        Long userId = 1L;
+        List<GoalDTO> goals = new ArrayList<>();
+
+        for (long i = 1; i <= 40; i++) {
+            goals.add(goal(i, null, 1.0, null, null, null));
+            goals.add(goal(i, " Álgebra ", null, 10, null, null));
+        }
+        goals.add(goal(null, null, 10.0, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+
+        when(goalRepository.findActiveSummariesByUserId(userId)).thenReturn(goals);
+        when(studyRollupRepository.sumBySubjects(eq(userId), anyCollection()))
+            .thenReturn(List.of(new StudyTotalsDTO.SubjectTotals(1L, 30L, 0L)));
+        when(studyRollupRepository.sumByMatters(eq(userId), anyCollection(), eq(Set.of("Álgebra"))))
+            .thenReturn(List.of(new StudyTotalsDTO.MatterTotals(2L, "Álgebra", 0L, 5L)));
+        when(studyRollupRepository.sumByDay(eq(userId), any(), any()))
+            .thenReturn(List.of(
+                new StudyTotalsDTO.DailyTotals(LocalDate.of(2024, 1, 10), 120L, 0L),
+                new StudyTotalsDTO.DailyTotals(LocalDate.of(2024, 2, 1), 600L, 0L)));
+
+        List<GoalDTO> metas = goalService.findGoalsByUserId(userId);
+
+        assertEquals(81, metas.size());
+        assertEquals(50, metas.get(0).progressPercentage());
+        assertEquals(0, metas.get(2).progressPercentage());
+        assertEquals(50, metas.get(3).progressPercentage());
+        GoalDTO porPeriodo = metas.get(80);
+        assertEquals(2.0, porPeriodo.currentHours());
+        assertEquals(20, porPeriodo.progressPercentage());
+
+        verify(studyRollupRepository, times(1)).sumBySubjects(eq(userId), anyCollection());
+        verify(studyRollupRepository, times(1)).sumByMatters(eq(userId), anyCollection(), anyCollection());
+        verify(studyRollupRepository, times(1)).sumByDay(eq(userId), any(), any());
+    }
 
-        assertEquals(100, metas.get(0).getProgressPercentage());
+    private static GoalDTO goal(Long subjectId, String matters, Double targetHours, Integer targetQuestions,
+                                LocalDate startDate, LocalDate endDate) {
+        return new GoalDTO(null, "Meta", "Semanal", startDate, endDate, true, targetHours, targetQuestions,
+                           subjectId, subjectId != null ? "Matéria " + subjectId : null, null, matters);
     }
-}
\ No newline at end of file
+}
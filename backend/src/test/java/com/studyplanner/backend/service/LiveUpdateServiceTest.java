@@ -0,0 +1,216 @@
+package com.studyplanner.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.studyplanner.backend.dto.DashboardStatsDTO;
+import com.studyplanner.backend.dto.DashboardStatsDTO.ChartDataDTO;
+import com.studyplanner.backend.dto.GoalDTO;
+import com.studyplanner.backend.dto.LiveUpdateDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+import com.studyplanner.backend.exception.RateLimitedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LiveUpdateServiceTest {
+
+    private static final Pattern EVENT_NAME = Pattern.compile("event:(\\w+)");
+
+    @Mock private DashboardService dashboardService;
+    @Mock private GoalService goalService;
+    @Mock private TaskScheduler taskScheduler;
+
+    private LiveUpdateService liveUpdateService;
+    // Um permit por envio concluído (sending já liberado)
+    private final Semaphore sendsFinished = new Semaphore(0);
+
+    @BeforeEach
+    void setUp() {
+        liveUpdateService = new LiveUpdateService(dashboardService, goalService, taskScheduler, new SimpleMeterRegistry(),
+                100, 2, Duration.ofMinutes(30), Duration.ofMillis(250)) {
+            @Override
+            SseEmitter newEmitter(Duration timeout) {
+                return new RecordingEmitter();
+            }
+
+            @Override
+            void sendFinished(Connection connection) {
+                sendsFinished.release();
+            }
+        };
+    }
+
+    @Test
+    void deveEnviarSnapshotEDepoisSoOQueMudou() throws Exception {
+        when(dashboardService.getStats(1L)).thenReturn(stats(10, 2, 0.5));
+        when(goalService.findGoalsByUserId(1L)).thenReturn(List.of(goal(1L, 20), goal(2L, 50)));
+
+        RecordingEmitter aba1 = (RecordingEmitter) liveUpdateService.subscribe(1L);
+        RecordingEmitter aba2 = (RecordingEmitter) liveUpdateService.subscribe(1L);
+        assertThat(aba1.next().name()).isEqualTo("snapshot");
+        Sent snapshot = aba2.next();
+        assertThat(snapshot.name()).isEqualTo("snapshot");
+        assertThat(((LiveUpdateDTO) snapshot.data()).goals()).hasSize(2);
+        awaitSendsFinished(2);
+
+        when(dashboardService.getStats(1L)).thenReturn(stats(11, 3, 1.5));
+        when(goalService.findGoalsByUserId(1L)).thenReturn(List.of(goal(1L, 40), goal(2L, 50)));
+
+        // Duas alterações seguidas: uma única leitura para as duas abas
+        liveUpdateService.onUserDataChanged(new UserDataChangedEvent(1L, UserDataChangedEvent.Source.SESSION));
+        liveUpdateService.onUserDataChanged(new UserDataChangedEvent(1L, UserDataChangedEvent.Source.GOAL));
+        runScheduledFlush();
+
+        for (RecordingEmitter aba : List.of(aba1, aba2)) {
+            Sent sent = aba.next();
+            assertThat(sent.name()).isEqualTo("delta");
+            LiveUpdateDTO delta = (LiveUpdateDTO) sent.data();
+            assertThat(delta.totals().weeklyHours()).isEqualTo(3);
+            assertThat(delta.chart()).extracting(ChartDataDTO::getHours).containsExactly(1.5);
+            assertThat(delta.goals()).extracting(GoalDTO::id).containsExactly(1L);
+            assertThat(delta.removedGoalIds()).isEmpty();
+        }
+        verify(dashboardService, times(2)).getStats(1L);
+
+        // Usuário sem conexão: nada é agendado
+        liveUpdateService.onUserDataChanged(new UserDataChangedEvent(2L, UserDataChangedEvent.Source.SESSION));
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void deveLimitarConexoesPorUsuarioELiberarAsQueCaem() throws Exception {
+        when(dashboardService.getStats(any())).thenReturn(stats(1, 1, 0));
+        when(goalService.findGoalsByUserId(any())).thenReturn(List.of());
+
+        RecordingEmitter caiu = (RecordingEmitter) liveUpdateService.subscribe(1L);
+        liveUpdateService.subscribe(1L);
+        assertThatThrownBy(() -> liveUpdateService.subscribe(1L))
+            .isInstanceOfSatisfying(RateLimitedException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        liveUpdateService.subscribe(2L);
+        assertThat(liveUpdateService.connectionCount()).isEqualTo(3);
+
+        // O heartbeat descobre o cliente desconectado e libera a vaga
+        caiu.next();
+        caiu.failing = true;
+        liveUpdateService.heartbeat();
+        for (int i = 0; i < 100 && liveUpdateService.connectionCount() > 2; i++) Thread.sleep(20);
+        assertThat(liveUpdateService.connectionCount()).isEqualTo(2);
+        liveUpdateService.subscribe(1L);
+    }
+
+    @Test
+    void deveTrocarDeltasPerdidosPorSnapshotQuandoClienteAtrasa() throws Exception {
+        when(dashboardService.getStats(1L)).thenReturn(stats(10, 1, 0));
+        when(goalService.findGoalsByUserId(1L)).thenReturn(List.of());
+        RecordingEmitter lento = (RecordingEmitter) liveUpdateService.subscribe(1L);
+        assertThat(lento.next().name()).isEqualTo("snapshot");
+        // O snapshot só deixa de contar como envio em andamento quando run termina
+        awaitSendsFinished(1);
+
+        lento.gate = new CountDownLatch(1);
+        for (int weeklyHours = 2; weeklyHours <= 4; weeklyHours++) {
+            when(dashboardService.getStats(1L)).thenReturn(stats(10, weeklyHours, 0));
+            liveUpdateService.onUserDataChanged(new UserDataChangedEvent(1L, UserDataChangedEvent.Source.SESSION));
+            runScheduledFlush();
+            if (weeklyHours == 2) assertThat(lento.entered.await(2, TimeUnit.SECONDS)).isTrue();
+        }
+        lento.gate.countDown();
+
+        // O primeiro delta já estava saindo; os dois seguintes viram um snapshot do estado final
+        assertThat(lento.next().name()).isEqualTo("delta");
+        Sent resync = lento.next();
+        assertThat(resync.name()).isEqualTo("snapshot");
+        assertThat(((LiveUpdateDTO) resync.data()).totals().weeklyHours()).isEqualTo(4);
+        assertThat(lento.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private void awaitSendsFinished(int sends) throws InterruptedException {
+        assertThat(sendsFinished.tryAcquire(sends, 2, TimeUnit.SECONDS)).as("envios concluídos").isTrue();
+    }
+
+    private void runScheduledFlush() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, atLeastOnce()).schedule(flush.capture(), any(Instant.class));
+        flush.getValue().run();
+    }
+
+    private static DashboardStatsDTO stats(int totalHours, int weeklyHours, double todayHours) {
+        LocalDate today = LocalDate.of(2026, 3, 10);
+        return new DashboardStatsDTO(totalHours, weeklyHours, 5L, 2L, List.of(
+            new ChartDataDTO(today.minusDays(1).toString(), 1.0),
+            new ChartDataDTO(today.toString(), todayHours)));
+    }
+
+    private static GoalDTO goal(Long id, int progress) {
+        return new GoalDTO(id, "Meta " + id, "Semanal", LocalDate.of(2026, 3, 9), null, true, 10.0, null,
+            progress / 10.0, 0, progress, null, null);
+    }
+
+    record Sent(String name, Object data) {}
+
+    static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<Sent> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+        volatile boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) throw new IOException("Broken pipe");
+            CountDownLatch currentGate = gate;
+            if (currentGate != null) {
+                entered.countDown();
+                try {
+                    currentGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String name = "ping";
+            Object data = null;
+            for (var part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    Matcher matcher = EVENT_NAME.matcher(text);
+                    if (matcher.find()) name = matcher.group(1);
+                } else {
+                    data = part.getData();
+                }
+            }
+            sent.add(new Sent(name, data));
+        }
+
+        Sent next() throws InterruptedException {
+            Sent next = sent.poll(2, TimeUnit.SECONDS);
+            assertThat(next).as("evento enviado").isNotNull();
+            return next;
+        }
+    }
+}
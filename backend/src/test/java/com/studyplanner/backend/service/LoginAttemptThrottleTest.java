@@ -0,0 +1,77 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpStatus;
+
+import com.studyplanner.backend.exception.RateLimitedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginAttemptThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new LoginAttemptThrottle(meterRegistry, new ServerProperties(), 3, 5, Duration.ofMinutes(15));
+    }
+
+    @Test
+    void deveBloquearEmailAposOLimiteDeFalhas() {
+        for (int i = 0; i < 3; i++) {
+            assertThatCode(() -> throttle.check("Aluno@Email.com", "203.0.113.1")).doesNotThrowAnyException();
+            throttle.recordFailure("Aluno@Email.com", "203.0.113.1");
+        }
+
+        assertThatThrownBy(() -> throttle.check("aluno@email.com", "203.0.113.2"))
+            .isInstanceOfSatisfying(RateLimitedException.class,
+                e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThatCode(() -> throttle.check("outro@email.com", "203.0.113.1")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("auth.throttled").tag("key", "email").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveBloquearIpQueTentaVariosEmails() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("aluno" + i + "@email.com", "203.0.113.1");
+        }
+
+        assertThatThrownBy(() -> throttle.check("novo@email.com", "203.0.113.1")).isInstanceOf(RateLimitedException.class);
+        assertThatCode(() -> throttle.check("novo@email.com", "203.0.113.2")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("auth.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void enderecoDeProxyConfiavelNaoDeveContarComoIp() {
+        // Proxy sem X-Forwarded-For: todos chegam com o endereço dele, então só o limite por e-mail vale
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("aluno" + i + "@email.com", "10.0.0.1");
+        }
+
+        assertThatCode(() -> throttle.check("novo@email.com", "10.0.0.1")).doesNotThrowAnyException();
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("novo@email.com", "10.0.0.1");
+        }
+        assertThatThrownBy(() -> throttle.check("novo@email.com", "10.0.0.1")).isInstanceOf(RateLimitedException.class);
+    }
+
+    @Test
+    void sucessoDeveZerarAsFalhasDoEmail() {
+        throttle.recordFailure("aluno@email.com", "203.0.113.1");
+        throttle.recordFailure("aluno@email.com", "203.0.113.1");
+        throttle.recordSuccess("aluno@email.com");
+        throttle.recordFailure("aluno@email.com", "203.0.113.1");
+        throttle.recordFailure("aluno@email.com", "203.0.113.1");
+
+        assertThatCode(() -> throttle.check("aluno@email.com", "203.0.113.1")).doesNotThrowAnyException();
+    }
+}
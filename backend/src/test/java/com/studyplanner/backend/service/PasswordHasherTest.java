@@ -0,0 +1,79 @@
+package com.studyplanner.backend.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.studyplanner.backend.exception.RateLimitedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+    @Test
+    void deveRecusarNaHoraQuandoAFilaEstiverCheia() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(encoder.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        PasswordHasher hasher = new PasswordHasher(encoder, meterRegistry, 10, 1, 1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Uma operação ocupando a única thread e outra ocupando a única vaga da fila
+            callers.submit(() -> hasher.matches("a", "b"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            callers.submit(() -> hasher.matches("a", "b"));
+            while (meterRegistry.get("password.hash.queue.size").gauge().value() < 1) Thread.sleep(5);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> hasher.matches("a", "b"))
+                .isInstanceOfSatisfying(RateLimitedException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.toResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+                });
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+            assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            assertThat(callers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            hasher.destroy();
+        }
+
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hash.queue.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveIndicarRehashQuandoOCustoMudar() {
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 5, 1, 4);
+        try {
+            String atual = hasher.encode("senha123");
+            String antigo = new BCryptPasswordEncoder(4).encode("senha123");
+
+            assertThat(hasher.matches("senha123", atual)).isTrue();
+            assertThat(hasher.matches("outra", atual)).isFalse();
+            assertThat(hasher.needsRehash(atual)).isFalse();
+            assertThat(hasher.needsRehash(antigo)).isTrue();
+            assertThat(hasher.needsRehash("texto-puro")).isTrue();
+        } finally {
+            hasher.destroy();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.studyplanner.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.dto.SessionImportDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+
+@DataJpaTest
+@Import({SessionImportService.class, StudySessionService.class, StudyRollupService.class, EntityIds.class, ReturningSql.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = {"studyplanner.import.chunk-size=2", "studyplanner.import.max-errors=3"})
+class SessionImportServiceTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private SessionImportService sessionImportService;
+    @Autowired private StudySessionService studySessionService;
+    @Autowired private StudyRollupService studyRollupService;
+    @Autowired private StudyRollupRepository studyRollupRepository;
+
+    @Test
+    void deveImportarCsvDePlanilhaEReportarLinhasInvalidas() {
+        User user = persistUser("csv@email.com");
+        Subject java = persistSubject(user, "Java");
+        String amanha = LocalDate.now().plusDays(1).toString();
+
+        String csv = "﻿Title;Date;Duration_Minutes;Subject;Matters;Completed;Total_Questions;Correct_Questions;Description\r\n"
+            + "Revisão;2024-03-01;60;java;JPA|Streams;sim;10;8;\"Lista 1; capítulo 2\"\r\n"
+            + "Exercícios;2024-03-01T19:30;30;Java;;não;;;\r\n"
+            + "Futuro;" + amanha + ";30;Java;;;;;\r\n"
+            + "Sem matéria;2024-03-02;30;Química;;;;;\r\n"
+            + "Duração;2024-03-02;muito;Java;;;;;\r\n"
+            + "\"Com\nquebra\";2024-03-03;45;Java;JPA;;;;\r\n";
+
+        SessionImportDTO.Result result = sessionImportService.importCsv(user.getId(), stream(csv));
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors()).extracting(SessionImportDTO.RowError::row).containsExactly(4L, 5L, 6L);
+        assertThat(result.errors().get(1).message()).isEqualTo("Matéria não encontrada: Química");
+
+        List<SessionDTO> sessions = studySessionService.findAllByUserId(user.getId());
+        assertThat(sessions).extracting(SessionDTO::title).containsExactlyInAnyOrder("Revisão", "Exercícios", "Com\nquebra");
+        SessionDTO revisao = sessions.stream().filter(s -> s.title().equals("Revisão")).findFirst().orElseThrow();
+        assertThat(revisao.description()).isEqualTo("Lista 1; capítulo 2");
+        assertThat(revisao.matters()).containsExactlyInAnyOrder("JPA", "Streams");
+        assertThat(revisao.completed()).isTrue();
+        assertThat(revisao.correctQuestions()).isEqualTo(8);
+
+        assertThat(studyRollupService.verify()).isEmpty();
+        assertThat(studyRollupRepository.sumBySubjects(user.getId(), Set.of(java.getId())))
+            .containsExactly(new StudyTotalsDTO.SubjectTotals(java.getId(), 135L, 10L));
+    }
+
+    @Test
+    void deveImportarJsonEmBlocosSomandoAoRollupExistente() {
+        User user = persistUser("json@email.com");
+        Subject java = persistSubject(user, "Java");
+        Subject sql = persistSubject(user, "SQL");
+
+        String json = "["
+            + "{\"title\":\"A\",\"date\":\"2024-03-01T10:00\",\"durationMinutes\":30,\"subjectId\":" + java.getId() + ",\"matters\":[\"JPA\"]},"
+            + "{\"title\":\"B\",\"date\":\"2024-03-01\",\"durationMinutes\":20,\"subject\":\"SQL\",\"totalQuestions\":5,\"correctQuestions\":5},"
+            + "{\"title\":\"C\",\"date\":\"2024-03-01\",\"durationMinutes\":\"meia hora\",\"subject\":\"SQL\"},"
+            + "{\"title\":\"D\",\"date\":\"2024-03-02\",\"durationMinutes\":10,\"subjectId\":" + java.getId() + ",\"completed\":true}"
+            + "]";
+        SessionImportDTO.Result first = sessionImportService.importJson(user.getId(), stream(json));
+
+        assertThat(first.imported()).isEqualTo(3);
+        assertThat(first.errors()).extracting(SessionImportDTO.RowError::row).containsExactly(3L);
+
+        // Segunda importação cai nas mesmas chaves do rollup: UPDATE em vez de INSERT
+        SessionImportDTO.Result second = sessionImportService.importJson(user.getId(), stream(json));
+        assertThat(second.imported()).isEqualTo(3);
+
+        assertThat(studyRollupService.verify()).isEmpty();
+        assertThat(studyRollupRepository.sumBySubjects(user.getId(), Set.of(java.getId(), sql.getId())))
+            .containsExactlyInAnyOrder(new StudyTotalsDTO.SubjectTotals(java.getId(), 80L, 0L),
+                                       new StudyTotalsDTO.SubjectTotals(sql.getId(), 40L, 10L));
+    }
+
+    @Test
+    void jsonMalformadoDeveManterOQueJaFoiGravado() {
+        User user = persistUser("quebrado@email.com");
+        persistSubject(user, "Java");
+
+        String json = "[{\"title\":\"A\",\"date\":\"2024-03-01\",\"durationMinutes\":30,\"subject\":\"Java\"},"
+            + "{\"title\":\"B\",\"date\":\"2024-03-01\",\"durationMinutes\":30,\"subject\":\"Java\"},"
+            + "{\"title\":\"C\",\"date\":";
+        SessionImportDTO.Result result = sessionImportService.importJson(user.getId(), stream(json));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.row()).isEqualTo(3);
+            assertThat(error.message()).startsWith("JSON malformado");
+        });
+        assertThat(studyRollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void deveLimitarAListaDeErrosMasContarTodos() {
+        User user = persistUser("erros@email.com");
+        persistSubject(user, "Java");
+
+        StringBuilder csv = new StringBuilder("title,date,durationMinutes,subject\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("Sessão ").append(i).append(",ontem,30,Java\n");
+        }
+        SessionImportDTO.Result result = sessionImportService.importCsv(user.getId(), stream(csv.toString()));
+
+        assertThat(result.imported()).isZero();
+        assertThat(result.rejected()).isEqualTo(10);
+        assertThat(result.errors()).hasSize(3);
+    }
+
+    @Test
+    void deveRecusarUsuarioInexistente() {
+        assertThatThrownBy(() -> sessionImportService.importJson(999L, stream("[]")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private User persistUser(String email) {
+        User user = entityManager.persist(new User(null, "Importação", email, "123"));
+        entityManager.flush();
+        return user;
+    }
+
+    private Subject persistSubject(User user, String name) {
+        Subject subject = entityManager.persist(new Subject(null, name, "#FF0000", user, List.of()));
+        entityManager.flush();
+        return subject;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.studyplanner.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.StudySessionRepository;
+
+// Compara o tamanho da listagem antiga (entidades serializadas) com a projeção em SessionDTO.
+// O tempo de cada formato é medido em backend-benchmarks (SessionSerializationBenchmark)
+@DataJpaTest
+@Import({StudySessionService.class, StudyRollupService.class, EntityIds.class, ReturningSql.class})
+class SessionPayloadTest {
+
+    private static final int SESSIONS = 1_000;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private StudySessionRepository studySessionRepository;
+    @Autowired private StudySessionService studySessionService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        User user = new User(null, "Payload", "payload@email.com", "123");
+        entityManager.persist(user);
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Subject subject = new Subject(null, "Matéria " + i, "#FF0000", user,
+                    new ArrayList<>(List.of("Álgebra", "Geometria", "Trigonometria", "Estatística")));
+            entityManager.persist(subject);
+            subjects.add(subject);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < SESSIONS; i++) {
+            entityManager.persist(new StudySession(null, "Sessão " + i, "Revisão de exercícios", now.minusHours(i), 45, true,
+                    user, subjects.get(i % subjects.size()), new ArrayList<>(List.of("Álgebra"))));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        userId = user.getId();
+    }
+
+    @Test
+    void projecaoDeveGerarPayloadMenorQueEntidades() throws Exception {
+        byte[] entities = entityPayload();
+        byte[] dtos = dtoPayload();
+
+        assertThat(objectMapper.readTree(dtos).size()).isEqualTo(SESSIONS);
+        assertThat(objectMapper.readTree(dtos).get(0).has("user")).isFalse();
+        assertThat(objectMapper.readTree(dtos).get(0).get("subject").has("matters")).isFalse();
+        assertThat(dtos.length).isLessThan(entities.length);
+    }
+
+    private byte[] entityPayload() {
+        return write(studySessionRepository.findByUserIdOrderByDateDesc(userId));
+    }
+
+    private byte[] dtoPayload() {
+        return write(studySessionService.findAllByUserId(userId));
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
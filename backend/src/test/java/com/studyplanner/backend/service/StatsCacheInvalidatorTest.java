@@ -0,0 +1,79 @@
+package com.studyplanner.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.dto.DashboardStatsDTO;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+
+class StatsCacheInvalidatorTest {
+
+    private CaffeineCacheManager cacheManager;
+    private StatsCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(CacheConfig.DASHBOARD_STATS, CacheConfig.GOAL_PROGRESS);
+        invalidator = new StatsCacheInvalidator(cacheManager);
+    }
+
+    @Test
+    void deveRemoverApenasAsEntradasDoUsuarioAlterado() {
+        Cache dashboard = cacheManager.getCache(CacheConfig.DASHBOARD_STATS);
+        Cache goals = cacheManager.getCache(CacheConfig.GOAL_PROGRESS);
+
+        dashboard.put(DashboardService.cacheKey(1L), new DashboardStatsDTO());
+        dashboard.put(DashboardService.cacheKey(2L), new DashboardStatsDTO());
+        goals.put(1L, "metas do 1");
+        goals.put(2L, "metas do 2");
+
+        invalidator.onUserDataChanged(new UserDataChangedEvent(1L, UserDataChangedEvent.Source.SESSION));
+
+        assertThat(dashboard.get(DashboardService.cacheKey(1L))).isNull();
+        assertThat(goals.get(1L)).isNull();
+        assertThat(dashboard.get(DashboardService.cacheKey(2L))).isNotNull();
+        assertThat(goals.get(2L)).isNotNull();
+    }
+
+    @Test
+    void cargaIniciadaAntesDoCommitNaoDeveFicarNoCache() throws Exception {
+        Cache goals = cacheManager.getCache(CacheConfig.GOAL_PROGRESS);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Leitura com sync = true que começou antes do commit e ainda está carregando o valor antigo
+        CompletableFuture<Object> reader = CompletableFuture.supplyAsync(() -> goals.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            return "metas antigas";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread evictor = new Thread(() -> invalidator.onUserDataChanged(
+            new UserDataChangedEvent(1L, UserDataChangedEvent.Source.GOAL)));
+        evictor.start();
+        // A remoção fica bloqueada até a carga terminar
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (evictor.getState() == Thread.State.RUNNABLE && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo("metas antigas");
+        evictor.join(5_000);
+        assertThat(goals.get(1L)).isNull();
+    }
+
+    @Test
+    void chaveDoDashboardDeveMudarComODia() {
+        assertThat(DashboardService.cacheKey(7L)).isEqualTo("7:" + CacheConfig.today());
+    }
+}
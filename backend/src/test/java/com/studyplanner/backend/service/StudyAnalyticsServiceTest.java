@@ -0,0 +1,107 @@
+package com.studyplanner.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.studyplanner.backend.dto.StudyAnalyticsDTO;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+
+@DataJpaTest
+@Import({StudyAnalyticsService.class, StudyRollupService.class, StudySessionService.class, EntityIds.class, ReturningSql.class})
+class StudyAnalyticsServiceTest {
+
+    // Segunda-feira
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private StudySessionService studySessionService;
+    @Autowired private StudyAnalyticsService studyAnalyticsService;
+
+    private User user;
+    private Subject java;
+    private Subject sql;
+
+    @BeforeEach
+    void setUp() {
+        user = new User(null, "Análise", "analise@email.com", "123");
+        entityManager.persist(user);
+        java = new Subject(null, "Java", "#FF0000", user, List.of("JPA"));
+        entityManager.persist(java);
+        sql = new Subject(null, "SQL", "#00FF00", user, List.of());
+        entityManager.persist(sql);
+        // A criação grava via JDBC (INSERT ... SELECT): usuário e matérias precisam estar no banco
+        entityManager.flush();
+
+        studySessionService.createSession(session(java, MONDAY, 60, List.of("JPA"), 10, 8));
+        studySessionService.createSession(session(java, MONDAY.plusDays(2), 30, List.of(), 0, 0));
+        studySessionService.createSession(session(sql, MONDAY.plusDays(2), 45, List.of(), 10, 5));
+        // Semana seguinte fica vazia; a outra sessão cai duas semanas depois
+        studySessionService.createSession(session(java, MONDAY.plusWeeks(2).plusDays(4), 20, List.of("JPA"), 0, 0));
+    }
+
+    @Test
+    void deveAgruparPorSemanaPreenchendoBuracos() {
+        StudyAnalyticsDTO analytics = studyAnalyticsService.getAnalytics(user.getId(),
+            MONDAY.plusDays(1), MONDAY.plusWeeks(3).minusDays(1), "week", null, null);
+
+        assertThat(analytics.buckets()).extracting(StudyAnalyticsDTO.Bucket::start)
+            .containsExactly(MONDAY, MONDAY.plusWeeks(1), MONDAY.plusWeeks(2));
+        // O período começa na terça: a sessão de segunda fica de fora do primeiro bucket
+        assertThat(analytics.buckets().get(0))
+            .isEqualTo(new StudyAnalyticsDTO.Bucket(MONDAY, 75, 2, 10, 5, 50.0));
+        assertThat(analytics.buckets().get(1))
+            .isEqualTo(new StudyAnalyticsDTO.Bucket(MONDAY.plusWeeks(1), 0, 0, 0, 0, null));
+        assertThat(analytics.buckets().get(2).minutes()).isEqualTo(20);
+    }
+
+    @Test
+    void deveFiltrarPorMateriaEAssunto() {
+        StudyAnalyticsDTO porMateria = studyAnalyticsService.getAnalytics(user.getId(),
+            MONDAY, MONDAY.plusDays(6), "DAY", java.getId(), null);
+
+        assertThat(porMateria.buckets()).hasSize(7);
+        assertThat(porMateria.buckets()).extracting(StudyAnalyticsDTO.Bucket::minutes)
+            .containsExactly(60L, 0L, 30L, 0L, 0L, 0L, 0L);
+        assertThat(porMateria.buckets().get(0).accuracy()).isEqualTo(80.0);
+
+        StudyAnalyticsDTO porAssunto = studyAnalyticsService.getAnalytics(user.getId(),
+            MONDAY, MONDAY.plusMonths(1), "month", null, "JPA");
+
+        assertThat(porAssunto.matter()).isEqualTo("JPA");
+        assertThat(porAssunto.buckets()).extracting(StudyAnalyticsDTO.Bucket::start)
+            .containsExactly(MONDAY.withDayOfMonth(1), MONDAY.withDayOfMonth(1).plusMonths(1));
+        assertThat(porAssunto.buckets().get(0).minutes()).isEqualTo(80);
+        assertThat(porAssunto.buckets().get(0).sessions()).isEqualTo(2);
+    }
+
+    @Test
+    void deveRecusarPeriodoOuGranularidadeInvalidos() {
+        assertThatThrownBy(() -> studyAnalyticsService.getAnalytics(user.getId(), MONDAY, MONDAY.minusDays(1), "day", null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studyAnalyticsService.getAnalytics(user.getId(), MONDAY, MONDAY, "year", null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studyAnalyticsService.getAnalytics(user.getId(), MONDAY, MONDAY.plusYears(2), "day", null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private StudySession session(Subject subject, LocalDate day, int minutes, List<String> matters, int total, int correct) {
+        User ref = new User(); ref.setId(user.getId());
+        Subject subjectRef = new Subject(); subjectRef.setId(subject.getId());
+        StudySession session = new StudySession(null, "Sessão", null, day.atTime(10, 0), minutes, true, ref, subjectRef, new ArrayList<>(matters));
+        session.setTotalQuestions(total);
+        session.setCorrectQuestions(correct);
+        return session;
+    }
+}
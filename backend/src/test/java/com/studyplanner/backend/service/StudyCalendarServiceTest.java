@@ -0,0 +1,134 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.dto.StudyHeatmapDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.event.StudyDaysChangedEvent;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Import({StudyRollupService.class, StudySessionService.class, EntityIds.class, ReturningSql.class})
+@RecordApplicationEvents
+class StudyCalendarServiceTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private StudySessionService studySessionService;
+    @Autowired private StudyRollupRepository studyRollupRepository;
+    @Autowired private ApplicationEvents events;
+
+    private StudyCalendarService studyCalendarService;
+
+    @BeforeEach
+    void setUp() {
+        studyCalendarService = new StudyCalendarService(studyRollupRepository, new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void deveAtualizarCalendarioEmCriacaoEdicaoEExclusao() {
+        User user = new User(null, "Calendário", "calendario@email.com", "123");
+        entityManager.persist(user);
+        Subject subject = new Subject(null, "Química", "#00FFFF", user, List.of());
+        entityManager.persist(subject);
+        // A criação grava via JDBC (INSERT ... SELECT): usuário e matéria precisam estar no banco
+        entityManager.flush();
+
+        LocalDate today = CacheConfig.today();
+        studySessionService.createSession(session(user, subject, today, 60));
+        StudySession ontem = studySessionService.createSession(session(user, subject, today.minusDays(1), 30));
+        studySessionService.createSession(session(user, subject, today.minusDays(3), 45));
+
+        StudyHeatmapDTO heatmap = studyCalendarService.getHeatmap(user.getId(), 365);
+        assertThat(heatmap.end()).isEqualTo(today);
+        assertThat(heatmap.minutes()[364]).isEqualTo(60);
+        assertThat(heatmap.studiedDays()).isEqualTo(3);
+        assertThat(heatmap.totalMinutes()).isEqualTo(135);
+        assertThat(heatmap.currentStreak()).isEqualTo(2);
+        assertThat(heatmap.longestStreak()).isEqualTo(2);
+
+        // Eventos anteriores à carga: reaplicá-los não muda nada (o calendário relê valores absolutos)
+        deliverEvents();
+        studySessionService.updateSession(ontem.getId(), session(user, subject, today.minusDays(2), 50));
+
+        // Calendário em cache: sem o evento, a edição ainda não aparece
+        assertThat(studyCalendarService.getHeatmap(user.getId(), 365).minutes()[363]).isEqualTo(30);
+
+        deliverEvents();
+        heatmap = studyCalendarService.getHeatmap(user.getId(), 365);
+        assertThat(heatmap.minutes()[363]).isZero();
+        assertThat(heatmap.minutes()[362]).isEqualTo(50);
+        assertThat(heatmap.currentStreak()).isEqualTo(1);
+        assertThat(heatmap.longestStreak()).isEqualTo(2);
+
+        studySessionService.deleteSession(ontem.getId(), user.getId());
+        deliverEvents();
+        heatmap = studyCalendarService.getHeatmap(user.getId(), 365);
+        assertThat(heatmap.studiedDays()).isEqualTo(2);
+        assertThat(heatmap.totalMinutes()).isEqualTo(105);
+        assertThat(heatmap.longestStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void naoDeveGuardarCalendarioLidoAntesDeUmaAlteracao() {
+        StudyRollupRepository repository = mock(StudyRollupRepository.class);
+        StudyCalendarService service = new StudyCalendarService(repository, new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        LocalDate today = CacheConfig.today();
+        // A alteração é confirmada enquanto a carga lê o banco: o evento ainda não acha o calendário no cache
+        when(repository.findStudiedDays(1L))
+            .thenAnswer(invocation -> {
+                service.onStudyDaysChanged(new StudyDaysChangedEvent(1L, Set.of(today)));
+                return List.of();
+            })
+            .thenReturn(List.of(new StudyTotalsDTO.DayActivity(today, 40L, 1L)));
+
+        assertThat(service.getHeatmap(1L, 7).studiedDays()).isZero();
+        assertThat(service.getHeatmap(1L, 7).studiedDays()).isEqualTo(1);
+        assertThat(service.getHeatmap(1L, 7).studiedDays()).isEqualTo(1);
+        verify(repository, times(2)).findStudiedDays(1L);
+    }
+
+    @Test
+    void deveRecusarPeriodoInvalido() {
+        assertThatThrownBy(() -> studyCalendarService.getHeatmap(1L, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studyCalendarService.getHeatmap(1L, StudyCalendarService.MAX_HEATMAP_DAYS + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Sem commit no teste, entregamos os eventos como o listener faria depois do commit
+    private void deliverEvents() {
+        events.stream(StudyDaysChangedEvent.class).forEach(studyCalendarService::onStudyDaysChanged);
+        events.clear();
+    }
+
+    private static StudySession session(User user, Subject subject, LocalDate day, int minutes) {
+        User ref = new User(); ref.setId(user.getId());
+        Subject subjectRef = new Subject(); subjectRef.setId(subject.getId());
+        return new StudySession(null, "Sessão", null, day.atTime(9, 0), minutes, true, ref, subjectRef, new ArrayList<>());
+    }
+}
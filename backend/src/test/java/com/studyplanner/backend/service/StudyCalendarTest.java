@@ -0,0 +1,115 @@
+package com.studyplanner.backend.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import com.studyplanner.backend.dto.StudyHeatmapDTO;
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+
+class StudyCalendarTest {
+
+    // 1970-03-06 é o primeiro dia da segunda palavra do bitmap (epoch day 64)
+    private static final LocalDate WORD_START = LocalDate.ofEpochDay(64);
+
+    @Test
+    void deveContarSequenciasQueAtravessamPalavras() {
+        StudyCalendar calendar = new StudyCalendar();
+        // 3 dias no fim da primeira palavra, a segunda inteira e 10 dias da terceira = 77 dias seguidos
+        for (LocalDate day = WORD_START.minusDays(3); day.isBefore(WORD_START.plusDays(74)); day = day.plusDays(1)) {
+            calendar.set(day, true, 30);
+        }
+        calendar.set(WORD_START.plusDays(100), true, 15);
+
+        assertThat(calendar.longestStreak()).isEqualTo(77);
+        assertThat(calendar.currentStreak(WORD_START.plusDays(73))).isEqualTo(77);
+        // Hoje ainda sem estudo: vale a sequência que terminou ontem
+        assertThat(calendar.currentStreak(WORD_START.plusDays(74))).isEqualTo(77);
+        assertThat(calendar.currentStreak(WORD_START.plusDays(75))).isZero();
+        assertThat(calendar.currentStreak(WORD_START.plusDays(100))).isEqualTo(1);
+    }
+
+    @Test
+    void deveMontarMapaDeCalorEDesligarDiasSemSessao() {
+        StudyCalendar calendar = new StudyCalendar();
+        LocalDate today = LocalDate.of(2026, 3, 10);
+        calendar.set(today, true, 60);
+        calendar.set(today.minusDays(1), true, 45);
+        calendar.set(today.minusDays(2), true, 20);
+        calendar.set(today.minusDays(400), true, 90);
+
+        calendar.set(today.minusDays(1), false, 0);
+
+        StudyHeatmapDTO heatmap = calendar.heatmap(today, 365);
+
+        assertThat(heatmap.start()).isEqualTo(today.minusDays(364));
+        assertThat(heatmap.minutes()).hasSize(365);
+        assertThat(heatmap.minutes()[364]).isEqualTo(60);
+        assertThat(heatmap.minutes()[363]).isZero();
+        assertThat(heatmap.minutes()[362]).isEqualTo(20);
+        assertThat(heatmap.studiedDays()).isEqualTo(2);
+        assertThat(heatmap.totalMinutes()).isEqualTo(80);
+        assertThat(heatmap.currentStreak()).isEqualTo(1);
+        assertThat(heatmap.longestStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void deveConcordarComContagemDiaADia() {
+        Random random = new Random(42);
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        boolean[] studied = new boolean[900];
+        StudyCalendar calendar = new StudyCalendar();
+        // Marca em ordem embaralhada para exercitar o crescimento do bitmap nas duas pontas
+        for (int n = 0; n < 3000; n++) {
+            int i = random.nextInt(studied.length);
+            boolean value = random.nextInt(10) < 8;
+            studied[i] = value;
+            calendar.set(first.plusDays(i), value, i);
+        }
+
+        int longest = 0;
+        int run = 0;
+        for (boolean day : studied) {
+            run = day ? run + 1 : 0;
+            longest = Math.max(longest, run);
+        }
+        assertThat(calendar.longestStreak()).isEqualTo(longest);
+
+        for (int today = 0; today < studied.length; today += 37) {
+            int end = studied[today] ? today : today - 1;
+            int expected = 0;
+            while (end - expected >= 0 && studied[end - expected]) expected++;
+            assertThat(calendar.currentStreak(first.plusDays(today))).as("dia %d", today).isEqualTo(expected);
+
+            StudyHeatmapDTO heatmap = calendar.heatmap(first.plusDays(today), 100);
+            long minutes = 0;
+            int days = 0;
+            for (int i = Math.max(0, today - 99); i <= today; i++) {
+                if (studied[i]) {
+                    days++;
+                    minutes += i;
+                }
+            }
+            assertThat(heatmap.studiedDays()).isEqualTo(days);
+            assertThat(heatmap.totalMinutes()).isEqualTo(minutes);
+        }
+    }
+
+    @Test
+    void naoDeveAplicarLeituraMaisAntigaQueAUltima() {
+        StudyCalendar calendar = new StudyCalendar(5);
+        LocalDate day = WORD_START.plusDays(1);
+
+        assertThat(calendar.apply(6, Set.of(day), List.of(new StudyTotalsDTO.DayActivity(day, 30L, 1L)))).isTrue();
+        // Lida antes da versão 6: poderia desfazer a sessão criada
+        assertThat(calendar.apply(4, Set.of(day), List.of())).isFalse();
+        assertThat(calendar.studied(day)).isTrue();
+
+        assertThat(calendar.apply(7, Set.of(day), List.of())).isTrue();
+        assertThat(calendar.studied(day)).isFalse();
+    }
+}
@@ -0,0 +1,118 @@
+package com.studyplanner.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.studyplanner.backend.dto.StudyTotalsDTO;
+import com.studyplanner.backend.model.StudySession;
+import com.studyplanner.backend.model.Subject;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.StudyRollupRepository;
+
+@DataJpaTest
+@Import({StudyRollupService.class, StudySessionService.class, EntityIds.class, ReturningSql.class})
+class StudyRollupServiceTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private StudySessionService studySessionService;
+    @Autowired private StudyRollupService studyRollupService;
+    @Autowired private StudyRollupRepository studyRollupRepository;
+
+    @Test
+    void deveManterRollupConsistenteEmCriacaoEdicaoEExclusao() {
+        User user = new User(null, "Rollup", "rollup@email.com", "123");
+        entityManager.persist(user);
+        Subject java = new Subject(null, "Java", "#FF0000", user, List.of("JPA"));
+        entityManager.persist(java);
+        Subject sql = new Subject(null, "SQL", "#00FF00", user, List.of());
+        entityManager.persist(sql);
+        // A criação grava via JDBC (INSERT ... SELECT): usuário e matérias precisam estar no banco
+        entityManager.flush();
+
+        LocalDateTime ontem = LocalDate.now().minusDays(1).atTime(9, 0);
+
+        StudySession a = studySessionService.createSession(session(user, java, ontem, 60, List.of("JPA")));
+        StudySession b = studySessionService.createSession(session(user, java, ontem.plusHours(3), 30, List.of("JPA", "Streams")));
+        studySessionService.createSession(session(user, sql, ontem.minusDays(2), 45, List.of()));
+
+        StudySession edicao = session(user, sql, ontem.minusDays(1), 90, List.of("Joins"));
+        edicao.setTotalQuestions(20);
+        studySessionService.updateSession(a.getId(), edicao);
+
+        studySessionService.deleteSession(b.getId(), user.getId());
+        entityManager.flush();
+
+        assertThat(studyRollupService.verify()).isEmpty();
+
+        assertThat(studyRollupRepository.sumBySubjects(user.getId(), Set.of(java.getId(), sql.getId())))
+            .containsExactlyInAnyOrder(new StudyTotalsDTO.SubjectTotals(sql.getId(), 135L, 20L),
+                                       new StudyTotalsDTO.SubjectTotals(java.getId(), 0L, 0L));
+    }
+
+    @Test
+    void deveDetectarDivergenciaERecalcular() {
+        User user = new User(null, "Drift", "drift@email.com", "123");
+        entityManager.persist(user);
+        Subject subject = new Subject(null, "Física", "#0000FF", user, List.of());
+        entityManager.persist(subject);
+
+        // Sessão gravada direto no banco, sem passar pelo serviço: o rollup fica defasado
+        entityManager.persist(new StudySession(null, "Direto", null, LocalDate.now().atStartOfDay(), 50, false,
+                user, subject, new ArrayList<>(List.of("Óptica"))));
+        entityManager.flush();
+
+        assertThat(studyRollupService.verify()).hasSize(2);
+
+        assertThat(studyRollupService.rebuild()).isEqualTo(2);
+        entityManager.flush();
+
+        assertThat(studyRollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void deveAgruparTotaisPorMateriaAssuntoEDia() {
+        User user = new User(null, "User Agrupado", "agrupado@email.com", "123");
+        entityManager.persist(user);
+        Subject subject = new Subject(null, "Matemática", "#0000FF", user, List.of());
+        entityManager.persist(subject);
+
+        LocalDateTime dia1 = LocalDate.of(2024, 3, 1).atTime(10, 0);
+        LocalDateTime dia2 = LocalDate.of(2024, 3, 2).atTime(22, 30);
+
+        StudySession s1 = new StudySession(null, "S1", null, dia1, 60, true, user, subject, new ArrayList<>(List.of("Álgebra", "Geometria")));
+        s1.setTotalQuestions(10);
+        entityManager.persist(s1);
+        entityManager.persist(new StudySession(null, "S2", null, dia1.plusHours(2), 30, false, user, subject, new ArrayList<>(List.of("Álgebra"))));
+        StudySession s3 = new StudySession(null, "S3", null, dia2, 45, true, user, subject, new ArrayList<>());
+        s3.setTotalQuestions(5);
+        entityManager.persist(s3);
+        entityManager.flush();
+
+        studyRollupService.rebuild();
+        entityManager.flush();
+
+        assertThat(studyRollupRepository.sumBySubjects(user.getId(), Set.of(subject.getId())))
+            .containsExactly(new StudyTotalsDTO.SubjectTotals(subject.getId(), 135L, 15L));
+        assertThat(studyRollupRepository.sumByMatters(user.getId(), Set.of(subject.getId()), Set.of("Álgebra")))
+            .containsExactly(new StudyTotalsDTO.MatterTotals(subject.getId(), "Álgebra", 90L, 10L));
+        assertThat(studyRollupRepository.sumByDay(user.getId(), dia1.toLocalDate(), dia2.toLocalDate()))
+            .containsExactly(new StudyTotalsDTO.DailyTotals(LocalDate.of(2024, 3, 1), 90L, 10L),
+                             new StudyTotalsDTO.DailyTotals(LocalDate.of(2024, 3, 2), 45L, 5L));
+    }
+
+    private static StudySession session(User user, Subject subject, LocalDateTime date, int minutes, List<String> matters) {
+        User ref = new User(); ref.setId(user.getId());
+        Subject subjectRef = new Subject(); subjectRef.setId(subject.getId());
+        return new StudySession(null, "Sessão", null, date, minutes, true, ref, subjectRef, new ArrayList<>(matters));
+    }
+}
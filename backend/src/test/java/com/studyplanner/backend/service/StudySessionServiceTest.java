@@ -1,26 +1,40 @@
 package com.studyplanner.backend.service;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import com.studyplanner.backend.dto.SessionDTO;
+import com.studyplanner.backend.dto.SessionPageDTO;
 import com.studyplanner.backend.model.StudySession;
 import com.studyplanner.backend.model.Subject;
 import com.studyplanner.backend.model.User;
 import com.studyplanner.backend.repository.StudySessionRepository;
-import com.studyplanner.backend.repository.SubjectRepository;
 import com.studyplanner.backend.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +42,12 @@ class StudySessionServiceTest {
 
     @Mock private StudySessionRepository studySessionRepository;
     @Mock private UserRepository userRepository;
-    @Mock private SubjectRepository subjectRepository;
+    @Mock private StudyRollupService studyRollupService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private EntityIds entityIds;
+    @Mock private ReturningSql returningSql;
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private StudySessionService studySessionService;
@@ -43,13 +62,38 @@ class StudySessionServiceTest {
         session.setSubject(subject);
         session.setDate(LocalDateTime.now().minusHours(1)); 
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(subjectRepository.findById(10L)).thenReturn(Optional.of(subject));
-        when(studySessionRepository.save(any())).thenReturn(session);
+        when(entityIds.next(StudySession.class)).thenReturn(100L);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(1);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
 
         StudySession criada = studySessionService.createSession(session);
 
         assertNotNull(criada);
+        assertEquals(100L, criada.getId());
+        assertEquals(10L, criada.getSubject().getId());
+        verify(studyRollupService).add(any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void deveRecusarSessaoComMateriaDeOutroUsuario() {
+        User user = new User(); user.setId(1L);
+        Subject subject = new Subject(); subject.setId(99L);
+
+        StudySession session = new StudySession();
+        session.setUser(user);
+        session.setSubject(subject);
+        session.setDate(LocalDateTime.now().minusHours(1));
+
+        when(entityIds.next(StudySession.class)).thenReturn(100L);
+        // O INSERT ... SELECT não encontra a matéria do usuário e não grava nada
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(0);
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+            () -> studySessionService.createSession(session));
+
+        assertEquals("Matéria não encontrada.", erro.getMessage());
+        verifyNoInteractions(studyRollupService, eventPublisher);
     }
 
     @Test
@@ -69,6 +113,69 @@ class StudySessionServiceTest {
 
         assertEquals("Não é possível registrar sessões em datas futuras.", erro.getMessage());
         
-        verify(studySessionRepository, never()).save(any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void deveExportarEmBlocosEntregandoCadaUmDepoisDoCommit() {
+        LocalDateTime base = LocalDateTime.of(2024, 5, 10, 8, 0);
+        List<SessionDTO> first = new ArrayList<>();
+        for (long id = 501; id >= 2; id--) {
+            first.add(summary(id, base));
+        }
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(studySessionRepository.findFirstPage(eq(1L), eq(Limit.of(500)))).thenReturn(first);
+        when(studySessionRepository.findPageAfter(eq(1L), eq(base), eq(2L), eq(Limit.of(500)))).thenReturn(List.of(summary(1L, base)));
+        when(studySessionRepository.findMattersBySessionIds(any())).thenReturn(List.of());
+
+        List<Long> exported = new ArrayList<>();
+        studySessionService.forEachSession(1L, session -> {
+            // O bloco da sessão já foi commitado: nenhuma transação (conexão) aberta enquanto o cliente consome
+            verify(transactionManager, times(session.id() > 1 ? 1 : 2)).commit(any());
+            exported.add(session.id());
+        });
+
+        assertEquals(501, exported.size());
+        assertEquals(1L, exported.get(500));
+    }
+
+    @Test
+    void deveRetornarCursorQuandoHouverMaisSessoes() {
+        ReflectionTestUtils.setField(studySessionService, "maxPageSize", 200);
+        LocalDateTime base = LocalDateTime.of(2024, 5, 10, 8, 0);
+        List<SessionDTO> rows = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            rows.add(summary(id, base));
+        }
+        when(studySessionRepository.findFirstPage(eq(1L), eq(Limit.of(3)))).thenReturn(rows);
+
+        SessionPageDTO<SessionDTO> page = studySessionService.findPage(1L, null, 2);
+
+        assertEquals(2, page.items().size());
+        SessionPageDTO.Cursor cursor = SessionPageDTO.Cursor.decode(page.nextCursor());
+        assertEquals(base, cursor.date());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void deveEncerrarPaginacaoNaUltimaPagina() {
+        ReflectionTestUtils.setField(studySessionService, "maxPageSize", 200);
+        LocalDateTime base = LocalDateTime.of(2024, 5, 10, 8, 0);
+        String cursor = new SessionPageDTO.Cursor(base, 5L).encode();
+        when(studySessionRepository.findPageAfter(eq(1L), eq(base), eq(5L), eq(Limit.of(11)))).thenReturn(List.of(summary(4L, base.minusDays(1))));
+
+        SessionPageDTO<SessionDTO> page = studySessionService.findPage(1L, cursor, 10);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void deveRejeitarCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> studySessionService.findPage(1L, "lixo", 10));
+    }
+
+    private static SessionDTO summary(Long id, LocalDateTime date) {
+        return new SessionDTO(id, "Sessão", null, date, 30, true, 10L, "Java", "#FF0000", null, null);
     }
-}
\ No newline at end of file
+}
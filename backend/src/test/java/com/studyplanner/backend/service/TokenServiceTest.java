@@ -0,0 +1,69 @@
+package com.studyplanner.backend.service;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.studyplanner.backend.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "segredo-de-teste";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenService = new TokenService(SECRET, 100, meterRegistry);
+    }
+
+    @Test
+    void deveValidarTokenGeradoEUsarCacheNasChamadasSeguintes() {
+        String token = tokenService.generateToken(new User(null, "Teste", "teste@email.com", "123"));
+
+        assertThat(tokenService.validateToken(token)).isEqualTo("teste@email.com");
+        assertThat(tokenService.validateToken(token)).isEqualTo("teste@email.com");
+        assertThat(tokenService.validateToken(token)).isEqualTo("teste@email.com");
+
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(2);
+    }
+
+    @Test
+    void naoDeveAceitarNemCachearTokenAssinadoComOutraChave() {
+        String forged = JWT.create().withIssuer("auth-api").withSubject("teste@email.com")
+                .withExpiresAt(Instant.now().plusSeconds(600)).sign(Algorithm.HMAC256("outra-chave"));
+
+        assertThat(tokenService.validateToken(forged)).isEmpty();
+        assertThat(tokenService.validateToken(forged)).isEmpty();
+        assertThat(gets("hit")).isZero();
+    }
+
+    @Test
+    void naoDeveAceitarTokenExpirado() {
+        String expired = JWT.create().withIssuer("auth-api").withSubject("teste@email.com")
+                .withExpiresAt(Instant.now().minusSeconds(60)).sign(Algorithm.HMAC256(SECRET));
+
+        assertThat(tokenService.validateToken(expired)).isEmpty();
+    }
+
+    @Test
+    void deveRetornarVazioParaTokenAusenteOuMalformado() {
+        assertThat(tokenService.validateToken(null)).isEmpty();
+        assertThat(tokenService.validateToken("")).isEmpty();
+        assertThat(tokenService.validateToken("nao.e.jwt")).isEmpty();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", TokenService.VERIFIED_TOKENS).tag("result", result)
+                .functionCounter().count();
+    }
+}
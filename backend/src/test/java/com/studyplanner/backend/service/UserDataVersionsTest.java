@@ -0,0 +1,56 @@
+package com.studyplanner.backend.service;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.studyplanner.backend.config.CacheConfig;
+import com.studyplanner.backend.event.UserDataChangedEvent;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Os eventos são entregues à mão: no teste a transação nunca chega ao commit
+@DataJpaTest
+class UserDataVersionsTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private UserRepository userRepository;
+
+    private UserDataVersions userDataVersions;
+
+    @BeforeEach
+    void setUp() {
+        userDataVersions = new UserDataVersions(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void deveMudarOETagSoDepoisDaAlteracaoSerConfirmada() {
+        User user = new User(null, "Versão", "versao@email.com", "123");
+        entityManager.persist(user);
+        UserDataChangedEvent event = new UserDataChangedEvent(user.getId(), UserDataChangedEvent.Source.SUBJECT);
+
+        long today = CacheConfig.today().toEpochDay();
+        assertThat(userDataVersions.current(user.getId())).contains(0L);
+        assertThat(userDataVersions.etag(user.getId())).contains("\"" + user.getId() + "-0-" + today + "\"");
+
+        userDataVersions.bump(event);
+        assertThat(userRepository.findDataVersion(user.getId())).contains(1L);
+        // Ainda em cache até o evento pós-commit
+        assertThat(userDataVersions.current(user.getId())).contains(0L);
+
+        userDataVersions.onUserDataChanged(event);
+        assertThat(userDataVersions.etag(user.getId())).contains("\"" + user.getId() + "-1-" + today + "\"");
+    }
+
+    @Test
+    void naoDeveGerarETagParaUsuarioInexistente() {
+        assertThat(userDataVersions.etag(999_999L)).isEmpty();
+    }
+}
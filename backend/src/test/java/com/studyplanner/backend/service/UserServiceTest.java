@@ -0,0 +1,89 @@
+package com.studyplanner.backend.service;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.studyplanner.backend.event.PasswordChangedEvent;
+import com.studyplanner.backend.model.User;
+import com.studyplanner.backend.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private PasswordHasher passwordHasher;
+    @Mock private LoginAttemptThrottle loginAttemptThrottle;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void deveVerificarEGerarHashAntesDeAbrirATransacao() {
+        User user = user("hash-antigo");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("atual", "hash-antigo")).thenReturn(true);
+        when(passwordHasher.encode("nova")).thenReturn("hash-novo");
+        runTransactions();
+
+        userService.changePassword(1L, "atual", "nova");
+
+        InOrder order = inOrder(passwordHasher, transactionTemplate, userRepository);
+        order.verify(passwordHasher).matches("atual", "hash-antigo");
+        order.verify(passwordHasher).encode("nova");
+        order.verify(transactionTemplate).executeWithoutResult(any());
+        order.verify(userRepository).save(user);
+        assertEquals("hash-novo", user.getPassword());
+        assertEquals(1, user.getPasswordVersion());
+        verify(eventPublisher).publishEvent(any(PasswordChangedEvent.class));
+    }
+
+    @Test
+    void deveRecusarQuandoASenhaMudouDuranteOHash() {
+        User before = user("hash-antigo");
+        User after = user("hash-de-outra-troca");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(before), Optional.of(after));
+        when(passwordHasher.matches("atual", "hash-antigo")).thenReturn(true);
+        when(passwordHasher.encode("nova")).thenReturn("hash-novo");
+        runTransactions();
+
+        assertThrows(RuntimeException.class, () -> userService.changePassword(1L, "atual", "nova"));
+
+        verify(userRepository, never()).save(any());
+        assertEquals("hash-de-outra-troca", after.getPassword());
+    }
+
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static User user(String passwordHash) {
+        User user = new User(null, "Aluno", "aluno@email.com", passwordHash);
+        user.setId(1L);
+        return user;
+    }
+}